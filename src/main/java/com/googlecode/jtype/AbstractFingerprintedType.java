@@ -0,0 +1,60 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.io.Serializable;
+import java.lang.reflect.Type;
+
+/**
+ * Base class for this library's immutable types that caches their fingerprints.
+ * 
+ * @author Mark Hobson
+ * @see TypeUtils#fingerprint(Type)
+ */
+abstract class AbstractFingerprintedType implements Type, Serializable
+{
+	// constants --------------------------------------------------------------
+	
+	private static final long serialVersionUID = 1L;
+	
+	// fields -----------------------------------------------------------------
+	
+	/**
+	 * The cached fingerprint of this type, or zero if it has not been computed.
+	 */
+	private transient volatile long fingerprint;
+	
+	// package methods --------------------------------------------------------
+	
+	/**
+	 * Gets the fingerprint of this type, computing it when it is first needed.
+	 * 
+	 * @return the fingerprint
+	 * @see TypeUtils#fingerprint(Type)
+	 */
+	final long getFingerprint()
+	{
+		long fingerprint = this.fingerprint;
+		
+		if (fingerprint == 0)
+		{
+			fingerprint = TypeUtils.computeFingerprint(this);
+			
+			// benign race: the type is immutable so concurrent computations produce equal results
+			this.fingerprint = fingerprint;
+		}
+		
+		return fingerprint;
+	}
+}
@@ -127,6 +127,13 @@ abstract class AbstractTypeVisitor implements TypeVisitor
 		// no-op
 	}
 	
+	// package methods --------------------------------------------------------
+	
+	void visit(ClassFileClass type)
+	{
+		// no-op
+	}
+	
 	// protected methods ------------------------------------------------------
 	
 	protected void visit(Type type)
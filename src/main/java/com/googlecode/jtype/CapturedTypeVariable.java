@@ -0,0 +1,162 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fresh type variable that results from the capture conversion of a wildcard type argument.
+ * <p>
+ * Captured type variables are only equal to themselves. They hold the wildcard type and the type parameter that it
+ * was an argument for, and derive their bounds from both when first requested.
+ * 
+ * @author Mark Hobson
+ * @see <a href="http://java.sun.com/docs/books/jls/third_edition/html/conversions.html#5.1.10">5.1.10 Capture
+ *      Conversion</a>
+ */
+final class CapturedTypeVariable implements TypeVariable<GenericDeclaration>
+{
+	// constants --------------------------------------------------------------
+	
+	private static final Type[] DEFAULT_BOUNDS = new Type[] {Object.class};
+	
+	// fields -----------------------------------------------------------------
+	
+	private final WildcardType wildcardType;
+	
+	private final TypeVariable<?> typeParameter;
+	
+	/**
+	 * The bounds of this type variable, or {@code null} if they have not been derived. Concurrent derivations produce
+	 * equal bounds, so the field only needs to be volatile to publish the array safely.
+	 */
+	private volatile Type[] bounds;
+	
+	// constructors -----------------------------------------------------------
+	
+	public CapturedTypeVariable(WildcardType wildcardType, TypeVariable<?> typeParameter)
+	{
+		this.wildcardType = wildcardType;
+		this.typeParameter = typeParameter;
+	}
+	
+	// TypeVariable methods ---------------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	public Type[] getBounds()
+	{
+		Type[] bounds = this.bounds;
+		
+		if (bounds == null)
+		{
+			bounds = createBounds();
+			
+			this.bounds = bounds;
+		}
+		
+		return bounds.clone();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	public GenericDeclaration getGenericDeclaration()
+	{
+		return typeParameter.getGenericDeclaration();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	public String getName()
+	{
+		return "capture of " + wildcardType;
+	}
+	
+	// public methods ---------------------------------------------------------
+	
+	/**
+	 * Gets the lower bound of this type variable.
+	 * 
+	 * @return the lower bound of the captured wildcard type, or {@code null} if it has none
+	 */
+	public Type getLowerBound()
+	{
+		Type[] lowerBounds = wildcardType.getLowerBounds();
+		
+		return (lowerBounds.length > 0) ? lowerBounds[0] : null;
+	}
+	
+	// Object methods ---------------------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return getName();
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private Type[] createBounds()
+	{
+		// approximates glb(Bi, Ui) by combining the bounds without resolving those that refer to type variables
+		List<Type> bounds = new ArrayList<Type>();
+		
+		addBounds(bounds, wildcardType.getUpperBounds());
+		
+		for (Type bound : typeParameter.getBounds())
+		{
+			if (bound instanceof Class<?>)
+			{
+				addBounds(bounds, new Type[] {bound});
+			}
+		}
+		
+		return bounds.isEmpty() ? DEFAULT_BOUNDS : bounds.toArray(new Type[bounds.size()]);
+	}
+	
+	private static void addBounds(List<Type> bounds, Type[] newBounds)
+	{
+		for (Type newBound : newBounds)
+		{
+			if (newBound != Object.class && !isAssignableFromAny(newBound, bounds))
+			{
+				bounds.add(newBound);
+			}
+		}
+	}
+	
+	private static boolean isAssignableFromAny(Type supertype, List<Type> types)
+	{
+		for (Type type : types)
+		{
+			if (TypeUtils.isAssignable(supertype, type))
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+}
@@ -0,0 +1,325 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * The parts of a class file that describe a class's position in the type hierarchy.
+ * <p>
+ * Only the constant pool, the class header and the {@code Signature} attribute are decoded; fields, methods and all
+ * other attributes are skipped.
+ * 
+ * @author Mark Hobson
+ * @see <a href="http://docs.oracle.com/javase/specs/jvms/se7/html/jvms-4.html">4 The class File Format</a>
+ */
+final class ClassFile
+{
+	// constants --------------------------------------------------------------
+	
+	private static final int MAGIC = 0xCAFEBABE;
+	
+	private static final int ACC_INTERFACE = 0x0200;
+	
+	private static final int CONSTANT_UTF8 = 1;
+	
+	private static final int CONSTANT_INTEGER = 3;
+	
+	private static final int CONSTANT_FLOAT = 4;
+	
+	private static final int CONSTANT_LONG = 5;
+	
+	private static final int CONSTANT_DOUBLE = 6;
+	
+	private static final int CONSTANT_CLASS = 7;
+	
+	private static final int CONSTANT_STRING = 8;
+	
+	private static final int CONSTANT_FIELDREF = 9;
+	
+	private static final int CONSTANT_METHODREF = 10;
+	
+	private static final int CONSTANT_INTERFACE_METHODREF = 11;
+	
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+	
+	private static final int CONSTANT_METHOD_HANDLE = 15;
+	
+	private static final int CONSTANT_METHOD_TYPE = 16;
+	
+	private static final int CONSTANT_DYNAMIC = 17;
+	
+	private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+	
+	private static final int CONSTANT_MODULE = 19;
+	
+	private static final int CONSTANT_PACKAGE = 20;
+	
+	private static final String SIGNATURE_ATTRIBUTE = "Signature";
+	
+	// fields -----------------------------------------------------------------
+	
+	private final String name;
+	
+	private final int accessFlags;
+	
+	private final String superclassName;
+	
+	private final String[] interfaceNames;
+	
+	private final String signature;
+	
+	// constructors -----------------------------------------------------------
+	
+	private ClassFile(String name, int accessFlags, String superclassName, String[] interfaceNames, String signature)
+	{
+		this.name = name;
+		this.accessFlags = accessFlags;
+		this.superclassName = superclassName;
+		this.interfaceNames = interfaceNames;
+		this.signature = signature;
+	}
+	
+	// public methods ---------------------------------------------------------
+	
+	public static ClassFile parse(ByteBuffer buffer)
+	{
+		try
+		{
+			return parseInternal(buffer);
+		}
+		catch (BufferUnderflowException exception)
+		{
+			throw new IllegalArgumentException("Truncated class file");
+		}
+		catch (IndexOutOfBoundsException exception)
+		{
+			throw new IllegalArgumentException("Malformed class file");
+		}
+	}
+	
+	public String getName()
+	{
+		return name;
+	}
+	
+	public boolean isInterface()
+	{
+		return (accessFlags & ACC_INTERFACE) != 0;
+	}
+	
+	/**
+	 * Gets the binary name of this class's superclass.
+	 * 
+	 * @return the superclass name, or {@code null} if this class is {@code java.lang.Object}
+	 */
+	public String getSuperclassName()
+	{
+		return superclassName;
+	}
+	
+	public String[] getInterfaceNames()
+	{
+		return interfaceNames.clone();
+	}
+	
+	/**
+	 * Gets the generic signature of this class.
+	 * 
+	 * @return the class signature, or {@code null} if this class does not use generics in its declaration
+	 */
+	public String getSignature()
+	{
+		return signature;
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private static ClassFile parseInternal(ByteBuffer buffer)
+	{
+		if (buffer.getInt() != MAGIC)
+		{
+			throw new IllegalArgumentException("Not a class file");
+		}
+		
+		// skip minor and major versions
+		buffer.getInt();
+		
+		int[] offsets = parseConstantPool(buffer);
+		
+		int accessFlags = getUnsignedShort(buffer);
+		String name = getClassName(buffer, offsets, getUnsignedShort(buffer));
+		
+		int superclassIndex = getUnsignedShort(buffer);
+		String superclassName = (superclassIndex != 0) ? getClassName(buffer, offsets, superclassIndex) : null;
+		
+		String[] interfaceNames = new String[getUnsignedShort(buffer)];
+		
+		for (int i = 0; i < interfaceNames.length; i++)
+		{
+			interfaceNames[i] = getClassName(buffer, offsets, getUnsignedShort(buffer));
+		}
+		
+		// skip fields and methods
+		skipMembers(buffer);
+		skipMembers(buffer);
+		
+		String signature = null;
+		int attributeCount = getUnsignedShort(buffer);
+		
+		for (int i = 0; i < attributeCount && signature == null; i++)
+		{
+			String attributeName = getUtf8(buffer, offsets, getUnsignedShort(buffer));
+			int attributeLength = buffer.getInt();
+			
+			if (SIGNATURE_ATTRIBUTE.equals(attributeName))
+			{
+				signature = getUtf8(buffer, offsets, getUnsignedShort(buffer));
+			}
+			else
+			{
+				skip(buffer, attributeLength);
+			}
+		}
+		
+		return new ClassFile(name, accessFlags, superclassName, interfaceNames, signature);
+	}
+	
+	private static int[] parseConstantPool(ByteBuffer buffer)
+	{
+		int[] offsets = new int[getUnsignedShort(buffer)];
+		
+		for (int i = 1; i < offsets.length; i++)
+		{
+			int tag = buffer.get() & 0xFF;
+			
+			offsets[i] = buffer.position();
+			
+			switch (tag)
+			{
+				case CONSTANT_UTF8:
+					skip(buffer, getUnsignedShort(buffer));
+					break;
+				
+				case CONSTANT_CLASS:
+				case CONSTANT_STRING:
+				case CONSTANT_METHOD_TYPE:
+				case CONSTANT_MODULE:
+				case CONSTANT_PACKAGE:
+					skip(buffer, 2);
+					break;
+				
+				case CONSTANT_METHOD_HANDLE:
+					skip(buffer, 3);
+					break;
+				
+				case CONSTANT_INTEGER:
+				case CONSTANT_FLOAT:
+				case CONSTANT_FIELDREF:
+				case CONSTANT_METHODREF:
+				case CONSTANT_INTERFACE_METHODREF:
+				case CONSTANT_NAME_AND_TYPE:
+				case CONSTANT_DYNAMIC:
+				case CONSTANT_INVOKE_DYNAMIC:
+					skip(buffer, 4);
+					break;
+				
+				case CONSTANT_LONG:
+				case CONSTANT_DOUBLE:
+					skip(buffer, 8);
+					// eight-byte constants take up two entries
+					i++;
+					break;
+				
+				default:
+					throw new IllegalArgumentException("Unknown constant pool tag: " + tag);
+			}
+		}
+		
+		return offsets;
+	}
+	
+	private static void skipMembers(ByteBuffer buffer)
+	{
+		int memberCount = getUnsignedShort(buffer);
+		
+		for (int i = 0; i < memberCount; i++)
+		{
+			// skip access flags, name and descriptor
+			skip(buffer, 6);
+			
+			int attributeCount = getUnsignedShort(buffer);
+			
+			for (int j = 0; j < attributeCount; j++)
+			{
+				// skip attribute name
+				skip(buffer, 2);
+				
+				skip(buffer, buffer.getInt());
+			}
+		}
+	}
+	
+	private static String getClassName(ByteBuffer buffer, int[] offsets, int classIndex)
+	{
+		int nameIndex = buffer.getShort(offsets[classIndex]) & 0xFFFF;
+		
+		return getUtf8(buffer, offsets, nameIndex).replace('/', '.');
+	}
+	
+	private static String getUtf8(ByteBuffer buffer, int[] offsets, int index)
+	{
+		// decode modified UTF-8 as per JVM specification 4.4.7
+		
+		int offset = offsets[index];
+		int length = buffer.getShort(offset) & 0xFFFF;
+		
+		char[] chars = new char[length];
+		int charCount = 0;
+		
+		for (int i = offset + 2; i < offset + 2 + length; i++)
+		{
+			int b = buffer.get(i) & 0xFF;
+			
+			if ((b & 0x80) == 0)
+			{
+				chars[charCount++] = (char) b;
+			}
+			else if ((b & 0xE0) == 0xC0)
+			{
+				chars[charCount++] = (char) (((b & 0x1F) << 6) | (buffer.get(++i) & 0x3F));
+			}
+			else
+			{
+				int b2 = buffer.get(++i) & 0x3F;
+				int b3 = buffer.get(++i) & 0x3F;
+				
+				chars[charCount++] = (char) (((b & 0x0F) << 12) | (b2 << 6) | b3);
+			}
+		}
+		
+		return new String(chars, 0, charCount);
+	}
+	
+	private static int getUnsignedShort(ByteBuffer buffer)
+	{
+		return buffer.getShort() & 0xFFFF;
+	}
+	
+	private static void skip(ByteBuffer buffer, int length)
+	{
+		buffer.position(buffer.position() + length);
+	}
+}
@@ -0,0 +1,302 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * A class or interface type that is read from its class file rather than loaded by a class loader.
+ * <p>
+ * This is the class file equivalent of {@code Class}. The generic signature is only parsed when type parameters or
+ * generic supertypes are first requested.
+ * 
+ * @author Mark Hobson
+ * @see ClassFileTypeLoader
+ */
+final class ClassFileClass implements Type, GenericDeclaration
+{
+	// classes ----------------------------------------------------------------
+	
+	/**
+	 * The parsed generic signature of a class.
+	 */
+	private static final class ParsedSignature
+	{
+		public TypeVariable<ClassFileClass>[] typeParameters;
+		
+		public Type superclass;
+		
+		public Type[] interfaces;
+	}
+	
+	// fields -----------------------------------------------------------------
+	
+	private final ClassFileTypeLoader loader;
+	
+	private final ClassFile classFile;
+	
+	private volatile ParsedSignature parsedSignature;
+	
+	/**
+	 * A Bloom filter of the names of this class and all of its raw supertypes, or zero if it has not been computed.
+	 */
+	private volatile long supertypeFilter;
+	
+	// constructors -----------------------------------------------------------
+	
+	public ClassFileClass(ClassFileTypeLoader loader, ClassFile classFile)
+	{
+		this.loader = loader;
+		this.classFile = classFile;
+	}
+	
+	// GenericDeclaration methods ---------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	public TypeVariable<ClassFileClass>[] getTypeParameters()
+	{
+		return getParsedSignature().typeParameters.clone();
+	}
+	
+	// public methods ---------------------------------------------------------
+	
+	public String getName()
+	{
+		return classFile.getName();
+	}
+	
+	public boolean isInterface()
+	{
+		return classFile.isInterface();
+	}
+	
+	public ClassFileTypeLoader getLoader()
+	{
+		return loader;
+	}
+	
+	/**
+	 * Gets the raw superclass of this class without parsing its generic signature.
+	 * 
+	 * @return the superclass, or {@code null} if this class is an interface or {@code java.lang.Object}
+	 */
+	public ClassFileClass getSuperclass()
+	{
+		String superclassName = classFile.getSuperclassName();
+		
+		if (superclassName == null || isInterface())
+		{
+			return null;
+		}
+		
+		return loader.getClass(superclassName);
+	}
+	
+	/**
+	 * Gets the raw interfaces of this class without parsing its generic signature.
+	 * 
+	 * @return the interfaces
+	 */
+	public ClassFileClass[] getInterfaces()
+	{
+		String[] interfaceNames = classFile.getInterfaceNames();
+		ClassFileClass[] interfaces = new ClassFileClass[interfaceNames.length];
+		
+		for (int i = 0; i < interfaceNames.length; i++)
+		{
+			interfaces[i] = loader.getClass(interfaceNames[i]);
+		}
+		
+		return interfaces;
+	}
+	
+	/**
+	 * Gets whether this class may be a subtype of the class with the specified name, which is answered by a Bloom
+	 * filter of the names of its raw supertypes without walking its hierarchy.
+	 * 
+	 * @param className
+	 *            the binary name of the possible supertype
+	 * @return {@code false} if this class is definitely not a subtype of the class, or {@code true} if it may be
+	 */
+	public boolean mayBeSubtypeOf(String className)
+	{
+		long bits = getFilterBits(className);
+		
+		return (getSupertypeFilter() & bits) == bits;
+	}
+	
+	public Type getGenericSuperclass()
+	{
+		return getParsedSignature().superclass;
+	}
+	
+	public Type[] getGenericInterfaces()
+	{
+		return getParsedSignature().interfaces.clone();
+	}
+	
+	// Object methods ---------------------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode()
+	{
+		return getName().hashCode();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object object)
+	{
+		if (!(object instanceof ClassFileClass))
+		{
+			return false;
+		}
+		
+		ClassFileClass klass = (ClassFileClass) object;
+		
+		return loader == klass.loader && getName().equals(klass.getName());
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return TypeUtils.toString(this);
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private long getSupertypeFilter()
+	{
+		long supertypeFilter = this.supertypeFilter;
+		
+		if (supertypeFilter == 0)
+		{
+			supertypeFilter = getFilterBits(getName());
+			
+			ClassFileClass superclass = getSuperclass();
+			
+			if (superclass != null)
+			{
+				supertypeFilter |= superclass.getSupertypeFilter();
+			}
+			
+			for (ClassFileClass interfaceType : getInterfaces())
+			{
+				supertypeFilter |= interfaceType.getSupertypeFilter();
+			}
+			
+			this.supertypeFilter = supertypeFilter;
+		}
+		
+		return supertypeFilter;
+	}
+	
+	/**
+	 * Gets the two bits of a 64-bit Bloom filter that represent the specified class name.
+	 */
+	private static long getFilterBits(String className)
+	{
+		int hash = className.hashCode();
+		
+		return (1L << (hash & 63)) | (1L << ((hash >>> 6) & 63));
+	}
+	
+	private ParsedSignature getParsedSignature()
+	{
+		ParsedSignature parsedSignature = this.parsedSignature;
+		
+		if (parsedSignature == null)
+		{
+			String signature = classFile.getSignature();
+			
+			parsedSignature = (signature != null) ? parseSignature(signature) : createSignature();
+			
+			this.parsedSignature = parsedSignature;
+		}
+		
+		return parsedSignature;
+	}
+	
+	private ParsedSignature createSignature()
+	{
+		ParsedSignature parsedSignature = new ParsedSignature();
+		
+		parsedSignature.typeParameters = newTypeVariableArray(0);
+		parsedSignature.superclass = getSuperclass();
+		parsedSignature.interfaces = getInterfaces();
+		
+		return parsedSignature;
+	}
+	
+	private ParsedSignature parseSignature(String signature)
+	{
+		// from JVM specification 4.3.4: ClassSignature
+		
+		ParsedSignature parsedSignature = new ParsedSignature();
+		
+		ClassFileSignatureParser parser = new ClassFileSignatureParser(signature, loader, this);
+		
+		Map<String, Integer> boundIndexesByName = parser.parseFormalTypeParameters();
+		parsedSignature.typeParameters = newTypeVariableArray(boundIndexesByName.size());
+		
+		int i = 0;
+		
+		for (Entry<String, Integer> entry : boundIndexesByName.entrySet())
+		{
+			parsedSignature.typeParameters[i++] = new ClassFileTypeVariable(this, entry.getKey(), signature,
+				entry.getValue());
+		}
+		
+		// type parameters must be visible before supertypes can refer to them
+		parser.setTypeParameters(parsedSignature.typeParameters);
+		
+		Type superclass = parser.parseReferenceTypeSignature();
+		
+		List<Type> interfaces = new ArrayList<Type>();
+		
+		while (parser.hasNext())
+		{
+			interfaces.add(parser.parseReferenceTypeSignature());
+		}
+		
+		// reflection reports no superclass for interfaces
+		parsedSignature.superclass = isInterface() ? null : superclass;
+		parsedSignature.interfaces = interfaces.toArray(new Type[interfaces.size()]);
+		
+		return parsedSignature;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static TypeVariable<ClassFileClass>[] newTypeVariableArray(int length)
+	{
+		return (TypeVariable<ClassFileClass>[]) Array.newInstance(TypeVariable.class, length);
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+import static com.googlecode.jtype.Utils.checkNotNull;
+
+/**
+ * A parameterized type whose raw type is read from its class file.
+ * <p>
+ * Unlike {@code DefaultParameterizedType}, the number of actual type arguments is not validated against the raw type
+ * since doing so would require the raw type's signature to be parsed eagerly.
+ * 
+ * @author Mark Hobson
+ * @see ClassFileClass
+ */
+final class ClassFileParameterizedType implements ParameterizedType
+{
+	// fields -----------------------------------------------------------------
+	
+	private final Type ownerType;
+	
+	private final ClassFileClass rawType;
+	
+	private final Type[] actualTypeArguments;
+	
+	// constructors -----------------------------------------------------------
+	
+	public ClassFileParameterizedType(Type ownerType, ClassFileClass rawType, Type[] actualTypeArguments)
+	{
+		this.ownerType = ownerType;
+		this.rawType = checkNotNull(rawType, "rawType");
+		this.actualTypeArguments = checkNotNull(actualTypeArguments, "actualTypeArguments").clone();
+	}
+	
+	// ParameterizedType methods ----------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	public Type getOwnerType()
+	{
+		return ownerType;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	public ClassFileClass getRawType()
+	{
+		return rawType;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	public Type[] getActualTypeArguments()
+	{
+		return actualTypeArguments.clone();
+	}
+	
+	// package methods --------------------------------------------------------
+	
+	/**
+	 * Gets the actual type arguments of this type without copying them. The returned array must not be modified.
+	 * 
+	 * @return the actual type arguments
+	 */
+	Type[] getActualTypeArgumentsInternal()
+	{
+		return actualTypeArguments;
+	}
+	
+	// Object methods ---------------------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode()
+	{
+		return TypeUtils.hashCode(this);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object object)
+	{
+		if (!(object instanceof ParameterizedType))
+		{
+			return false;
+		}
+		
+		return TypeUtils.equals(this, (ParameterizedType) object);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return TypeUtils.toString(this);
+	}
+}
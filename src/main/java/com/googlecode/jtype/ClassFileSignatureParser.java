@@ -0,0 +1,117 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+
+/**
+ * Signature parser that resolves classes against class files rather than loading them.
+ * 
+ * @author Mark Hobson
+ * @see ClassFileTypeLoader
+ */
+class ClassFileSignatureParser extends SignatureParser
+{
+	// fields -----------------------------------------------------------------
+	
+	private final ClassFileTypeLoader loader;
+	
+	private final ClassFileClass declaration;
+	
+	private TypeVariable<?>[] typeParameters;
+	
+	// constructors -----------------------------------------------------------
+	
+	public ClassFileSignatureParser(String signature, ClassFileTypeLoader loader, ClassFileClass declaration)
+	{
+		super(signature, declaration, false);
+		
+		this.loader = loader;
+		this.declaration = declaration;
+	}
+	
+	// SignatureParser methods ------------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	Type resolveClass(String className)
+	{
+		return loader.getClass(className);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	Type createParameterizedType(Type ownerType, Type rawType, Type[] actualTypeArguments)
+	{
+		return new ClassFileParameterizedType(ownerType, (ClassFileClass) rawType, actualTypeArguments);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	Type getDeclaringClass(Type rawType)
+	{
+		return loader.getEnclosingClass((ClassFileClass) rawType);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	TypeVariable<?> resolveTypeVariable(String name)
+	{
+		TypeVariable<?>[] currentTypeParameters = typeParameters;
+		ClassFileClass currentDeclaration = declaration;
+		
+		while (currentDeclaration != null)
+		{
+			if (currentTypeParameters == null)
+			{
+				currentTypeParameters = currentDeclaration.getTypeParameters();
+			}
+			
+			for (TypeVariable<?> typeParameter : currentTypeParameters)
+			{
+				if (typeParameter.getName().equals(name))
+				{
+					return typeParameter;
+				}
+			}
+			
+			currentDeclaration = loader.getEnclosingClass(currentDeclaration);
+			currentTypeParameters = null;
+		}
+		
+		throw new IllegalArgumentException("Type variable not found: " + name);
+	}
+	
+	// public methods ---------------------------------------------------------
+	
+	/**
+	 * Sets the type parameters of the declaration while its signature is being parsed.
+	 * 
+	 * @param typeParameters
+	 *            the declaration's type parameters
+	 */
+	public void setTypeParameters(TypeVariable<?>[] typeParameters)
+	{
+		this.typeParameters = typeParameters;
+	}
+}
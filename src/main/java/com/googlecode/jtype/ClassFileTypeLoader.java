@@ -0,0 +1,312 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static com.googlecode.jtype.Utils.checkNotNull;
+
+/**
+ * Provides types that are read directly from class files without loading or initializing any classes.
+ * <p>
+ * Class files are located on the specified class path, where directories are read through memory-mapped files and jar
+ * files through {@code ZipFile}, and then as resources of the specified class loader. Only the class header and its
+ * generic signature are read, and signatures are parsed lazily as type parameters and supertypes are requested.
+ * <p>
+ * The returned types can be used with {@link TypeUtils#isAssignable(Type, Type)},
+ * {@link TypeUtils#getResolvedSupertype(Type, Type)}, {@link TypeUtils#getResolvedSuperclass(Type)} and
+ * {@link TypeUtils#getResolvedInterfaces(Type)}. Class types produced by this loader are only equal to other types from
+ * the same loader, although assignability to and from loaded classes is determined by class name.
+ * 
+ * @author Mark Hobson
+ */
+public final class ClassFileTypeLoader implements Closeable
+{
+	// constants --------------------------------------------------------------
+	
+	private static final String CLASS_FILE_EXTENSION = ".class";
+	
+	// fields -----------------------------------------------------------------
+	
+	private final List<File> classPath;
+	
+	private final ClassLoader classLoader;
+	
+	private final ConcurrentMap<String, ClassFileClass> classesByName;
+	
+	private final Map<File, ZipFile> zipFilesByFile;
+	
+	// constructors -----------------------------------------------------------
+	
+	/**
+	 * Creates a loader that reads class files from the specified class path and then from the system class loader.
+	 * 
+	 * @param classPath
+	 *            the directories and jar files to read class files from
+	 */
+	public ClassFileTypeLoader(File... classPath)
+	{
+		this(ClassLoader.getSystemClassLoader(), classPath);
+	}
+	
+	/**
+	 * Creates a loader that reads class files from the specified class path and then from resources of the specified
+	 * class loader.
+	 * 
+	 * @param classLoader
+	 *            the class loader to read class file resources from
+	 * @param classPath
+	 *            the directories and jar files to read class files from
+	 */
+	public ClassFileTypeLoader(ClassLoader classLoader, File... classPath)
+	{
+		this.classLoader = checkNotNull(classLoader, "classLoader");
+		this.classPath = Collections.unmodifiableList(Arrays.asList(checkNotNull(classPath, "classPath").clone()));
+		
+		classesByName = new ConcurrentHashMap<String, ClassFileClass>();
+		zipFilesByFile = new HashMap<File, ZipFile>();
+	}
+	
+	// public methods ---------------------------------------------------------
+	
+	/**
+	 * Gets the type for the specified class name.
+	 * 
+	 * @param className
+	 *            the binary name of a class or interface, or the name of a primitive type
+	 * @return the type, which is a {@code Class} for primitive types
+	 * @throws IllegalArgumentException
+	 *             if the class file cannot be found or is malformed
+	 */
+	public Type getType(String className)
+	{
+		checkNotNull(className, "className");
+		
+		if (ClassUtils.isPrimitiveClassName(className))
+		{
+			return ClassUtils.valueOf(className);
+		}
+		
+		return getClass(className);
+	}
+	
+	/**
+	 * Gets the type for the specified JVM generic signature.
+	 * 
+	 * @param signature
+	 *            the field type signature to be parsed, which must not refer to type variables
+	 * @return the type
+	 * @throws IllegalArgumentException
+	 *             if the signature is malformed or refers to a class file that cannot be found
+	 * @see Types#fromSignature(String)
+	 */
+	public Type fromSignature(String signature)
+	{
+		checkNotNull(signature, "signature");
+		
+		return new ClassFileSignatureParser(signature, this, null).parseType();
+	}
+	
+	// Closeable methods ------------------------------------------------------
+	
+	/**
+	 * Closes any jar files that have been opened by this loader.
+	 * 
+	 * @throws IOException
+	 *             if a jar file could not be closed
+	 */
+	public void close() throws IOException
+	{
+		synchronized (zipFilesByFile)
+		{
+			for (ZipFile zipFile : zipFilesByFile.values())
+			{
+				zipFile.close();
+			}
+			
+			zipFilesByFile.clear();
+		}
+	}
+	
+	// package methods --------------------------------------------------------
+	
+	ClassFileClass getClass(String className)
+	{
+		ClassFileClass klass = classesByName.get(className);
+		
+		if (klass == null)
+		{
+			klass = new ClassFileClass(this, ClassFile.parse(readClassFile(className)));
+			
+			ClassFileClass existingClass = classesByName.putIfAbsent(className, klass);
+			
+			if (existingClass != null)
+			{
+				klass = existingClass;
+			}
+		}
+		
+		return klass;
+	}
+	
+	ClassFileClass getEnclosingClass(ClassFileClass klass)
+	{
+		// approximates the InnerClasses attribute by binary name
+		String className = klass.getName();
+		int index = className.lastIndexOf('$');
+		
+		return (index != -1) ? getClass(className.substring(0, index)) : null;
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private ByteBuffer readClassFile(String className)
+	{
+		String path = className.replace('.', '/') + CLASS_FILE_EXTENSION;
+		
+		try
+		{
+			for (File file : classPath)
+			{
+				ByteBuffer buffer = file.isDirectory() ? readFile(new File(file, path)) : readZipEntry(file, path);
+				
+				if (buffer != null)
+				{
+					return buffer;
+				}
+			}
+			
+			ByteBuffer buffer = readResource(path);
+			
+			if (buffer != null)
+			{
+				return buffer;
+			}
+		}
+		catch (IOException exception)
+		{
+			throw new IllegalArgumentException("Cannot read class file: " + className, exception);
+		}
+		
+		throw new IllegalArgumentException("Class not found: " + className);
+	}
+	
+	private static ByteBuffer readFile(File file) throws IOException
+	{
+		if (!file.isFile())
+		{
+			return null;
+		}
+		
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		
+		try
+		{
+			FileChannel channel = randomAccessFile.getChannel();
+			
+			// mapping remains valid after the channel is closed
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		finally
+		{
+			randomAccessFile.close();
+		}
+	}
+	
+	private ByteBuffer readZipEntry(File file, String path) throws IOException
+	{
+		ZipFile zipFile = getZipFile(file);
+		
+		if (zipFile == null)
+		{
+			return null;
+		}
+		
+		ZipEntry entry = zipFile.getEntry(path);
+		
+		if (entry == null)
+		{
+			return null;
+		}
+		
+		return read(zipFile.getInputStream(entry), (int) entry.getSize());
+	}
+	
+	private ZipFile getZipFile(File file) throws IOException
+	{
+		if (!file.isFile())
+		{
+			return null;
+		}
+		
+		synchronized (zipFilesByFile)
+		{
+			ZipFile zipFile = zipFilesByFile.get(file);
+			
+			if (zipFile == null)
+			{
+				zipFile = new ZipFile(file);
+				
+				zipFilesByFile.put(file, zipFile);
+			}
+			
+			return zipFile;
+		}
+	}
+	
+	private ByteBuffer readResource(String path) throws IOException
+	{
+		InputStream in = classLoader.getResourceAsStream(path);
+		
+		return (in != null) ? read(in, -1) : null;
+	}
+	
+	private static ByteBuffer read(InputStream in, int size) throws IOException
+	{
+		try
+		{
+			ByteArrayOutputStream out = new ByteArrayOutputStream((size > 0) ? size : 1024);
+			byte[] buffer = new byte[4096];
+			int length;
+			
+			while ((length = in.read(buffer)) != -1)
+			{
+				out.write(buffer, 0, length);
+			}
+			
+			return ByteBuffer.wrap(out.toByteArray());
+		}
+		finally
+		{
+			in.close();
+		}
+	}
+}
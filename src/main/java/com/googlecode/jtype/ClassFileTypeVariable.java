@@ -0,0 +1,124 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+
+/**
+ * A type variable declared by a class that is read from its class file.
+ * <p>
+ * Bounds are parsed from the declaring class's signature when first requested, which allows them to refer to the type
+ * variable itself, for example {@code T extends Comparable<T>}.
+ * 
+ * @author Mark Hobson
+ * @see ClassFileClass
+ */
+final class ClassFileTypeVariable implements TypeVariable<ClassFileClass>
+{
+	// fields -----------------------------------------------------------------
+	
+	private final ClassFileClass declaration;
+	
+	private final String name;
+	
+	private final String signature;
+	
+	private final int boundsIndex;
+	
+	private volatile Type[] bounds;
+	
+	// constructors -----------------------------------------------------------
+	
+	public ClassFileTypeVariable(ClassFileClass declaration, String name, String signature, int boundsIndex)
+	{
+		this.declaration = declaration;
+		this.name = name;
+		this.signature = signature;
+		this.boundsIndex = boundsIndex;
+	}
+	
+	// TypeVariable methods ---------------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	public ClassFileClass getGenericDeclaration()
+	{
+		return declaration;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	public String getName()
+	{
+		return name;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	public Type[] getBounds()
+	{
+		Type[] bounds = this.bounds;
+		
+		if (bounds == null)
+		{
+			ClassFileSignatureParser parser = new ClassFileSignatureParser(signature, declaration.getLoader(),
+				declaration);
+			parser.setIndex(boundsIndex);
+			
+			bounds = parser.parseTypeParameterBounds();
+			
+			this.bounds = bounds;
+		}
+		
+		return bounds.clone();
+	}
+	
+	// Object methods ---------------------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode()
+	{
+		return TypeUtils.hashCode(this);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object object)
+	{
+		if (!(object instanceof TypeVariable<?>))
+		{
+			return false;
+		}
+		
+		return TypeUtils.equals(this, (TypeVariable<?>) object);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return name;
+	}
+}
@@ -47,10 +47,53 @@ public final class ClassSerializers
 		}
 	};
 	
+	/**
+	 * Serializes classes as JVM field descriptors, for example {@code Ljava/util/Map$Entry;}.
+	 * <p>
+	 * Types serialized with this serializer by {@link TypeUtils#toString(java.lang.reflect.Type, ClassSerializer)} are
+	 * serialized as the descriptor of their erasure, as per
+	 * {@link TypeUtils#toDescriptor(java.lang.reflect.Type)}.
+	 */
+	public static final ClassSerializer DESCRIPTOR = new ClassSerializer()
+	{
+		public String toString(Class<?> klass)
+		{
+			return ClassUtils.getDescriptor(klass);
+		}
+	};
+	
 	// constructors -----------------------------------------------------------
 	
 	private ClassSerializers()
 	{
 		throw new AssertionError();
 	}
+	
+	// package methods --------------------------------------------------------
+	
+	static String toString(ClassSerializer serializer, String className)
+	{
+		// serializes classes that cannot be loaded consistently with the standard serializers
+		
+		if (serializer == UNQUALIFIED)
+		{
+			return ClassUtils.getUnqualifiedClassName(className);
+		}
+		
+		if (serializer == SIMPLE)
+		{
+			return ClassUtils.getSimpleClassName(className);
+		}
+		
+		if (serializer == DESCRIPTOR)
+		{
+			StringBuilder builder = new StringBuilder("L");
+			
+			ClassUtils.appendInternalName(builder, className);
+			
+			return builder.append(';').toString();
+		}
+		
+		return className;
+	}
 }
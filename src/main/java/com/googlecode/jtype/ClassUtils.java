@@ -13,6 +13,7 @@
  */
 package com.googlecode.jtype;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Array;
 import java.util.Collections;
 import java.util.HashMap;
@@ -31,6 +32,17 @@ final class ClassUtils
 	private static final Map<String, String> PRIMITIVE_DESCRIPTORS_BY_CLASS_NAME =
 		createPrimitiveDescriptorsByClassName();
 	
+	private static final String VOID_DESCRIPTOR = "V";
+	
+	private static final Map<Class<?>, Class<?>> WRAPPER_TYPES_BY_PRIMITIVE_TYPE = createWrapperTypesByPrimitiveType();
+	
+	/**
+	 * Array classes keyed by their component type. Array classes are weakly referenced since they strongly reference
+	 * their component type, which would otherwise prevent it from being garbage collected.
+	 */
+	private static final WeakCache<Class<?>, WeakReference<Class<?>>> ARRAY_TYPES_BY_COMPONENT_TYPE =
+		new WeakCache<Class<?>, WeakReference<Class<?>>>();
+	
 	// constructors -----------------------------------------------------------
 	
 	private ClassUtils()
@@ -69,23 +81,107 @@ final class ClassUtils
 		return (index == -1) ? className : className.substring(index + 1);
 	}
 	
+	public static String getDescriptor(Class<?> klass)
+	{
+		StringBuilder builder = new StringBuilder();
+		
+		appendDescriptor(builder, klass);
+		
+		return builder.toString();
+	}
+	
+	public static void appendDescriptor(StringBuilder builder, Class<?> klass)
+	{
+		// from JVM specification 4.3.2
+		
+		while (klass.isArray())
+		{
+			builder.append('[');
+			
+			klass = klass.getComponentType();
+		}
+		
+		if (klass == Void.TYPE)
+		{
+			builder.append(VOID_DESCRIPTOR);
+		}
+		else if (klass.isPrimitive())
+		{
+			builder.append(getPrimitiveDescriptor(klass.getName()));
+		}
+		else
+		{
+			builder.append('L');
+			appendInternalName(builder, klass.getName());
+			builder.append(';');
+		}
+	}
+	
+	public static void appendInternalName(StringBuilder builder, String className)
+	{
+		// from JVM specification 4.2.1
+		
+		for (int i = 0; i < className.length(); i++)
+		{
+			char c = className.charAt(i);
+			
+			builder.append((c == '.') ? '/' : c);
+		}
+	}
+	
 	public static Class<?> getArrayType(Class<?> componentType)
 	{
-		return Array.newInstance(componentType, 0).getClass();
+		WeakReference<Class<?>> arrayTypeReference = ARRAY_TYPES_BY_COMPONENT_TYPE.get(componentType);
+		Class<?> arrayType = (arrayTypeReference != null) ? arrayTypeReference.get() : null;
+		
+		if (arrayType == null)
+		{
+			arrayType = Array.newInstance(componentType, 0).getClass();
+			
+			ARRAY_TYPES_BY_COMPONENT_TYPE.put(componentType, new WeakReference<Class<?>>(arrayType));
+		}
+		
+		return arrayType;
+	}
+	
+	public static Class<?> getArrayType(Class<?> componentType, int dimensions)
+	{
+		Class<?> arrayType = componentType;
+		
+		for (int i = 0; i < dimensions; i++)
+		{
+			arrayType = getArrayType(arrayType);
+		}
+		
+		return arrayType;
 	}
 	
 	public static Class<?> valueOf(String className)
+	{
+		return valueOf(className, false);
+	}
+	
+	/**
+	 * Gets the class with the specified name using the default class loader.
+	 * 
+	 * @param className
+	 *            the binary name of the class, or the name of a primitive type
+	 * @param initialize
+	 *            whether the class's static initializers should be run if it has not already been initialized
+	 * @return the class, or {@code null} if it cannot be found
+	 */
+	public static Class<?> valueOf(String className, boolean initialize)
 	{
 		if (isPrimitiveClassName(className))
 		{
 			return valueOfPrimitive(className);
 		}
 		
-		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		ClassLoader classLoader = getDefaultClassLoader();
 
 		try
 		{
-			return Class.forName(className, true, classLoader);
+			return Class.forName(className, initialize, classLoader);
 		}
 		catch (ClassNotFoundException exception)
 		{
@@ -93,6 +189,66 @@ final class ClassUtils
 		}
 	}
 	
+	public static boolean isPrimitiveClassName(String className)
+	{
+		return PRIMITIVE_DESCRIPTORS_BY_CLASS_NAME.containsKey(className);
+	}
+	
+	public static Class<?> valueOfPrimitiveDescriptor(char descriptor)
+	{
+		switch (descriptor)
+		{
+			case 'B':
+				return Byte.TYPE;
+				
+			case 'C':
+				return Character.TYPE;
+				
+			case 'D':
+				return Double.TYPE;
+				
+			case 'F':
+				return Float.TYPE;
+				
+			case 'I':
+				return Integer.TYPE;
+				
+			case 'J':
+				return Long.TYPE;
+				
+			case 'S':
+				return Short.TYPE;
+				
+			case 'Z':
+				return Boolean.TYPE;
+				
+			case 'V':
+				return Void.TYPE;
+				
+			default:
+				return null;
+		}
+	}
+	
+	/**
+	 * Gets the wrapper class of the specified primitive type, or the specified class if it is not primitive.
+	 * 
+	 * @param klass
+	 *            the class to box
+	 * @return the wrapper class, or the specified class if it is a reference type
+	 */
+	public static Class<?> getWrapperType(Class<?> klass)
+	{
+		Class<?> wrapperType = WRAPPER_TYPES_BY_PRIMITIVE_TYPE.get(klass);
+		
+		return (wrapperType != null) ? wrapperType : klass;
+	}
+	
+	public static ClassLoader getDefaultClassLoader()
+	{
+		return Thread.currentThread().getContextClassLoader();
+	}
+	
 	// private methods --------------------------------------------------------
 	
 	private static Map<String, String> createPrimitiveDescriptorsByClassName()
@@ -113,6 +269,23 @@ final class ClassUtils
 		return Collections.unmodifiableMap(primitiveDescriptorsByClassName);
 	}
 	
+	private static Map<Class<?>, Class<?>> createWrapperTypesByPrimitiveType()
+	{
+		Map<Class<?>, Class<?>> wrapperTypesByPrimitiveType = new HashMap<Class<?>, Class<?>>();
+		
+		wrapperTypesByPrimitiveType.put(Byte.TYPE, Byte.class);
+		wrapperTypesByPrimitiveType.put(Character.TYPE, Character.class);
+		wrapperTypesByPrimitiveType.put(Double.TYPE, Double.class);
+		wrapperTypesByPrimitiveType.put(Float.TYPE, Float.class);
+		wrapperTypesByPrimitiveType.put(Integer.TYPE, Integer.class);
+		wrapperTypesByPrimitiveType.put(Long.TYPE, Long.class);
+		wrapperTypesByPrimitiveType.put(Short.TYPE, Short.class);
+		wrapperTypesByPrimitiveType.put(Boolean.TYPE, Boolean.class);
+		wrapperTypesByPrimitiveType.put(Void.TYPE, Void.class);
+		
+		return Collections.unmodifiableMap(wrapperTypesByPrimitiveType);
+	}
+	
 	private static Class<?> valueOfPrimitive(String className)
 	{
 		// cannot load primitives directly so load primitive array type and use component type instead
@@ -124,11 +297,6 @@ final class ClassUtils
 		return arrayType.getComponentType();
 	}
 	
-	private static boolean isPrimitiveClassName(String className)
-	{
-		return PRIMITIVE_DESCRIPTORS_BY_CLASS_NAME.containsKey(className);
-	}
-	
 	private static String getPrimitiveDescriptor(String className)
 	{
 		if (!isPrimitiveClassName(className))
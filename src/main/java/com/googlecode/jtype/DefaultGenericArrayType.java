@@ -25,7 +25,7 @@ import static com.googlecode.jtype.Utils.checkNotNull;
  * @author Mark Hobson
  * @see GenericArrayType
  */
-class DefaultGenericArrayType implements GenericArrayType, Serializable
+class DefaultGenericArrayType extends AbstractFingerprintedType implements GenericArrayType, Serializable
 {
 	// constants --------------------------------------------------------------
 	
@@ -65,7 +65,7 @@ class DefaultGenericArrayType implements GenericArrayType, Serializable
 	@Override
 	public int hashCode()
 	{
-		return componentType.hashCode();
+		return TypeUtils.hashCode(this);
 	}
 	
 	/**
@@ -79,9 +79,7 @@ class DefaultGenericArrayType implements GenericArrayType, Serializable
 			return false;
 		}
 		
-		GenericArrayType type = (GenericArrayType) object;
-		
-		return componentType.equals(type.getGenericComponentType());
+		return TypeUtils.equals(this, (GenericArrayType) object);
 	}
 	
 	/**
@@ -18,11 +18,8 @@ import java.lang.reflect.MalformedParameterizedTypeException;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
-import java.util.Arrays;
 
 import static com.googlecode.jtype.Utils.checkNotNull;
-import static com.googlecode.jtype.Utils.nullEquals;
-import static com.googlecode.jtype.Utils.nullHashCode;
 
 /**
  * Default implementation of a parameterized type.
@@ -30,7 +27,7 @@ import static com.googlecode.jtype.Utils.nullHashCode;
  * @author Mark Hobson
  * @see ParameterizedType
  */
-class DefaultParameterizedType implements ParameterizedType, Serializable
+class DefaultParameterizedType extends AbstractFingerprintedType implements ParameterizedType, Serializable
 {
 	// constants --------------------------------------------------------------
 	
@@ -72,8 +69,8 @@ class DefaultParameterizedType implements ParameterizedType, Serializable
 		
 		TypeVariable<?>[] typeParameters = rawType.getTypeParameters();
 		
-		// disallow unparameterized raw types
-		if (typeParameters.length == 0)
+		// disallow unparameterized raw types unless they are inner classes of parameterized types
+		if (typeParameters.length == 0 && !(ownerType instanceof ParameterizedType))
 		{
 			throw new MalformedParameterizedTypeException();
 		}
@@ -118,6 +115,18 @@ class DefaultParameterizedType implements ParameterizedType, Serializable
 		return actualTypeArguments.clone();
 	}
 	
+	// package methods --------------------------------------------------------
+	
+	/**
+	 * Gets the actual type arguments of this type without copying them. The returned array must not be modified.
+	 * 
+	 * @return the actual type arguments
+	 */
+	Type[] getActualTypeArgumentsInternal()
+	{
+		return actualTypeArguments;
+	}
+	
 	// Object methods ---------------------------------------------------------
 	
 	/**
@@ -126,11 +135,7 @@ class DefaultParameterizedType implements ParameterizedType, Serializable
 	@Override
 	public int hashCode()
 	{
-		int hashCode = nullHashCode(ownerType);
-		hashCode = (37 * hashCode) + rawType.hashCode();
-		hashCode = (37 * hashCode) + Arrays.hashCode(actualTypeArguments);
-		
-		return hashCode;
+		return TypeUtils.hashCode(this);
 	}
 	
 	/**
@@ -144,16 +149,7 @@ class DefaultParameterizedType implements ParameterizedType, Serializable
 			return false;
 		}
 		
-		ParameterizedType type = (ParameterizedType) object;
-		
-		if (type == this)
-		{
-			return true;
-		}
-		
-		return nullEquals(ownerType, type.getOwnerType())
-			&& rawType.equals(type.getRawType())
-			&& Arrays.equals(actualTypeArguments, type.getActualTypeArguments());
+		return TypeUtils.equals(this, (ParameterizedType) object);
 	}
 	
 	/**
@@ -18,7 +18,6 @@ import java.lang.reflect.GenericDeclaration;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
-import java.util.Arrays;
 
 import static com.googlecode.jtype.Utils.checkNotNull;
 import static com.googlecode.jtype.Utils.checkTrue;
@@ -127,11 +126,7 @@ class DefaultTypeVariable<D extends GenericDeclaration> implements TypeVariable<
 	@Override
 	public int hashCode()
 	{
-		int hashCode = declaration.hashCode();
-		hashCode = (hashCode * 37) + name.hashCode();
-		hashCode = (hashCode * 37) + Arrays.hashCode(bounds);
-		
-		return hashCode;
+		return TypeUtils.hashCode(this);
 	}
 	
 	/**
@@ -145,11 +140,7 @@ class DefaultTypeVariable<D extends GenericDeclaration> implements TypeVariable<
 			return false;
 		}
 		
-		TypeVariable<?> typeVariable = (TypeVariable<?>) object;
-		
-		return declaration.equals(typeVariable.getGenericDeclaration())
-			&& name.equals(typeVariable.getName())
-			&& Arrays.equals(bounds, typeVariable.getBounds());
+		return TypeUtils.equals(this, (TypeVariable<?>) object);
 	}
 	
 	/**
@@ -26,7 +26,7 @@ import static com.googlecode.jtype.Utils.checkFalse;
  * @author Mark Hobson
  * @see WildcardType
  */
-class DefaultWildcardType implements WildcardType, Serializable
+class DefaultWildcardType extends AbstractFingerprintedType implements WildcardType, Serializable
 {
 	// constants --------------------------------------------------------------
 	
@@ -92,6 +92,28 @@ class DefaultWildcardType implements WildcardType, Serializable
 		return lowerBounds.clone();
 	}
 	
+	// package methods --------------------------------------------------------
+	
+	/**
+	 * Gets the upper bounds of this type without copying them. The returned array must not be modified.
+	 * 
+	 * @return the upper bounds
+	 */
+	Type[] getUpperBoundsInternal()
+	{
+		return upperBounds;
+	}
+	
+	/**
+	 * Gets the lower bounds of this type without copying them. The returned array must not be modified.
+	 * 
+	 * @return the lower bounds
+	 */
+	Type[] getLowerBoundsInternal()
+	{
+		return lowerBounds;
+	}
+	
 	// Object methods ---------------------------------------------------------
 	
 	/**
@@ -100,7 +122,7 @@ class DefaultWildcardType implements WildcardType, Serializable
 	@Override
 	public int hashCode()
 	{
-		return Arrays.hashCode(lowerBounds) ^ Arrays.hashCode(upperBounds);
+		return TypeUtils.hashCode(this);
 	}
 	
 	/**
@@ -114,10 +136,7 @@ class DefaultWildcardType implements WildcardType, Serializable
 			return false;
 		}
 		
-		WildcardType wildcardType = (WildcardType) object;
-		
-		return Arrays.equals(lowerBounds, wildcardType.getLowerBounds())
-			&& Arrays.equals(upperBounds, wildcardType.getUpperBounds());
+		return TypeUtils.equals(this, (WildcardType) object);
 	}
 	
 	/**
@@ -0,0 +1,451 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.googlecode.jtype.Utils.checkNotNull;
+import static com.googlecode.jtype.Utils.checkTrue;
+
+/**
+ * Selects the most specific of a number of targets, such as overloaded methods, that is applicable to a tuple of
+ * argument types.
+ * <p>
+ * A target is applicable when each of its parameter types is assignable from the corresponding argument type, and is
+ * more specific than another target of the same arity when each of its parameter types is assignable to the
+ * corresponding parameter type of the other. Targets are ordered by this partial order when the table is built, so
+ * that the first applicable target is the most specific one, and the chosen target is cached by argument types.
+ * <p>
+ * Ambiguities are detected when the table is built: two targets that are not more specific than one another, but
+ * whose parameter types have a greatest lower bound, must be disambiguated by a third target that is more specific
+ * than both and applicable to that bound. Otherwise an argument type could exist for which neither is chosen.
+ * <p>
+ * Tables are immutable, so they can be shared between threads.
+ * 
+ * @author Mark Hobson
+ * @param <T> the type of targets
+ * @see TypeUtils#isAssignable(Type, Type)
+ * @see <a href="http://java.sun.com/docs/books/jls/third_edition/html/expressions.html#15.12.2.5">15.12.2.5
+ *      Choosing the Most Specific Method</a>
+ */
+public final class DispatchTable<T>
+{
+	// constants --------------------------------------------------------------
+	
+	private static final int NO_TARGET = -1;
+	
+	// fields -----------------------------------------------------------------
+	
+	private final List<T> targets;
+	
+	private final Type[][] signatures;
+	
+	private final SoftCache<List<Type>, Integer> targetIndexesByArgumentTypes;
+	
+	// constructors -----------------------------------------------------------
+	
+	/**
+	 * Creates a dispatch table for the specified targets.
+	 * 
+	 * @param signaturesByTarget
+	 *            the parameter types of each target
+	 * @throws IllegalArgumentException
+	 *             if any two targets are ambiguous
+	 */
+	public DispatchTable(Map<? extends T, Type[]> signaturesByTarget)
+	{
+		checkNotNull(signaturesByTarget, "signaturesByTarget");
+		
+		List<T> unorderedTargets = new ArrayList<T>(signaturesByTarget.size());
+		List<Type[]> unorderedSignatures = new ArrayList<Type[]>(signaturesByTarget.size());
+		
+		for (Map.Entry<? extends T, Type[]> entry : signaturesByTarget.entrySet())
+		{
+			Type[] signature = checkNotNull(entry.getValue(), "signature").clone();
+			
+			for (Type parameterType : signature)
+			{
+				checkNotNull(parameterType, "parameterType");
+			}
+			
+			unorderedTargets.add(checkNotNull(entry.getKey(), "target"));
+			unorderedSignatures.add(signature);
+		}
+		
+		int[] order = getSpecificityOrder(unorderedSignatures);
+		List<T> orderedTargets = new ArrayList<T>(order.length);
+		signatures = new Type[order.length][];
+		
+		for (int i = 0; i < order.length; i++)
+		{
+			orderedTargets.add(unorderedTargets.get(order[i]));
+			signatures[i] = unorderedSignatures.get(order[i]);
+		}
+		
+		targets = Collections.unmodifiableList(orderedTargets);
+		
+		checkAmbiguities();
+		
+		targetIndexesByArgumentTypes = new SoftCache<List<Type>, Integer>();
+	}
+	
+	// public methods ---------------------------------------------------------
+	
+	/**
+	 * Creates a dispatch table for the specified methods by their generic parameter types. The type variables
+	 * declared by each method are replaced by wildcards bounded by their erasure where they are type arguments, so
+	 * that {@code <T extends CharSequence> void handle(List<T>)} is applicable to {@code List<String>}, and are
+	 * erased elsewhere.
+	 * 
+	 * @param methods
+	 *            the methods to dispatch to
+	 * @return the dispatch table
+	 * @throws IllegalArgumentException
+	 *             if any two methods are ambiguous
+	 */
+	public static DispatchTable<Method> forMethods(Collection<Method> methods)
+	{
+		checkNotNull(methods, "methods");
+		
+		Map<Method, Type[]> signaturesByMethod = new LinkedHashMap<Method, Type[]>();
+		
+		for (Method method : methods)
+		{
+			checkNotNull(method, "method");
+			
+			TypeVariable<Method>[] typeVariables = method.getTypeParameters();
+			Map<Type, Type> wildcardTypesByVariable = new HashMap<Type, Type>();
+			
+			for (TypeVariable<Method> typeVariable : typeVariables)
+			{
+				wildcardTypesByVariable.put(typeVariable,
+					Types.upperBoundedWildcardType(TypeUtils.getErasedType(typeVariable)));
+			}
+			
+			Type[] parameterTypes = method.getGenericParameterTypes();
+			
+			for (int i = 0; i < parameterTypes.length; i++)
+			{
+				if (isTypeVariableOrArray(parameterTypes[i], Arrays.asList(typeVariables)))
+				{
+					parameterTypes[i] = TypeUtils.getErasedType(parameterTypes[i]);
+				}
+				else
+				{
+					parameterTypes[i] = TypeUtils.substitute(parameterTypes[i], wildcardTypesByVariable);
+				}
+			}
+			
+			signaturesByMethod.put(method, parameterTypes);
+		}
+		
+		return new DispatchTable<Method>(signaturesByMethod);
+	}
+	
+	/**
+	 * Gets the targets of this table.
+	 * 
+	 * @return an unmodifiable list of the targets, where every target precedes those that it is more specific than
+	 */
+	public List<T> getTargets()
+	{
+		return targets;
+	}
+	
+	/**
+	 * Gets the parameter types of the specified target.
+	 * 
+	 * @param target
+	 *            a target of this table
+	 * @return the parameter types of the target
+	 * @throws IllegalArgumentException
+	 *             if the target is not a target of this table
+	 */
+	public Type[] getSignature(T target)
+	{
+		int index = targets.indexOf(target);
+		
+		checkTrue(index != -1, "target is not a target of this table: ", target);
+		
+		return signatures[index].clone();
+	}
+	
+	/**
+	 * Gets the most specific target that is applicable to the specified argument types.
+	 * 
+	 * @param argumentTypes
+	 *            the types of the arguments
+	 * @return the most specific applicable target, or {@code null} if no target is applicable
+	 */
+	public T get(Type... argumentTypes)
+	{
+		checkNotNull(argumentTypes, "argumentTypes");
+		
+		List<Type> key = Arrays.asList(argumentTypes);
+		Integer index = targetIndexesByArgumentTypes.get(key);
+		
+		if (index == null)
+		{
+			for (Type argumentType : argumentTypes)
+			{
+				checkNotNull(argumentType, "argumentType");
+			}
+			
+			index = targetIndexesByArgumentTypes.put(Arrays.asList(argumentTypes.clone()),
+				getApplicableIndex(argumentTypes));
+		}
+		
+		return (index.intValue() != NO_TARGET) ? targets.get(index) : null;
+	}
+	
+	// Object methods ---------------------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + targets;
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	/**
+	 * Orders signatures by the number of signatures that are strictly more specific than each, which places every
+	 * signature before those that it is more specific than, while preserving the order of unrelated signatures.
+	 */
+	private static int[] getSpecificityOrder(List<Type[]> signatures)
+	{
+		int size = signatures.size();
+		int[] descendantCounts = new int[size];
+		
+		for (int i = 0; i < size; i++)
+		{
+			for (int j = 0; j < size; j++)
+			{
+				if (i != j && isMoreSpecific(signatures.get(j), signatures.get(i))
+					&& !isMoreSpecific(signatures.get(i), signatures.get(j)))
+				{
+					descendantCounts[i]++;
+				}
+			}
+		}
+		
+		List<Integer> order = new ArrayList<Integer>(size);
+		
+		for (int count = 0; order.size() < size; count++)
+		{
+			for (int i = 0; i < size; i++)
+			{
+				if (descendantCounts[i] == count)
+				{
+					order.add(i);
+				}
+			}
+		}
+		
+		int[] orderArray = new int[size];
+		
+		for (int i = 0; i < size; i++)
+		{
+			orderArray[i] = order.get(i);
+		}
+		
+		return orderArray;
+	}
+	
+	private static boolean isTypeVariableOrArray(Type type, List<? extends Type> typeVariables)
+	{
+		while (type instanceof GenericArrayType)
+		{
+			type = ((GenericArrayType) type).getGenericComponentType();
+		}
+		
+		return typeVariables.contains(type);
+	}
+	
+	private static boolean isMoreSpecific(Type[] signature1, Type[] signature2)
+	{
+		return signature1.length == signature2.length && isApplicable(signature2, signature1);
+	}
+	
+	private static boolean isApplicable(Type[] signature, Type[] argumentTypes)
+	{
+		if (signature.length != argumentTypes.length)
+		{
+			return false;
+		}
+		
+		for (int i = 0; i < signature.length; i++)
+		{
+			if (!TypeUtils.isAssignable(signature[i], argumentTypes[i]))
+			{
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	private void checkAmbiguities()
+	{
+		for (int i = 0; i < signatures.length; i++)
+		{
+			for (int j = i + 1; j < signatures.length; j++)
+			{
+				if (signatures[i].length != signatures[j].length)
+				{
+					continue;
+				}
+				
+				boolean moreSpecific = isMoreSpecific(signatures[i], signatures[j]);
+				boolean lessSpecific = isMoreSpecific(signatures[j], signatures[i]);
+				
+				if (moreSpecific && lessSpecific)
+				{
+					throw newAmbiguityException(i, j);
+				}
+				
+				if (moreSpecific || lessSpecific)
+				{
+					continue;
+				}
+				
+				Type[][] lowerBounds = getGreatestLowerBounds(signatures[i], signatures[j]);
+				
+				if (lowerBounds != null && !isDisambiguated(i, j, lowerBounds))
+				{
+					throw newAmbiguityException(i, j);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Gets the greatest lower bound of each pair of parameter types of two signatures, or {@code null} if any pair has
+	 * none and so no argument types are applicable to both.
+	 */
+	private static Type[][] getGreatestLowerBounds(Type[] signature1, Type[] signature2)
+	{
+		Type[][] lowerBounds = new Type[signature1.length][];
+		
+		for (int i = 0; i < signature1.length; i++)
+		{
+			Type type1 = signature1[i];
+			Type type2 = signature2[i];
+			
+			if (TypeUtils.isPrimitive(type1) || TypeUtils.isPrimitive(type2))
+			{
+				lowerBounds[i] = type1.equals(type2) ? new Type[] {type1} : null;
+			}
+			else
+			{
+				lowerBounds[i] = TypeBoundCalculator.greatestLowerBound(new Type[] {type1, type2});
+			}
+			
+			if (lowerBounds[i] == null || isUninhabited(lowerBounds[i]))
+			{
+				return null;
+			}
+		}
+		
+		return lowerBounds;
+	}
+	
+	/**
+	 * Gets whether no object can be an instance of the specified intersection type, which is the case when it
+	 * intersects a final class with an interface that the class does not implement.
+	 */
+	private static boolean isUninhabited(Type[] intersectionTypes)
+	{
+		return intersectionTypes.length > 1
+			&& Modifier.isFinal(TypeUtils.getErasedReferenceType(intersectionTypes[0]).getModifiers());
+	}
+	
+	/**
+	 * Gets whether a target that is more specific than both of the specified targets is applicable to their greatest
+	 * lower bounds. Such a target precedes both of them.
+	 */
+	private boolean isDisambiguated(int index1, int index2, Type[][] lowerBounds)
+	{
+		for (int k = 0; k < Math.min(index1, index2); k++)
+		{
+			if (isMoreSpecific(signatures[k], signatures[index1]) && isMoreSpecific(signatures[k], signatures[index2])
+				&& isApplicableToBounds(signatures[k], lowerBounds))
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private static boolean isApplicableToBounds(Type[] signature, Type[][] lowerBounds)
+	{
+		for (int i = 0; i < signature.length; i++)
+		{
+			if (!isAssignableFromAny(signature[i], lowerBounds[i]))
+			{
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	private static boolean isAssignableFromAny(Type supertype, Type[] types)
+	{
+		for (Type type : types)
+		{
+			if (TypeUtils.isAssignable(supertype, type))
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private IllegalArgumentException newAmbiguityException(int index1, int index2)
+	{
+		return new IllegalArgumentException("targets are ambiguous: " + targets.get(index1) + " and "
+			+ targets.get(index2));
+	}
+	
+	private int getApplicableIndex(Type[] argumentTypes)
+	{
+		for (int i = 0; i < signatures.length; i++)
+		{
+			if (isApplicable(signatures[i], argumentTypes))
+			{
+				return i;
+			}
+		}
+		
+		return NO_TARGET;
+	}
+}
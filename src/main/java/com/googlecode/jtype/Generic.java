@@ -14,14 +14,12 @@
 package com.googlecode.jtype;
 
 import java.io.Serializable;
+import java.lang.ref.SoftReference;
 import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 
 import static com.googlecode.jtype.Utils.checkFalse;
 import static com.googlecode.jtype.Utils.checkNotNull;
@@ -67,15 +65,166 @@ public abstract class Generic<T> implements Serializable
 	}
 	
 	/**
-	 * Simple read-only cache for common generics. Implemented as an inner class for lazy instantiation.
+	 * Concurrent cache of generics keyed by type. Implemented as an inner class for lazy instantiation.
+	 * <p>
+	 * Generics are softly referenced and the cache only references types through them, so that it cannot prevent the
+	 * class loaders of their types from being garbage collected. Parameterized generics can also be looked up by their
+	 * raw type and actual type arguments through a reusable per-thread key, so that cache hits do not need to create a
+	 * parameterized type.
 	 */
 	private static class GenericCache
 	{
-		private static final Map<Type, Generic<?>> GENERICS_BY_TYPE = createCache();
+		/**
+		 * Parameterized type that is confined to a thread and reset for each lookup. Its owner type is that of the
+		 * parameterized types created by {@link Types#parameterizedType(Class, Type...)}.
+		 */
+		private static final class LookupKey implements ParameterizedType
+		{
+			private final Type[] oneActualTypeArgument = new Type[1];
+			
+			private final Type[] twoActualTypeArguments = new Type[2];
+			
+			private Class<?> rawType;
+			
+			private Type[] actualTypeArguments;
+			
+			public LookupKey set(Class<?> rawType, Type actualTypeArgument)
+			{
+				oneActualTypeArgument[0] = actualTypeArgument;
+				
+				return set(rawType, oneActualTypeArgument);
+			}
+			
+			public LookupKey set(Class<?> rawType, Type actualTypeArgument1, Type actualTypeArgument2)
+			{
+				twoActualTypeArguments[0] = actualTypeArgument1;
+				twoActualTypeArguments[1] = actualTypeArgument2;
+				
+				return set(rawType, twoActualTypeArguments);
+			}
+			
+			public LookupKey set(Class<?> rawType, Type[] actualTypeArguments)
+			{
+				this.rawType = rawType;
+				this.actualTypeArguments = actualTypeArguments;
+				
+				return this;
+			}
+			
+			public void clear()
+			{
+				// avoid retaining types after lookup
+				rawType = null;
+				actualTypeArguments = null;
+				oneActualTypeArgument[0] = null;
+				twoActualTypeArguments[0] = null;
+				twoActualTypeArguments[1] = null;
+			}
+			
+			public Type getOwnerType()
+			{
+				return rawType.getDeclaringClass();
+			}
+			
+			public Class<?> getRawType()
+			{
+				return rawType;
+			}
+			
+			public Type[] getActualTypeArguments()
+			{
+				// not copied since the key is confined to a thread
+				return actualTypeArguments;
+			}
+		}
+		
+		private static final SoftTypeCache<Generic<?>> GENERICS_BY_TYPE = new SoftTypeCache<Generic<?>>()
+		{
+			@Override
+			protected Type getType(Generic<?> generic)
+			{
+				return generic.getType();
+			}
+		};
+		
+		private static final ThreadLocal<LookupKey> LOOKUP_KEYS = new ThreadLocal<LookupKey>()
+		{
+			@Override
+			protected LookupKey initialValue()
+			{
+				return new LookupKey();
+			}
+		};
 		
 		public static Generic<?> get(Type type)
 		{
-			return GENERICS_BY_TYPE.get(type);
+			Generic<?> generic = GENERICS_BY_TYPE.get(type);
+			
+			return (generic != null) ? generic : GENERICS_BY_TYPE.put(create(type));
+		}
+		
+		public static Generic<?> get(Class<?> rawType, Type actualTypeArgument)
+		{
+			return get(LOOKUP_KEYS.get().set(rawType, actualTypeArgument));
+		}
+		
+		public static Generic<?> get(Class<?> rawType, Type actualTypeArgument1, Type actualTypeArgument2)
+		{
+			return get(LOOKUP_KEYS.get().set(rawType, actualTypeArgument1, actualTypeArgument2));
+		}
+		
+		public static Generic<?> get(Class<?> rawType, Type[] actualTypeArguments)
+		{
+			return get(LOOKUP_KEYS.get().set(rawType, actualTypeArguments));
+		}
+		
+		private static Generic<?> get(LookupKey lookupKey)
+		{
+			Class<?> rawType = lookupKey.getRawType();
+			Type[] actualTypeArguments;
+			
+			try
+			{
+				Generic<?> generic = GENERICS_BY_TYPE.get(lookupKey);
+				
+				if (generic != null)
+				{
+					return generic;
+				}
+				
+				actualTypeArguments = lookupKey.getActualTypeArguments().clone();
+			}
+			finally
+			{
+				lookupKey.clear();
+			}
+			
+			return get(Types.parameterizedType(rawType, actualTypeArguments));
+		}
+	}
+	
+	/**
+	 * Cache of the types captured by subclasses. Implemented as an inner class for lazy instantiation.
+	 * <p>
+	 * Subclasses are weakly referenced so that they can be unloaded. Their types are softly referenced since they can
+	 * refer to type variables declared by classes of the same class loader, which would otherwise prevent it from being
+	 * garbage collected.
+	 */
+	private static class SubclassTypeCache
+	{
+		private static final WeakCache<Class<?>, SoftReference<Type>> TYPES_BY_SUBCLASS =
+			new WeakCache<Class<?>, SoftReference<Type>>();
+		
+		public static Type get(Class<?> subclass)
+		{
+			SoftReference<Type> reference = TYPES_BY_SUBCLASS.get(subclass);
+			
+			return (reference != null) ? reference.get() : null;
+		}
+		
+		public static void put(Class<?> subclass, Type type)
+		{
+			TYPES_BY_SUBCLASS.put(subclass, new SoftReference<Type>(type));
 		}
 	}
 	
@@ -96,9 +245,17 @@ public abstract class Generic<T> implements Serializable
 	
 	protected Generic()
 	{
-		Type type = getActualTypeArgument();
+		// only resolve the generic superclass once per subclass
+		Type type = SubclassTypeCache.get(getClass());
 		
-		validateType(type);
+		if (type == null)
+		{
+			type = getActualTypeArgument();
+			
+			validateType(type);
+			
+			SubclassTypeCache.put(getClass(), type);
+		}
 		
 		this.type = type;
 	}
@@ -139,14 +296,9 @@ public abstract class Generic<T> implements Serializable
 	
 	public static Generic<?> get(Type type)
 	{
-		Generic<?> generic = GenericCache.get(type);
-		
-		if (generic == null)
-		{
-			generic = create(type);
-		}
+		checkNotNull(type, "type");
 		
-		return generic;
+		return GenericCache.get(type);
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -157,9 +309,35 @@ public abstract class Generic<T> implements Serializable
 			return get(rawType);
 		}
 		
-		ParameterizedType paramType = Types.parameterizedType(rawType, actualTypeArguments);
+		checkNotNull(rawType, "rawType");
+		
+		return (Generic<? extends T>) GenericCache.get(rawType, actualTypeArguments);
+	}
+	
+	/**
+	 * Gets the generic for the specified raw type parameterized with a single actual type argument.
+	 * <p>
+	 * This is equivalent to {@link #get(Class, Type...)} but avoids creating an array of actual type arguments.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Generic<? extends T> get(Class<T> rawType, Type actualTypeArgument)
+	{
+		checkNotNull(rawType, "rawType");
+		
+		return (Generic<? extends T>) GenericCache.get(rawType, actualTypeArgument);
+	}
+	
+	/**
+	 * Gets the generic for the specified raw type parameterized with two actual type arguments.
+	 * <p>
+	 * This is equivalent to {@link #get(Class, Type...)} but avoids creating an array of actual type arguments.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Generic<? extends T> get(Class<T> rawType, Type actualTypeArgument1, Type actualTypeArgument2)
+	{
+		checkNotNull(rawType, "rawType");
 		
-		return (Generic<? extends T>) get(paramType);
+		return (Generic<? extends T>) GenericCache.get(rawType, actualTypeArgument1, actualTypeArgument2);
 	}
 	
 	public static Generic<?> valueOf(String typeName)
@@ -205,30 +383,6 @@ public abstract class Generic<T> implements Serializable
 	
 	// private methods --------------------------------------------------------
 	
-	private static Map<Type, Generic<?>> createCache()
-	{
-		Map<Type, Generic<?>> genericsByType = new HashMap<Type, Generic<?>>();
-		
-		putCacheEntry(genericsByType, Object.class);
-		
-		putCacheEntry(genericsByType, Boolean.class);
-		putCacheEntry(genericsByType, Byte.class);
-		putCacheEntry(genericsByType, Character.class);
-		putCacheEntry(genericsByType, Double.class);
-		putCacheEntry(genericsByType, Float.class);
-		putCacheEntry(genericsByType, Integer.class);
-		putCacheEntry(genericsByType, Long.class);
-		putCacheEntry(genericsByType, Short.class);
-		putCacheEntry(genericsByType, String.class);
-		
-		return Collections.unmodifiableMap(genericsByType);
-	}
-	
-	private static void putCacheEntry(Map<Type, Generic<?>> genericsByType, Type type)
-	{
-		genericsByType.put(type, create(type));
-	}
-	
 	private static Generic<Object> create(Type type)
 	{
 		return new DefaultGeneric<Object>(type);
@@ -15,18 +15,27 @@ package com.googlecode.jtype;
 
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Queue;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.SortedSet;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Factory for creating common generics.
+ * <p>
+ * Generics with element types are cached by {@link Generic#get(Class, java.lang.reflect.Type)}, so repeated calls with
+ * the same classes return the same instance.
+ * <p>
+ * The deque and navigable map generics require Java 6 or later. They are created on first use, rather than held in
+ * constants, so that this class can still be initialized on Java 5.
  * 
  * @author Mark Hobson
  * @see Generic
@@ -71,6 +80,9 @@ public final class Generics
 	private static final Generic<SortedMap<?, ?>> SORTED_MAP = (Generic<SortedMap<?, ?>>) Generic.get(SortedMap.class,
 		Types.unboundedWildcardType(), Types.unboundedWildcardType());
 	
+	private static final Generic<ConcurrentMap<?, ?>> CONCURRENT_MAP = (Generic<ConcurrentMap<?, ?>>) Generic.get(
+		ConcurrentMap.class, Types.unboundedWildcardType(), Types.unboundedWildcardType());
+	
 	private static final Generic<Queue<?>> QUEUE = (Generic<Queue<?>>) Generic.get(Queue.class,
 		Types.unboundedWildcardType());
 	
@@ -203,6 +215,55 @@ public final class Generics
 		return (Generic<SortedMap<K, V>>) Generic.get(SortedMap.class, keyClass, valueClass);
 	}
 	
+	/**
+	 * Gets the generic for {@code NavigableMap<?, ?>}, which requires Java 6 or later.
+	 * 
+	 * @return the navigable map generic
+	 */
+	public static Generic<NavigableMap<?, ?>> navigableMap()
+	{
+		return (Generic<NavigableMap<?, ?>>) Generic.get(NavigableMap.class, Types.unboundedWildcardType(),
+			Types.unboundedWildcardType());
+	}
+	
+	/**
+	 * Gets the generic for {@code NavigableMap<K, V>}, which requires Java 6 or later.
+	 * 
+	 * @param keyClass
+	 *            the class of keys
+	 * @param valueClass
+	 *            the class of values
+	 * @return the navigable map generic
+	 */
+	public static <K, V> Generic<NavigableMap<K, V>> navigableMap(Class<K> keyClass, Class<V> valueClass)
+	{
+		return (Generic<NavigableMap<K, V>>) Generic.get(NavigableMap.class, keyClass, valueClass);
+	}
+	
+	/**
+	 * Gets the generic for {@code ConcurrentMap<?, ?>}.
+	 * 
+	 * @return the concurrent map generic
+	 */
+	public static Generic<ConcurrentMap<?, ?>> concurrentMap()
+	{
+		return CONCURRENT_MAP;
+	}
+	
+	/**
+	 * Gets the generic for {@code ConcurrentMap<K, V>}.
+	 * 
+	 * @param keyClass
+	 *            the class of keys
+	 * @param valueClass
+	 *            the class of values
+	 * @return the concurrent map generic
+	 */
+	public static <K, V> Generic<ConcurrentMap<K, V>> concurrentMap(Class<K> keyClass, Class<V> valueClass)
+	{
+		return (Generic<ConcurrentMap<K, V>>) Generic.get(ConcurrentMap.class, keyClass, valueClass);
+	}
+	
 	public static Generic<Queue<?>> queue()
 	{
 		return QUEUE;
@@ -212,4 +273,26 @@ public final class Generics
 	{
 		return (Generic<Queue<E>>) Generic.get(Queue.class, elementClass);
 	}
+	
+	/**
+	 * Gets the generic for {@code Deque<?>}, which requires Java 6 or later.
+	 * 
+	 * @return the deque generic
+	 */
+	public static Generic<Deque<?>> deque()
+	{
+		return (Generic<Deque<?>>) Generic.get(Deque.class, Types.unboundedWildcardType());
+	}
+	
+	/**
+	 * Gets the generic for {@code Deque<E>}, which requires Java 6 or later.
+	 * 
+	 * @param elementClass
+	 *            the class of elements
+	 * @return the deque generic
+	 */
+	public static <E> Generic<Deque<E>> deque(Class<E> elementClass)
+	{
+		return (Generic<Deque<E>>) Generic.get(Deque.class, elementClass);
+	}
 }
@@ -0,0 +1,640 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.RandomAccess;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Checks whether objects are instances of a type, including the elements of any collections, maps and arrays.
+ * <p>
+ * Checkers form a tree that mirrors the type, where the checkers for element types are obtained from the cache when
+ * they are first needed. This allows checkers for recursive types, such as {@code class Node extends List<Node>}, to
+ * be built. Null elements are considered to be instances of any reference type.
+ * 
+ * @author Mark Hobson
+ * @see TypeUtils#isDeepInstance(Type, Object)
+ */
+abstract class InstanceChecker
+{
+	// classes ----------------------------------------------------------------
+	
+	/**
+	 * Checks that objects are instances of a class. This is the only check that is necessary for classes that are not
+	 * collections or maps.
+	 */
+	private static class ClassChecker extends InstanceChecker
+	{
+		private final Class<?> klass;
+		
+		public ClassChecker(Class<?> klass)
+		{
+			this.klass = klass;
+		}
+		
+		@Override
+		public boolean isInstance(Object object, int sampleSize)
+		{
+			return klass.isInstance(object);
+		}
+	}
+	
+	/**
+	 * Checks that objects are instances of every bound of a type variable or wildcard type.
+	 */
+	private static final class BoundsChecker extends InstanceChecker
+	{
+		private final Type[] bounds;
+		
+		public BoundsChecker(Type[] bounds)
+		{
+			this.bounds = bounds;
+		}
+		
+		@Override
+		public boolean isInstance(Object object, int sampleSize)
+		{
+			for (Type bound : bounds)
+			{
+				if (!get(bound).isInstance(object, sampleSize))
+				{
+					return false;
+				}
+			}
+			
+			return true;
+		}
+	}
+	
+	/**
+	 * Checks that map entries have keys and values that are instances of their respective types.
+	 */
+	private static final class EntryChecker extends InstanceChecker
+	{
+		private final InstanceChecker keyChecker;
+		
+		private final InstanceChecker valueChecker;
+		
+		public EntryChecker(InstanceChecker keyChecker, InstanceChecker valueChecker)
+		{
+			this.keyChecker = keyChecker;
+			this.valueChecker = valueChecker;
+		}
+		
+		@Override
+		public boolean isInstance(Object object, int sampleSize)
+		{
+			Entry<?, ?> entry = (Entry<?, ?>) object;
+			
+			return keyChecker.isElementInstance(entry.getKey(), sampleSize)
+				&& valueChecker.isElementInstance(entry.getValue(), sampleSize);
+		}
+	}
+	
+	/**
+	 * Checks a range of elements within a list, giving up as soon as any task sharing the same flag has found an
+	 * element that is not an instance.
+	 */
+	private static final class RangeTask implements Callable<Boolean>
+	{
+		private final List<?> elements;
+		
+		private final int fromIndex;
+		
+		private final int toIndex;
+		
+		private final InstanceChecker elementChecker;
+		
+		private final AtomicBoolean failed;
+		
+		public RangeTask(List<?> elements, int fromIndex, int toIndex, InstanceChecker elementChecker,
+			AtomicBoolean failed)
+		{
+			this.elements = elements;
+			this.fromIndex = fromIndex;
+			this.toIndex = toIndex;
+			this.elementChecker = elementChecker;
+			this.failed = failed;
+		}
+		
+		public Boolean call()
+		{
+			for (int i = fromIndex; i < toIndex; i++)
+			{
+				if (failed.get())
+				{
+					return false;
+				}
+				
+				if (!elementChecker.isElementInstance(elements.get(i), Integer.MAX_VALUE))
+				{
+					failed.set(true);
+					
+					return false;
+				}
+			}
+			
+			return true;
+		}
+	}
+	
+	private static final class ArrayChecker extends ClassChecker
+	{
+		private final Type componentType;
+		
+		private volatile InstanceChecker componentChecker;
+		
+		public ArrayChecker(Class<?> arrayType, Type componentType)
+		{
+			super(arrayType);
+			
+			this.componentType = componentType;
+		}
+		
+		@Override
+		public boolean isInstance(Object object, int sampleSize)
+		{
+			if (!super.isInstance(object, sampleSize))
+			{
+				return false;
+			}
+			
+			InstanceChecker componentChecker = getComponentChecker();
+			
+			if (componentChecker == ANY)
+			{
+				return true;
+			}
+			
+			int length = Array.getLength(object);
+			int step = getSampleStep(length, sampleSize);
+			
+			for (int i = 0; i < length; i += step)
+			{
+				if (!componentChecker.isElementInstance(Array.get(object, i), sampleSize))
+				{
+					return false;
+				}
+			}
+			
+			return true;
+		}
+		
+		@Override
+		public boolean isInstance(Object object, ExecutorService executor) throws InterruptedException
+		{
+			if (!super.isInstance(object, Integer.MAX_VALUE))
+			{
+				return false;
+			}
+			
+			InstanceChecker componentChecker = getComponentChecker();
+			
+			// primitive arrays have a class checker
+			return (componentChecker == ANY)
+				|| areElementsInstances(Arrays.asList((Object[]) object), componentChecker, executor);
+		}
+		
+		private InstanceChecker getComponentChecker()
+		{
+			if (componentChecker == null)
+			{
+				componentChecker = get(componentType);
+			}
+			
+			return componentChecker;
+		}
+	}
+	
+	private static final class CollectionChecker extends ClassChecker
+	{
+		private final Type elementType;
+		
+		private volatile InstanceChecker elementChecker;
+		
+		public CollectionChecker(Class<?> collectionType, Type elementType)
+		{
+			super(collectionType);
+			
+			this.elementType = elementType;
+		}
+		
+		@Override
+		public boolean isInstance(Object object, int sampleSize)
+		{
+			if (!super.isInstance(object, sampleSize))
+			{
+				return false;
+			}
+			
+			InstanceChecker elementChecker = getElementChecker();
+			
+			if (elementChecker == ANY)
+			{
+				return true;
+			}
+			
+			Collection<?> collection = (Collection<?>) object;
+			
+			if (collection instanceof List<?> && collection instanceof RandomAccess)
+			{
+				// sample evenly across random access lists
+				List<?> list = (List<?>) collection;
+				int size = list.size();
+				int step = getSampleStep(size, sampleSize);
+				
+				for (int i = 0; i < size; i += step)
+				{
+					if (!elementChecker.isElementInstance(list.get(i), sampleSize))
+					{
+						return false;
+					}
+				}
+				
+				return true;
+			}
+			
+			Iterator<?> iterator = collection.iterator();
+			
+			for (int i = 0; i < sampleSize && iterator.hasNext(); i++)
+			{
+				if (!elementChecker.isElementInstance(iterator.next(), sampleSize))
+				{
+					return false;
+				}
+			}
+			
+			return true;
+		}
+		
+		@Override
+		public boolean isInstance(Object object, ExecutorService executor) throws InterruptedException
+		{
+			if (!(object instanceof List<?> && object instanceof RandomAccess))
+			{
+				return isInstance(object, Integer.MAX_VALUE);
+			}
+			
+			if (!super.isInstance(object, Integer.MAX_VALUE))
+			{
+				return false;
+			}
+			
+			InstanceChecker elementChecker = getElementChecker();
+			
+			return (elementChecker == ANY) || areElementsInstances((List<?>) object, elementChecker, executor);
+		}
+		
+		private InstanceChecker getElementChecker()
+		{
+			if (elementChecker == null)
+			{
+				elementChecker = get(elementType);
+			}
+			
+			return elementChecker;
+		}
+	}
+	
+	private static final class MapChecker extends ClassChecker
+	{
+		private final Type keyType;
+		
+		private final Type valueType;
+		
+		private volatile InstanceChecker keyChecker;
+		
+		private volatile InstanceChecker valueChecker;
+		
+		public MapChecker(Class<?> mapType, Type keyType, Type valueType)
+		{
+			super(mapType);
+			
+			this.keyType = keyType;
+			this.valueType = valueType;
+		}
+		
+		@Override
+		public boolean isInstance(Object object, int sampleSize)
+		{
+			if (!super.isInstance(object, sampleSize))
+			{
+				return false;
+			}
+			
+			InstanceChecker keyChecker = getKeyChecker();
+			InstanceChecker valueChecker = getValueChecker();
+			
+			if (keyChecker == ANY && valueChecker == ANY)
+			{
+				return true;
+			}
+			
+			InstanceChecker entryChecker = new EntryChecker(keyChecker, valueChecker);
+			Iterator<? extends Entry<?, ?>> iterator = ((Map<?, ?>) object).entrySet().iterator();
+			
+			for (int i = 0; i < sampleSize && iterator.hasNext(); i++)
+			{
+				if (!entryChecker.isInstance(iterator.next(), sampleSize))
+				{
+					return false;
+				}
+			}
+			
+			return true;
+		}
+		
+		@Override
+		public boolean isInstance(Object object, ExecutorService executor) throws InterruptedException
+		{
+			// avoid copying the entries of maps that are too small to split
+			if (!(object instanceof Map<?, ?>) || getRangeCount(((Map<?, ?>) object).size()) <= 1)
+			{
+				return isInstance(object, Integer.MAX_VALUE);
+			}
+			
+			if (!super.isInstance(object, Integer.MAX_VALUE))
+			{
+				return false;
+			}
+			
+			InstanceChecker keyChecker = getKeyChecker();
+			InstanceChecker valueChecker = getValueChecker();
+			
+			if (keyChecker == ANY && valueChecker == ANY)
+			{
+				return true;
+			}
+			
+			// copy the entries to split them by index
+			List<?> entries = Arrays.asList(((Map<?, ?>) object).entrySet().toArray());
+			
+			return areElementsInstances(entries, new EntryChecker(keyChecker, valueChecker), executor);
+		}
+		
+		private InstanceChecker getKeyChecker()
+		{
+			if (keyChecker == null)
+			{
+				keyChecker = get(keyType);
+			}
+			
+			return keyChecker;
+		}
+		
+		private InstanceChecker getValueChecker()
+		{
+			if (valueChecker == null)
+			{
+				valueChecker = get(valueType);
+			}
+			
+			return valueChecker;
+		}
+	}
+	
+	// constants --------------------------------------------------------------
+	
+	/**
+	 * Checker for {@code Object}, which every object is an instance of.
+	 */
+	private static final InstanceChecker ANY = new ClassChecker(Object.class);
+	
+	/**
+	 * The minimum number of elements that are checked by each parallel task.
+	 */
+	private static final int MIN_RANGE_SIZE = 4096;
+	
+	/**
+	 * The number of parallel tasks per processor, which balances the load when elements vary in cost.
+	 */
+	private static final int TASKS_PER_PROCESSOR = 4;
+	
+	private static final SoftCache<Type, InstanceChecker> CHECKERS_BY_TYPE = new SoftCache<Type, InstanceChecker>();
+	
+	// public methods ---------------------------------------------------------
+	
+	public static InstanceChecker get(Type type)
+	{
+		InstanceChecker checker = CHECKERS_BY_TYPE.get(type);
+		
+		return (checker != null) ? checker : CHECKERS_BY_TYPE.put(type, create(type));
+	}
+	
+	/**
+	 * Gets whether the specified object is an instance of this checker's type.
+	 * 
+	 * @param object
+	 *            the non-null object to check
+	 * @param sampleSize
+	 *            the maximum number of elements to check in each collection, map or array
+	 * @return {@code true} if the object is an instance
+	 */
+	public abstract boolean isInstance(Object object, int sampleSize);
+	
+	/**
+	 * Gets whether the specified object is an instance of this checker's type, checking the elements of a large list,
+	 * array or map in parallel.
+	 * 
+	 * @param object
+	 *            the non-null object to check
+	 * @param executor
+	 *            the executor to check ranges of elements with
+	 * @return {@code true} if the object is an instance
+	 * @throws InterruptedException
+	 *             if the current thread was interrupted while waiting for the executor
+	 */
+	public boolean isInstance(Object object, ExecutorService executor) throws InterruptedException
+	{
+		return isInstance(object, Integer.MAX_VALUE);
+	}
+	
+	// package methods --------------------------------------------------------
+	
+	boolean isElementInstance(Object element, int sampleSize)
+	{
+		return element == null || isInstance(element, sampleSize);
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private static InstanceChecker create(Type type)
+	{
+		if (type == Object.class)
+		{
+			return ANY;
+		}
+		
+		if (type instanceof WildcardType)
+		{
+			// lower bounds cannot be checked since any supertype of an object's class satisfies them
+			return createBoundsChecker(((WildcardType) type).getUpperBounds());
+		}
+		
+		if (type instanceof TypeVariable<?>)
+		{
+			return createBoundsChecker(((TypeVariable<?>) type).getBounds());
+		}
+		
+		Class<?> rawType = TypeUtils.getErasedReferenceType(type);
+		
+		if (rawType.isArray())
+		{
+			Type componentType = (type instanceof GenericArrayType)
+				? ((GenericArrayType) type).getGenericComponentType() : rawType.getComponentType();
+			
+			// primitive arrays are fully checked by their class
+			return componentType.equals(Object.class) || rawType.getComponentType().isPrimitive()
+				? new ClassChecker(rawType) : new ArrayChecker(rawType, componentType);
+		}
+		
+		if (Map.class.isAssignableFrom(rawType))
+		{
+			Type[] typeArguments = getResolvedTypeArguments(type, Map.class);
+			
+			return new MapChecker(rawType, typeArguments[0], typeArguments[1]);
+		}
+		
+		if (Collection.class.isAssignableFrom(rawType))
+		{
+			Type[] typeArguments = getResolvedTypeArguments(type, Collection.class);
+			
+			return new CollectionChecker(rawType, typeArguments[0]);
+		}
+		
+		return new ClassChecker(rawType);
+	}
+	
+	private static InstanceChecker createBoundsChecker(Type[] bounds)
+	{
+		if (bounds.length == 0 || (bounds.length == 1 && bounds[0] == Object.class))
+		{
+			return ANY;
+		}
+		
+		return (bounds.length == 1) ? get(bounds[0]) : new BoundsChecker(bounds);
+	}
+	
+	private static Type[] getResolvedTypeArguments(Type type, Class<?> rawSupertype)
+	{
+		Type supertype = TypeUtils.getResolvedSupertype(type, rawSupertype);
+		
+		if (supertype instanceof ParameterizedType)
+		{
+			return ((ParameterizedType) supertype).getActualTypeArguments();
+		}
+		
+		// raw types have unchecked elements
+		Type[] typeArguments = new Type[rawSupertype.getTypeParameters().length];
+		
+		for (int i = 0; i < typeArguments.length; i++)
+		{
+			typeArguments[i] = Object.class;
+		}
+		
+		return typeArguments;
+	}
+	
+	private static boolean areElementsInstances(List<?> elements, InstanceChecker elementChecker,
+		ExecutorService executor) throws InterruptedException
+	{
+		int size = elements.size();
+		int rangeCount = getRangeCount(size);
+		
+		if (rangeCount <= 1)
+		{
+			return new RangeTask(elements, 0, size, elementChecker, new AtomicBoolean()).call();
+		}
+		
+		int rangeSize = (size + rangeCount - 1) / rangeCount;
+		AtomicBoolean failed = new AtomicBoolean();
+		List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>(rangeCount - 1);
+		
+		try
+		{
+			for (int fromIndex = rangeSize; fromIndex < size; fromIndex += rangeSize)
+			{
+				int toIndex = Math.min(fromIndex + rangeSize, size);
+				
+				futures.add(executor.submit(new RangeTask(elements, fromIndex, toIndex, elementChecker, failed)));
+			}
+			
+			// check the first range on this thread while waiting
+			boolean instance = new RangeTask(elements, 0, rangeSize, elementChecker, failed).call();
+			
+			for (Future<Boolean> future : futures)
+			{
+				if (!instance)
+				{
+					break;
+				}
+				
+				instance = future.get();
+			}
+			
+			return instance;
+		}
+		catch (ExecutionException exception)
+		{
+			Throwable cause = exception.getCause();
+			
+			if (cause instanceof RuntimeException)
+			{
+				throw (RuntimeException) cause;
+			}
+			
+			throw (Error) cause;
+		}
+		finally
+		{
+			// stop any tasks that are still running after a violation or an exception
+			failed.set(true);
+			
+			for (Future<Boolean> future : futures)
+			{
+				future.cancel(false);
+			}
+		}
+	}
+	
+	private static int getRangeCount(int size)
+	{
+		int maxRangeCount = Runtime.getRuntime().availableProcessors() * TASKS_PER_PROCESSOR;
+		
+		return Math.min(size / MIN_RANGE_SIZE, maxRangeCount);
+	}
+	
+	private static int getSampleStep(int size, int sampleSize)
+	{
+		// round up so that at most sampleSize elements are checked
+		return (size > sampleSize) ? (size - 1) / sampleSize + 1 : 1;
+	}
+}
@@ -0,0 +1,546 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.googlecode.jtype.Utils.checkNotNull;
+import static com.googlecode.jtype.Utils.checkTrue;
+
+/**
+ * Provides the fields and bean properties of a class or parameterized type with their generic types resolved against
+ * it.
+ * <p>
+ * A model is built in a single pass over the supertypes of its type, where the type arguments of each supertype are
+ * bound once and shared by all of the members that it declares. For example, the model of {@code Page<Order>} has a
+ * field {@code items} of type {@code List<Order>} where {@code Page<T>} declares {@code List<T> items}. The members of
+ * raw types are erased.
+ * <p>
+ * Models are immutable, so they can be shared between threads, and are cached by type.
+ * 
+ * @author Mark Hobson
+ * @see TypeUtils#getResolvedFieldType(Type, Field)
+ * @see TypeUtils#getResolvedReturnType(Type, Method)
+ */
+public final class ResolvedTypeModel
+{
+	// classes ----------------------------------------------------------------
+	
+	/**
+	 * Bean property of a resolved type model, which has a getter, a setter, or both.
+	 */
+	public static final class Property
+	{
+		// fields -------------------------------------------------------------
+		
+		private final String name;
+		
+		private final Type type;
+		
+		private final Method readMethod;
+		
+		private final Method writeMethod;
+		
+		// constructors -------------------------------------------------------
+		
+		Property(String name, Type type, Method readMethod, Method writeMethod)
+		{
+			this.name = name;
+			this.type = type;
+			this.readMethod = readMethod;
+			this.writeMethod = writeMethod;
+		}
+		
+		// public methods -----------------------------------------------------
+		
+		public String getName()
+		{
+			return name;
+		}
+		
+		/**
+		 * Gets the resolved type of this property.
+		 * 
+		 * @return the resolved return type of the getter, or the resolved parameter type of the setter if there is no
+		 *         getter
+		 */
+		public Type getType()
+		{
+			return type;
+		}
+		
+		/**
+		 * Gets the getter of this property.
+		 * 
+		 * @return the getter, or {@code null} if this property is write-only
+		 */
+		public Method getReadMethod()
+		{
+			return readMethod;
+		}
+		
+		/**
+		 * Gets the setter of this property.
+		 * 
+		 * @return the setter, or {@code null} if this property is read-only
+		 */
+		public Method getWriteMethod()
+		{
+			return writeMethod;
+		}
+		
+		// Object methods -----------------------------------------------------
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString()
+		{
+			return TypeUtils.toString(type) + " " + name;
+		}
+	}
+	
+	// constants --------------------------------------------------------------
+	
+	private static final SoftTypeCache<ResolvedTypeModel> MODELS_BY_TYPE = new SoftTypeCache<ResolvedTypeModel>()
+	{
+		@Override
+		protected Type getType(ResolvedTypeModel model)
+		{
+			return model.getType();
+		}
+	};
+	
+	/**
+	 * Orders overloaded setters consistently, since {@code Class.getMethods} returns methods in no particular order.
+	 */
+	private static final Comparator<Method> SETTER_COMPARATOR = new Comparator<Method>()
+	{
+		public int compare(Method setter1, Method setter2)
+		{
+			return setter1.toString().compareTo(setter2.toString());
+		}
+	};
+	
+	// fields -----------------------------------------------------------------
+	
+	private final Type type;
+	
+	private final Map<Field, Type> fieldTypesByField;
+	
+	private final Map<String, Property> propertiesByName;
+	
+	// constructors -----------------------------------------------------------
+	
+	private ResolvedTypeModel(Type type)
+	{
+		this.type = type;
+		
+		Map<Class<?>, Map<Type, Type>> typeArgumentsByClass = getActualTypeArgumentsByClass(type);
+		
+		fieldTypesByField = Collections.unmodifiableMap(createFieldTypes(typeArgumentsByClass));
+		propertiesByName = Collections.unmodifiableMap(createProperties(typeArgumentsByClass));
+	}
+	
+	// public methods ---------------------------------------------------------
+	
+	/**
+	 * Gets the model of the specified type.
+	 * 
+	 * @param type
+	 *            the class or parameterized type to obtain the model of
+	 * @return the resolved type model
+	 * @throws IllegalArgumentException
+	 *             if the type is not a class or parameterized type, or is a primitive or array type
+	 */
+	public static ResolvedTypeModel get(Type type)
+	{
+		checkNotNull(type, "type");
+		checkTrue((type instanceof Class<?> && !TypeUtils.isPrimitive(type) && !TypeUtils.isArray(type))
+			|| (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() instanceof Class<?>),
+			"type must be a class or parameterized type: ", type);
+		
+		ResolvedTypeModel model = MODELS_BY_TYPE.get(type);
+		
+		return (model != null) ? model : MODELS_BY_TYPE.put(new ResolvedTypeModel(type));
+	}
+	
+	public Type getType()
+	{
+		return type;
+	}
+	
+	/**
+	 * Gets the fields declared by the class of this model's type and its superclasses.
+	 * 
+	 * @return an unmodifiable collection of the fields, ordered from the topmost superclass in declaration order
+	 */
+	public Collection<Field> getFields()
+	{
+		return fieldTypesByField.keySet();
+	}
+	
+	/**
+	 * Gets the resolved type of the specified field.
+	 * 
+	 * @param field
+	 *            a field declared by the class of this model's type or one of its superclasses
+	 * @return the resolved field type
+	 * @throws IllegalArgumentException
+	 *             if the field is not a field of this model's type
+	 */
+	public Type getFieldType(Field field)
+	{
+		checkNotNull(field, "field");
+		
+		Type fieldType = fieldTypesByField.get(field);
+		
+		checkTrue(fieldType != null, "field is not a field of " + TypeUtils.toString(type) + ": ", field);
+		
+		return fieldType;
+	}
+	
+	/**
+	 * Gets the bean properties of this model's type, which are derived from its public getters and setters.
+	 * 
+	 * @return an unmodifiable collection of the properties, ordered by name
+	 */
+	public Collection<Property> getProperties()
+	{
+		return propertiesByName.values();
+	}
+	
+	/**
+	 * Gets the bean property with the specified name.
+	 * 
+	 * @param name
+	 *            the name of the property
+	 * @return the property, or {@code null} if this model's type has no such property
+	 */
+	public Property getProperty(String name)
+	{
+		return propertiesByName.get(name);
+	}
+	
+	// Object methods ---------------------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + "[" + TypeUtils.toString(type) + "]";
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	/**
+	 * Gets the actual type arguments of the supertypes of the specified type keyed by their raw type, where raw types
+	 * and their supertypes are mapped to {@code null} since their members are erased.
+	 */
+	private static Map<Class<?>, Map<Type, Type>> getActualTypeArgumentsByClass(Type type)
+	{
+		Map<Class<?>, Map<Type, Type>> typeArgumentsByClass = new HashMap<Class<?>, Map<Type, Type>>();
+		LinkedList<Type> supertypes = new LinkedList<Type>();
+		supertypes.add(type);
+		
+		while (!supertypes.isEmpty())
+		{
+			Type supertype = supertypes.removeFirst();
+			Class<?> rawSupertype = TypeUtils.getErasedReferenceType(supertype);
+			
+			if (typeArgumentsByClass.containsKey(rawSupertype))
+			{
+				continue;
+			}
+			
+			if (TypeUtils.isRawType(supertype))
+			{
+				putRawSupertypes(typeArgumentsByClass, rawSupertype);
+				continue;
+			}
+			
+			Map<Type, Type> typeArguments = Collections.emptyMap();
+			
+			if (supertype instanceof ParameterizedType)
+			{
+				// include the type arguments of any enclosing types of inner classes
+				Type ownerType = ((ParameterizedType) supertype).getOwnerType();
+				
+				typeArguments = TypeUtils.getActualTypeArgumentsByParameter(supertype, ownerType);
+			}
+			
+			typeArgumentsByClass.put(rawSupertype, typeArguments);
+			
+			Type superclass = TypeUtils.getResolvedSuperclass(supertype);
+			
+			if (superclass != null)
+			{
+				supertypes.add(superclass);
+			}
+			
+			for (Type interfaceType : TypeUtils.getResolvedInterfaces(supertype))
+			{
+				supertypes.add(interfaceType);
+			}
+		}
+		
+		return typeArgumentsByClass;
+	}
+	
+	private static void putRawSupertypes(Map<Class<?>, Map<Type, Type>> typeArgumentsByClass, Class<?> rawType)
+	{
+		if (rawType == null || typeArgumentsByClass.containsKey(rawType))
+		{
+			return;
+		}
+		
+		typeArgumentsByClass.put(rawType, null);
+		
+		putRawSupertypes(typeArgumentsByClass, rawType.getSuperclass());
+		
+		for (Class<?> interfaceType : rawType.getInterfaces())
+		{
+			putRawSupertypes(typeArgumentsByClass, interfaceType);
+		}
+	}
+	
+	private Map<Field, Type> createFieldTypes(Map<Class<?>, Map<Type, Type>> typeArgumentsByClass)
+	{
+		List<Class<?>> classes = new ArrayList<Class<?>>();
+		
+		for (Class<?> klass = TypeUtils.getErasedReferenceType(type); klass != null; klass = klass.getSuperclass())
+		{
+			classes.add(0, klass);
+		}
+		
+		Map<Field, Type> fieldTypesByField = new LinkedHashMap<Field, Type>();
+		
+		for (Class<?> klass : classes)
+		{
+			Map<Type, Type> typeArguments = typeArgumentsByClass.get(klass);
+			
+			for (Field field : klass.getDeclaredFields())
+			{
+				if (!field.isSynthetic())
+				{
+					fieldTypesByField.put(field, resolve(field.getGenericType(), typeArguments));
+				}
+			}
+		}
+		
+		return fieldTypesByField;
+	}
+	
+	private Map<String, Property> createProperties(Map<Class<?>, Map<Type, Type>> typeArgumentsByClass)
+	{
+		Map<String, Method> gettersByName = new HashMap<String, Method>();
+		Map<String, List<Method>> settersByName = new HashMap<String, List<Method>>();
+		
+		for (Method method : TypeUtils.getErasedReferenceType(type).getMethods())
+		{
+			if (Modifier.isStatic(method.getModifiers()) || method.isBridge() || method.isSynthetic())
+			{
+				continue;
+			}
+			
+			String name = getGetterPropertyName(method);
+			
+			if (name != null)
+			{
+				Method getter = gettersByName.get(name);
+				
+				// prefer getters that override those of supertypes
+				if (getter == null || getter.getDeclaringClass().isAssignableFrom(method.getDeclaringClass()))
+				{
+					gettersByName.put(name, method);
+				}
+				
+				continue;
+			}
+			
+			name = getSetterPropertyName(method);
+			
+			if (name != null)
+			{
+				List<Method> setters = settersByName.get(name);
+				
+				if (setters == null)
+				{
+					setters = new ArrayList<Method>(1);
+					settersByName.put(name, setters);
+				}
+				
+				setters.add(method);
+			}
+		}
+		
+		Map<String, Property> propertiesByName = new TreeMap<String, Property>();
+		
+		for (Map.Entry<String, Method> entry : gettersByName.entrySet())
+		{
+			String name = entry.getKey();
+			Method getter = entry.getValue();
+			Type propertyType = resolve(getter.getGenericReturnType(), typeArgumentsByClass.get(
+				getter.getDeclaringClass()));
+			Method setter = getSetter(settersByName.remove(name), propertyType, typeArgumentsByClass);
+			
+			propertiesByName.put(name, new Property(name, propertyType, getter, setter));
+		}
+		
+		for (Map.Entry<String, List<Method>> entry : settersByName.entrySet())
+		{
+			String name = entry.getKey();
+			
+			Method setter = getMostSpecificSetter(entry.getValue(), typeArgumentsByClass);
+			Type propertyType = getSetterType(setter, typeArgumentsByClass);
+			
+			propertiesByName.put(name, new Property(name, propertyType, null, setter));
+		}
+		
+		return propertiesByName;
+	}
+	
+	private static Method getSetter(List<Method> setters, Type propertyType,
+		Map<Class<?>, Map<Type, Type>> typeArgumentsByClass)
+	{
+		if (setters == null)
+		{
+			return null;
+		}
+		
+		List<Method> matchingSetters = new ArrayList<Method>(setters.size());
+		
+		// the setter must accept the type of the getter
+		for (Method setter : setters)
+		{
+			if (TypeUtils.isAssignable(getSetterType(setter, typeArgumentsByClass), propertyType))
+			{
+				matchingSetters.add(setter);
+			}
+		}
+		
+		return matchingSetters.isEmpty() ? null : getMostSpecificSetter(matchingSetters, typeArgumentsByClass);
+	}
+	
+	/**
+	 * Gets the overloaded setter whose parameter type is most specific. Setters are considered in a consistent order,
+	 * so the same setter is chosen when none is more specific than the others.
+	 */
+	private static Method getMostSpecificSetter(List<Method> setters,
+		Map<Class<?>, Map<Type, Type>> typeArgumentsByClass)
+	{
+		Collections.sort(setters, SETTER_COMPARATOR);
+		
+		Method mostSpecificSetter = setters.get(0);
+		Type mostSpecificType = getSetterType(mostSpecificSetter, typeArgumentsByClass);
+		
+		for (Method setter : setters.subList(1, setters.size()))
+		{
+			Type setterType = getSetterType(setter, typeArgumentsByClass);
+			
+			if (TypeUtils.isAssignable(mostSpecificType, setterType)
+				&& !TypeUtils.isAssignable(setterType, mostSpecificType))
+			{
+				mostSpecificSetter = setter;
+				mostSpecificType = setterType;
+			}
+		}
+		
+		return mostSpecificSetter;
+	}
+	
+	private static Type getSetterType(Method setter, Map<Class<?>, Map<Type, Type>> typeArgumentsByClass)
+	{
+		return resolve(setter.getGenericParameterTypes()[0], typeArgumentsByClass.get(setter.getDeclaringClass()));
+	}
+	
+	private static String getGetterPropertyName(Method method)
+	{
+		if (method.getParameterTypes().length != 0 || method.getDeclaringClass() == Object.class)
+		{
+			return null;
+		}
+		
+		Class<?> returnType = method.getReturnType();
+		String methodName = method.getName();
+		
+		if (returnType != void.class && methodName.startsWith("get"))
+		{
+			return getPropertyName(methodName, 3);
+		}
+		
+		if (returnType == boolean.class && methodName.startsWith("is"))
+		{
+			return getPropertyName(methodName, 2);
+		}
+		
+		return null;
+	}
+	
+	private static String getSetterPropertyName(Method method)
+	{
+		if (method.getParameterTypes().length != 1 || method.getReturnType() != void.class
+			|| !method.getName().startsWith("set"))
+		{
+			return null;
+		}
+		
+		return getPropertyName(method.getName(), 3);
+	}
+	
+	/**
+	 * Gets the name of the property for the specified method name, decapitalized as by
+	 * {@code java.beans.Introspector}.
+	 */
+	private static String getPropertyName(String methodName, int prefixLength)
+	{
+		if (methodName.length() == prefixLength)
+		{
+			return null;
+		}
+		
+		String name = methodName.substring(prefixLength);
+		
+		// names that start with an acronym keep their capitalization
+		if (name.length() > 1 && Character.isUpperCase(name.charAt(0)) && Character.isUpperCase(name.charAt(1)))
+		{
+			return name;
+		}
+		
+		return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+	}
+	
+	private static Type resolve(Type memberType, Map<Type, Type> typeArguments)
+	{
+		return (typeArguments != null) ? TypeUtils.substitute(memberType, typeArguments)
+			: TypeUtils.getErasedType(memberType);
+	}
+}
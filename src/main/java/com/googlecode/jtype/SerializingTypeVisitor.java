@@ -189,6 +189,17 @@ class SerializingTypeVisitor extends AbstractTypeVisitor
 		visit(bound);
 	}
 	
+	// AbstractTypeVisitor methods --------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	void visit(ClassFileClass type)
+	{
+		builder.append(ClassSerializers.toString(serializer, type.getName()));
+	}
+	
 	// Object methods ---------------------------------------------------------
 
 	/**
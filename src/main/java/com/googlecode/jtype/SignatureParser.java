@@ -0,0 +1,563 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses JVM field descriptors and generic signatures into types in a single left-to-right scan.
+ * <p>
+ * Classes are loaded through {@link ClassUtils#valueOf(String)} by default. Subclasses can resolve classes, type
+ * variables and parameterized types against a different type model.
+ * 
+ * @author Mark Hobson
+ * @see <a href="http://docs.oracle.com/javase/specs/jvms/se7/html/jvms-4.html#jvms-4.3.4">4.3.4 Signatures</a>
+ */
+class SignatureParser
+{
+	// constants --------------------------------------------------------------
+	
+	/**
+	 * Parsed types keyed by their signature, keyed in turn by the class loader that was used to load their classes.
+	 * Class loaders are weakly referenced and types are softly referenced, so that neither can prevent a class loader
+	 * from being garbage collected.
+	 */
+	private static final WeakCache<ClassLoader, SoftCache<String, Type>> TYPES_BY_SIGNATURE_BY_CLASS_LOADER =
+		new WeakCache<ClassLoader, SoftCache<String, Type>>();
+	
+	/**
+	 * Parsed types keyed by their signature for when there is no class loader to key them by.
+	 */
+	private static final SoftCache<String, Type> TYPES_BY_SIGNATURE = new SoftCache<String, Type>();
+	
+	// fields -----------------------------------------------------------------
+	
+	private final String signature;
+	
+	private final GenericDeclaration declaration;
+	
+	private final boolean descriptor;
+	
+	private int index;
+	
+	// constructors -----------------------------------------------------------
+	
+	SignatureParser(String signature, GenericDeclaration declaration, boolean descriptor)
+	{
+		this.signature = signature;
+		this.declaration = declaration;
+		this.descriptor = descriptor;
+		
+		index = 0;
+	}
+	
+	// public methods ---------------------------------------------------------
+	
+	public static Type parseSignature(String signature)
+	{
+		SoftCache<String, Type> typesBySignature = getTypesBySignature(ClassUtils.getDefaultClassLoader());
+		Type type = typesBySignature.get(signature);
+		
+		if (type == null)
+		{
+			type = typesBySignature.put(signature, parse(signature, null, false));
+		}
+		
+		return type;
+	}
+	
+	public static Type parseSignature(String signature, GenericDeclaration declaration)
+	{
+		// type variables are specific to their declaration so are not cached
+		
+		return parse(signature, declaration, false);
+	}
+	
+	public static Type parseDescriptor(String descriptor)
+	{
+		return parse(descriptor, null, true);
+	}
+	
+	// package methods --------------------------------------------------------
+	
+	Type parseType()
+	{
+		Type type = parseJavaTypeSignature();
+		
+		if (hasNext())
+		{
+			throw invalidSignature();
+		}
+		
+		return type;
+	}
+	
+	boolean hasNext()
+	{
+		return index < signature.length();
+	}
+	
+	int getIndex()
+	{
+		return index;
+	}
+	
+	void setIndex(int index)
+	{
+		this.index = index;
+	}
+	
+	/**
+	 * Parses the formal type parameters of a class or method signature, if present, without resolving their bounds.
+	 * 
+	 * @return the index of the bounds of each formal type parameter keyed by its name, in declaration order
+	 */
+	Map<String, Integer> parseFormalTypeParameters()
+	{
+		Map<String, Integer> boundIndexesByName = new LinkedHashMap<String, Integer>();
+		
+		if (!hasNext() || peek() != '<')
+		{
+			return boundIndexesByName;
+		}
+		
+		expect('<');
+		
+		do
+		{
+			int start = index;
+			
+			while (peek() != ':')
+			{
+				index++;
+			}
+			
+			if (index == start)
+			{
+				throw invalidSignature();
+			}
+			
+			boundIndexesByName.put(signature.substring(start, index), index);
+			
+			skipTypeParameterBounds();
+		}
+		while (peek() != '>');
+		
+		expect('>');
+		
+		return boundIndexesByName;
+	}
+	
+	/**
+	 * Parses the class bound and interface bounds of a formal type parameter.
+	 * 
+	 * @return the bounds
+	 */
+	Type[] parseTypeParameterBounds()
+	{
+		List<Type> bounds = new ArrayList<Type>();
+		
+		expect(':');
+		
+		// class bound is optional
+		if (peek() != ':')
+		{
+			bounds.add(parseReferenceTypeSignature());
+		}
+		
+		while (hasNext() && peek() == ':')
+		{
+			index++;
+			
+			bounds.add(parseReferenceTypeSignature());
+		}
+		
+		return bounds.toArray(new Type[bounds.size()]);
+	}
+	
+	Type parseReferenceTypeSignature()
+	{
+		if (peek() != 'L' && peek() != 'T' && peek() != '[')
+		{
+			throw invalidSignature();
+		}
+		
+		return parseJavaTypeSignature();
+	}
+	
+	Type resolveClass(String className)
+	{
+		Class<?> klass = ClassUtils.valueOf(className);
+		
+		if (klass == null)
+		{
+			throw new IllegalArgumentException("Class not found: " + className);
+		}
+		
+		return klass;
+	}
+	
+	Type createParameterizedType(Type ownerType, Type rawType, Type[] actualTypeArguments)
+	{
+		return new DefaultParameterizedType(ownerType, (Class<?>) rawType, actualTypeArguments);
+	}
+	
+	/**
+	 * Gets the class that declares the specified class, for use as the owner type of its parameterized types.
+	 * 
+	 * @param rawType
+	 *            the class, as resolved by {@link #resolveClass(String)}
+	 * @return the declaring class, or {@code null} if the class is top-level
+	 */
+	Type getDeclaringClass(Type rawType)
+	{
+		return ((Class<?>) rawType).getDeclaringClass();
+	}
+	
+	TypeVariable<?> resolveTypeVariable(String name)
+	{
+		GenericDeclaration currentDeclaration = declaration;
+		
+		while (currentDeclaration != null)
+		{
+			for (TypeVariable<?> typeParameter : currentDeclaration.getTypeParameters())
+			{
+				if (typeParameter.getName().equals(name))
+				{
+					return typeParameter;
+				}
+			}
+			
+			currentDeclaration = getEnclosingDeclaration(currentDeclaration);
+		}
+		
+		throw new IllegalArgumentException("Type variable not found: " + name);
+	}
+	
+	IllegalArgumentException invalidSignature()
+	{
+		String kind = descriptor ? "descriptor" : "signature";
+		
+		return new IllegalArgumentException("Invalid " + kind + " at index " + index + ": " + signature);
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private static SoftCache<String, Type> getTypesBySignature(ClassLoader classLoader)
+	{
+		if (classLoader == null)
+		{
+			return TYPES_BY_SIGNATURE;
+		}
+		
+		SoftCache<String, Type> typesBySignature = TYPES_BY_SIGNATURE_BY_CLASS_LOADER.get(classLoader);
+		
+		if (typesBySignature == null)
+		{
+			typesBySignature = TYPES_BY_SIGNATURE_BY_CLASS_LOADER.putIfAbsent(classLoader,
+				new SoftCache<String, Type>());
+		}
+		
+		return typesBySignature;
+	}
+	
+	private static Type parse(String signature, GenericDeclaration declaration, boolean descriptor)
+	{
+		return new SignatureParser(signature, declaration, descriptor).parseType();
+	}
+	
+	private Type parseJavaTypeSignature()
+	{
+		char c = peek();
+		
+		if (c == 'L')
+		{
+			return parseClassTypeSignature();
+		}
+		
+		if (c == 'T' && !descriptor)
+		{
+			return parseTypeVariableSignature();
+		}
+		
+		if (c == '[')
+		{
+			int dimensions = 0;
+			
+			while (peek() == '[')
+			{
+				index++;
+				dimensions++;
+			}
+			
+			return TypeUtils.getArrayType(parseJavaTypeSignature(), dimensions);
+		}
+		
+		Class<?> primitiveType = ClassUtils.valueOfPrimitiveDescriptor(c);
+		
+		if (primitiveType == null)
+		{
+			throw invalidSignature();
+		}
+		
+		index++;
+		
+		return primitiveType;
+	}
+	
+	private Type parseClassTypeSignature()
+	{
+		expect('L');
+		
+		String className = parseIdentifier().replace('/', '.');
+		Type type = null;
+		
+		while (true)
+		{
+			Type rawType = resolveClass(className);
+			
+			if (peek() == '<' && !descriptor)
+			{
+				Type[] actualTypeArguments = parseTypeArguments();
+				Type ownerType = (type != null) ? type : getDeclaringClass(rawType);
+				
+				type = createParameterizedType(ownerType, rawType, actualTypeArguments);
+			}
+			else if (type instanceof ParameterizedType)
+			{
+				// inner classes of parameterized types are parameterized even without type arguments of their own
+				type = createParameterizedType(type, rawType, new Type[0]);
+			}
+			else
+			{
+				type = rawType;
+			}
+			
+			char c = next();
+			
+			if (c == ';')
+			{
+				return type;
+			}
+			
+			if (c != '.' || descriptor)
+			{
+				throw invalidSignature();
+			}
+			
+			// inner class of a parameterized type
+			className = className + '$' + parseIdentifier();
+		}
+	}
+	
+	private Type[] parseTypeArguments()
+	{
+		expect('<');
+		
+		List<Type> actualTypeArguments = new ArrayList<Type>();
+		
+		do
+		{
+			actualTypeArguments.add(parseTypeArgument());
+		}
+		while (peek() != '>');
+		
+		expect('>');
+		
+		return actualTypeArguments.toArray(new Type[actualTypeArguments.size()]);
+	}
+	
+	private Type parseTypeArgument()
+	{
+		char c = peek();
+		
+		if (c == '*')
+		{
+			index++;
+			
+			return Types.unboundedWildcardType();
+		}
+		
+		if (c == '+')
+		{
+			index++;
+			
+			return Types.upperBoundedWildcardType(parseReferenceTypeSignature());
+		}
+		
+		if (c == '-')
+		{
+			index++;
+			
+			return Types.lowerBoundedWildcardType(parseReferenceTypeSignature());
+		}
+		
+		return parseReferenceTypeSignature();
+	}
+	
+	private Type parseTypeVariableSignature()
+	{
+		expect('T');
+		
+		String name = parseIdentifier();
+		
+		expect(';');
+		
+		return resolveTypeVariable(name);
+	}
+	
+	private String parseIdentifier()
+	{
+		int start = index;
+		
+		while (index < signature.length() && !isIdentifierTerminator(signature.charAt(index)))
+		{
+			index++;
+		}
+		
+		if (index == start)
+		{
+			throw invalidSignature();
+		}
+		
+		return signature.substring(start, index);
+	}
+	
+	private void skipTypeParameterBounds()
+	{
+		expect(':');
+		
+		if (peek() != ':')
+		{
+			skipJavaTypeSignature();
+		}
+		
+		while (peek() == ':')
+		{
+			index++;
+			
+			skipJavaTypeSignature();
+		}
+	}
+	
+	private void skipJavaTypeSignature()
+	{
+		char c = next();
+		
+		if (c == '[')
+		{
+			skipJavaTypeSignature();
+		}
+		else if (c == 'T')
+		{
+			while (next() != ';')
+			{
+				// skip type variable name
+			}
+		}
+		else if (c == 'L')
+		{
+			int depth = 0;
+			
+			for (char d = next(); d != ';' || depth > 0; d = next())
+			{
+				if (d == '<')
+				{
+					depth++;
+				}
+				else if (d == '>')
+				{
+					depth--;
+				}
+			}
+		}
+		else if (ClassUtils.valueOfPrimitiveDescriptor(c) == null)
+		{
+			throw invalidSignature();
+		}
+	}
+	
+	private static boolean isIdentifierTerminator(char c)
+	{
+		return c == ';' || c == '<' || c == '>' || c == '.' || c == '[' || c == ':';
+	}
+	
+	private static GenericDeclaration getEnclosingDeclaration(GenericDeclaration declaration)
+	{
+		if (declaration instanceof Member)
+		{
+			return ((Member) declaration).getDeclaringClass();
+		}
+		
+		if (declaration instanceof Class<?>)
+		{
+			Class<?> klass = (Class<?>) declaration;
+			
+			Constructor<?> enclosingConstructor = klass.getEnclosingConstructor();
+			
+			if (enclosingConstructor != null)
+			{
+				return enclosingConstructor;
+			}
+			
+			Method enclosingMethod = klass.getEnclosingMethod();
+			
+			if (enclosingMethod != null)
+			{
+				return enclosingMethod;
+			}
+			
+			return klass.getEnclosingClass();
+		}
+		
+		return null;
+	}
+	
+	private char peek()
+	{
+		if (index >= signature.length())
+		{
+			throw invalidSignature();
+		}
+		
+		return signature.charAt(index);
+	}
+	
+	private char next()
+	{
+		char c = peek();
+		
+		index++;
+		
+		return c;
+	}
+	
+	private void expect(char c)
+	{
+		if (next() != c)
+		{
+			throw invalidSignature();
+		}
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+
+import static com.googlecode.jtype.Utils.checkNotNull;
+
+/**
+ * Type visitor that appends JVM type signatures to a string builder.
+ * 
+ * @author Mark Hobson
+ * @see <a href="http://docs.oracle.com/javase/specs/jvms/se7/html/jvms-4.html#jvms-4.3.4">4.3.4 Signatures</a>
+ */
+class SignatureTypeVisitor extends AbstractTypeVisitor
+{
+	// fields -----------------------------------------------------------------
+	
+	private final StringBuilder builder;
+	
+	// constructors -----------------------------------------------------------
+	
+	public SignatureTypeVisitor(StringBuilder builder)
+	{
+		this.builder = checkNotNull(builder, "builder");
+	}
+	
+	// TypeVisitor methods ----------------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void visit(Class<?> type)
+	{
+		ClassUtils.appendDescriptor(builder, type);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <D extends GenericDeclaration> boolean beginVisit(TypeVariable<D> type)
+	{
+		builder.append('T').append(type.getName()).append(';');
+		
+		// bounds do not form part of a type variable signature
+		return false;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void visit(GenericArrayType type)
+	{
+		builder.append('[');
+		
+		visit(type.getGenericComponentType());
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean beginVisit(ParameterizedType type)
+	{
+		builder.append('L');
+		appendClassTypeSignature(type);
+		builder.append(';');
+		
+		// actual type arguments already appended
+		return false;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean beginVisit(WildcardType type)
+	{
+		Type[] lowerBounds = type.getLowerBounds();
+		
+		if (lowerBounds.length > 0)
+		{
+			builder.append('-');
+			
+			visit(lowerBounds[0]);
+		}
+		else
+		{
+			Type[] upperBounds = type.getUpperBounds();
+			
+			if (upperBounds.length == 0 || upperBounds[0] == Object.class)
+			{
+				builder.append('*');
+			}
+			else
+			{
+				builder.append('+');
+				
+				visit(upperBounds[0]);
+			}
+		}
+		
+		// bounds already appended
+		return false;
+	}
+	
+	// AbstractTypeVisitor methods --------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	void visit(ClassFileClass type)
+	{
+		builder.append('L');
+		ClassUtils.appendInternalName(builder, type.getName());
+		builder.append(';');
+	}
+	
+	// Object methods ---------------------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return builder.toString();
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private void appendClassTypeSignature(ParameterizedType type)
+	{
+		Type rawType = type.getRawType();
+		String rawTypeName = (rawType instanceof ClassFileClass) ? ((ClassFileClass) rawType).getName()
+			: ((Class<?>) rawType).getName();
+		Type ownerType = type.getOwnerType();
+		
+		if (ownerType instanceof ParameterizedType)
+		{
+			// inner classes of parameterized types are qualified by their owner's signature
+			
+			appendClassTypeSignature((ParameterizedType) ownerType);
+			
+			builder.append('.').append(ClassUtils.getSimpleClassName(rawTypeName));
+		}
+		else
+		{
+			ClassUtils.appendInternalName(builder, rawTypeName);
+		}
+		
+		Type[] actualTypeArguments = type.getActualTypeArguments();
+		
+		if (actualTypeArguments.length > 0)
+		{
+			builder.append('<');
+			
+			for (Type actualTypeArgument : actualTypeArguments)
+			{
+				visit(actualTypeArgument);
+			}
+			
+			builder.append('>');
+		}
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Concurrent cache whose values are softly referenced.
+ * <p>
+ * Values, and therefore the class loaders of any types that they refer to, can be garbage collected when memory is
+ * low. Entries for collected values are purged as new values are cached, which releases their keys.
+ * 
+ * @author Mark Hobson
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+final class SoftCache<K, V>
+{
+	// classes ----------------------------------------------------------------
+	
+	private static final class ValueReference<K, V> extends SoftReference<V>
+	{
+		private final K key;
+		
+		public ValueReference(K key, V value, ReferenceQueue<? super V> queue)
+		{
+			super(value, queue);
+			
+			this.key = key;
+		}
+		
+		public K getKey()
+		{
+			return key;
+		}
+	}
+	
+	// fields -----------------------------------------------------------------
+	
+	private final ConcurrentMap<K, ValueReference<K, V>> referencesByKey;
+	
+	private final ReferenceQueue<V> queue;
+	
+	// constructors -----------------------------------------------------------
+	
+	public SoftCache()
+	{
+		referencesByKey = new ConcurrentHashMap<K, ValueReference<K, V>>();
+		queue = new ReferenceQueue<V>();
+	}
+	
+	// public methods ---------------------------------------------------------
+	
+	public V get(Object key)
+	{
+		ValueReference<K, V> reference = referencesByKey.get(key);
+		
+		return (reference != null) ? reference.get() : null;
+	}
+	
+	/**
+	 * Caches the specified value unless another value has been concurrently cached for the same key.
+	 * 
+	 * @param key
+	 *            the key to cache the value by
+	 * @param value
+	 *            the value to cache
+	 * @return the cached value, which is the existing value if one was already cached
+	 */
+	public V put(K key, V value)
+	{
+		purge();
+		
+		ValueReference<K, V> reference = new ValueReference<K, V>(key, value, queue);
+		
+		while (true)
+		{
+			ValueReference<K, V> existingReference = referencesByKey.putIfAbsent(key, reference);
+			
+			if (existingReference == null)
+			{
+				return value;
+			}
+			
+			// prefer the existing value to preserve identity
+			V existingValue = existingReference.get();
+			
+			if (existingValue != null)
+			{
+				return existingValue;
+			}
+			
+			if (referencesByKey.replace(key, existingReference, reference))
+			{
+				return value;
+			}
+		}
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private void purge()
+	{
+		ValueReference<?, ?> reference;
+		
+		while ((reference = (ValueReference<?, ?>) queue.poll()) != null)
+		{
+			referencesByKey.remove(reference.getKey(), reference);
+		}
+	}
+}
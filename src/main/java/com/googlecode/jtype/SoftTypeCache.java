@@ -0,0 +1,225 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Concurrent cache of softly referenced values that are keyed by the type that each value refers to.
+ * <p>
+ * Unlike {@code SoftCache}, the cache only references types through its values, so once a value has been garbage
+ * collected the cache cannot prevent the class loaders of its type from being garbage collected too. Types are
+ * compared structurally, as per {@link TypeUtils#equals(Type, Type)}.
+ * 
+ * @author Mark Hobson
+ * @param <V> the type of values
+ * @see SoftCache
+ */
+abstract class SoftTypeCache<V>
+{
+	// classes ----------------------------------------------------------------
+	
+	/**
+	 * Reference to a cached value that is its own key. Cleared references are only equal to themselves so that they
+	 * can still be purged.
+	 */
+	private final class ValueReference extends SoftReference<V>
+	{
+		private final int hashCode;
+		
+		public ValueReference(V value, ReferenceQueue<? super V> queue)
+		{
+			super(value, queue);
+			
+			hashCode = TypeUtils.hashCode(getType(value));
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return hashCode;
+		}
+		
+		@Override
+		public boolean equals(Object object)
+		{
+			if (this == object)
+			{
+				return true;
+			}
+			
+			if (!(object instanceof SoftTypeCache<?>.ValueReference))
+			{
+				return false;
+			}
+			
+			V value = get();
+			Object otherValue = ((SoftTypeCache<?>.ValueReference) object).get();
+			
+			return value != null && otherValue != null && TypeUtils.equals(getType(value), getType(cast(otherValue)));
+		}
+	}
+	
+	/**
+	 * Looks up a value by type without creating a reference. {@code Map.get} compares the specified key to the keys of
+	 * the map, so only this side of the comparison needs to know about value references.
+	 */
+	private final class LookupKey
+	{
+		private Type type;
+		
+		public void set(Type type)
+		{
+			this.type = type;
+		}
+		
+		public void clear()
+		{
+			type = null;
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return TypeUtils.hashCode(type);
+		}
+		
+		@Override
+		public boolean equals(Object object)
+		{
+			if (!(object instanceof SoftTypeCache<?>.ValueReference))
+			{
+				return false;
+			}
+			
+			Object value = ((SoftTypeCache<?>.ValueReference) object).get();
+			
+			return value != null && TypeUtils.equals(type, getType(cast(value)));
+		}
+	}
+	
+	// fields -----------------------------------------------------------------
+	
+	private final ConcurrentMap<Object, ValueReference> referencesByReference;
+	
+	private final ReferenceQueue<V> queue;
+	
+	private final ThreadLocal<LookupKey> lookupKeys;
+	
+	// constructors -----------------------------------------------------------
+	
+	public SoftTypeCache()
+	{
+		referencesByReference = new ConcurrentHashMap<Object, ValueReference>();
+		queue = new ReferenceQueue<V>();
+		
+		lookupKeys = new ThreadLocal<LookupKey>()
+		{
+			@Override
+			protected LookupKey initialValue()
+			{
+				return new LookupKey();
+			}
+		};
+	}
+	
+	// public methods ---------------------------------------------------------
+	
+	public V get(Type type)
+	{
+		LookupKey lookupKey = lookupKeys.get();
+		ValueReference reference;
+		
+		lookupKey.set(type);
+		
+		try
+		{
+			reference = referencesByReference.get(lookupKey);
+		}
+		finally
+		{
+			lookupKey.clear();
+		}
+		
+		return (reference != null) ? reference.get() : null;
+	}
+	
+	/**
+	 * Caches the specified value unless another value has been concurrently cached for an equal type.
+	 * 
+	 * @param value
+	 *            the value to cache
+	 * @return the cached value, which is the existing value if one was already cached
+	 */
+	public V put(V value)
+	{
+		purge();
+		
+		ValueReference reference = new ValueReference(value, queue);
+		
+		while (true)
+		{
+			ValueReference existingReference = referencesByReference.putIfAbsent(reference, reference);
+			
+			if (existingReference == null)
+			{
+				return value;
+			}
+			
+			// prefer the existing value to preserve identity
+			V existingValue = existingReference.get();
+			
+			if (existingValue != null)
+			{
+				return existingValue;
+			}
+			
+			referencesByReference.remove(existingReference);
+		}
+	}
+	
+	// protected methods ------------------------------------------------------
+	
+	/**
+	 * Gets the type that the specified value is cached by.
+	 * 
+	 * @param value
+	 *            the cached value
+	 * @return the type of the value
+	 */
+	protected abstract Type getType(V value);
+	
+	// private methods --------------------------------------------------------
+	
+	private void purge()
+	{
+		Object reference;
+		
+		while ((reference = queue.poll()) != null)
+		{
+			referencesByReference.remove(reference);
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private V cast(Object value)
+	{
+		// only references created by this cache are compared since they are the only keys of its map
+		return (V) value;
+	}
+}
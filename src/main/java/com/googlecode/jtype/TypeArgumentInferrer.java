@@ -0,0 +1,644 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Infers the type arguments of a generic method invocation from the types of its actual arguments.
+ * <p>
+ * Each argument type is matched against its formal parameter type to collect constraints on the method's type
+ * variables: equality constraints from type arguments, lower bounds from argument types and upper bounds from
+ * {@code super} wildcards. A type variable is then bound to its equality constraint, otherwise to the least upper bound
+ * of its lower bounds, otherwise to the most specific of its upper bounds, and otherwise to its declared bound. The
+ * bindings are finally checked against the arguments and the declared bounds with
+ * {@link TypeUtils#isAssignable(Type, Type)}.
+ * <p>
+ * This is a simplification of JLS 15.12.2.7 and 15.12.2.8 that does not consider the invocation context.
+ * 
+ * @author Mark Hobson
+ * @see TypeUtils#inferTypeArguments(Method, Type...)
+ */
+final class TypeArgumentInferrer
+{
+	// constants --------------------------------------------------------------
+	
+	private static final SoftCache<List<Object>, Map<TypeVariable<Method>, Type>> TYPE_ARGUMENTS_BY_INVOCATION =
+		new SoftCache<List<Object>, Map<TypeVariable<Method>, Type>>();
+	
+	// fields -----------------------------------------------------------------
+	
+	private final Set<TypeVariable<Method>> typeParameters;
+	
+	private final Map<TypeVariable<?>, Type> exactTypesByParameter;
+	
+	private final Map<TypeVariable<?>, List<Type>> lowerBoundsByParameter;
+	
+	private final Map<TypeVariable<?>, List<Type>> upperBoundsByParameter;
+	
+	private boolean consistent;
+	
+	// constructors -----------------------------------------------------------
+	
+	private TypeArgumentInferrer(Method method)
+	{
+		typeParameters = new LinkedHashSet<TypeVariable<Method>>(Arrays.asList(method.getTypeParameters()));
+		exactTypesByParameter = new HashMap<TypeVariable<?>, Type>();
+		lowerBoundsByParameter = new HashMap<TypeVariable<?>, List<Type>>();
+		upperBoundsByParameter = new HashMap<TypeVariable<?>, List<Type>>();
+		consistent = true;
+	}
+	
+	// public methods ---------------------------------------------------------
+	
+	/**
+	 * Infers the type arguments of the specified generic method when invoked with arguments of the specified types.
+	 * Results are cached by method and argument types.
+	 * 
+	 * @param method
+	 *            the generic method being invoked
+	 * @param argumentTypes
+	 *            the types of the actual arguments, where {@code null} denotes the null type
+	 * @return the type arguments keyed by the method's type parameters in declaration order
+	 * @throws IllegalArgumentException
+	 *             if the method is not applicable to the argument types
+	 */
+	public static Map<TypeVariable<Method>, Type> infer(Method method, Type[] argumentTypes)
+	{
+		List<Object> key = new ArrayList<Object>(argumentTypes.length + 1);
+		key.add(method);
+		key.addAll(Arrays.asList(argumentTypes));
+		
+		Map<TypeVariable<Method>, Type> typeArguments = TYPE_ARGUMENTS_BY_INVOCATION.get(key);
+		
+		if (typeArguments == null)
+		{
+			typeArguments = TYPE_ARGUMENTS_BY_INVOCATION.put(key, inferInternal(method, argumentTypes));
+		}
+		
+		return typeArguments;
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private static Map<TypeVariable<Method>, Type> inferInternal(Method method, Type[] argumentTypes)
+	{
+		Type[] parameterTypes = method.getGenericParameterTypes();
+		
+		// try fixed arity before variable arity as per JLS 15.12.2.2-4
+		if (argumentTypes.length == parameterTypes.length)
+		{
+			Map<TypeVariable<Method>, Type> typeArguments =
+				new TypeArgumentInferrer(method).infer(parameterTypes, argumentTypes);
+			
+			if (typeArguments != null)
+			{
+				return typeArguments;
+			}
+		}
+		
+		if (method.isVarArgs() && argumentTypes.length >= parameterTypes.length - 1)
+		{
+			Type[] expandedParameterTypes = expandVarArgs(parameterTypes, argumentTypes.length);
+			Map<TypeVariable<Method>, Type> typeArguments =
+				new TypeArgumentInferrer(method).infer(expandedParameterTypes, argumentTypes);
+			
+			if (typeArguments != null)
+			{
+				return typeArguments;
+			}
+		}
+		
+		throw new IllegalArgumentException("Cannot infer type arguments for " + method + " from argument types: "
+			+ Arrays.toString(argumentTypes));
+	}
+	
+	private static Type[] expandVarArgs(Type[] parameterTypes, int argumentCount)
+	{
+		Type[] expandedParameterTypes = new Type[argumentCount];
+		int fixedCount = parameterTypes.length - 1;
+		
+		System.arraycopy(parameterTypes, 0, expandedParameterTypes, 0, fixedCount);
+		Arrays.fill(expandedParameterTypes, fixedCount, argumentCount,
+			TypeUtils.getComponentType(parameterTypes[fixedCount]));
+		
+		return expandedParameterTypes;
+	}
+	
+	private Map<TypeVariable<Method>, Type> infer(Type[] parameterTypes, Type[] argumentTypes)
+	{
+		for (int i = 0; i < parameterTypes.length; i++)
+		{
+			inferFromSubtype(parameterTypes[i], argumentTypes[i]);
+		}
+		
+		if (!consistent)
+		{
+			return null;
+		}
+		
+		Map<TypeVariable<Method>, Type> typeArguments = resolve();
+		
+		return isApplicable(typeArguments, parameterTypes, argumentTypes)
+			? Collections.unmodifiableMap(typeArguments) : null;
+	}
+	
+	/**
+	 * Collects constraints such that the specified type is assignable to the specified formal type.
+	 */
+	private void inferFromSubtype(Type formalType, Type type)
+	{
+		if (type == null || !mentionsTypeParameter(formalType))
+		{
+			return;
+		}
+		
+		type = box(type);
+		
+		if (typeParameters.contains(formalType))
+		{
+			addBound(lowerBoundsByParameter, (TypeVariable<?>) formalType, type);
+		}
+		else if (formalType instanceof GenericArrayType)
+		{
+			Type componentType = TypeUtils.getComponentType(type);
+			
+			if (componentType != null && !TypeUtils.isPrimitive(componentType))
+			{
+				inferFromSubtype(((GenericArrayType) formalType).getGenericComponentType(), componentType);
+			}
+		}
+		else if (formalType instanceof ParameterizedType)
+		{
+			if (type instanceof TypeVariable<?>)
+			{
+				for (Type bound : ((TypeVariable<?>) type).getBounds())
+				{
+					inferFromSubtype(formalType, bound);
+				}
+				
+				return;
+			}
+			
+			Type supertype = getSupertype(type, (ParameterizedType) formalType);
+			
+			if (supertype != null)
+			{
+				inferFromTypeArguments((ParameterizedType) formalType, supertype, false);
+			}
+		}
+	}
+	
+	/**
+	 * Collects constraints such that the specified formal type is assignable to the specified type.
+	 */
+	private void inferFromSupertype(Type formalType, Type type)
+	{
+		if (!mentionsTypeParameter(formalType))
+		{
+			return;
+		}
+		
+		if (typeParameters.contains(formalType))
+		{
+			addBound(upperBoundsByParameter, (TypeVariable<?>) formalType, type);
+		}
+		else if (formalType instanceof GenericArrayType)
+		{
+			Type componentType = TypeUtils.getComponentType(type);
+			
+			if (componentType != null)
+			{
+				inferFromSupertype(((GenericArrayType) formalType).getGenericComponentType(), componentType);
+			}
+		}
+		else if (formalType instanceof ParameterizedType && type instanceof ParameterizedType)
+		{
+			Type formalSupertype = getSupertype(formalType, (ParameterizedType) type);
+			
+			if (formalSupertype instanceof ParameterizedType)
+			{
+				inferFromTypeArguments((ParameterizedType) formalSupertype, (ParameterizedType) type, true);
+			}
+		}
+	}
+	
+	/**
+	 * Collects constraints such that the specified formal type is equal to the specified type.
+	 */
+	private void inferFromEqualType(Type formalType, Type type)
+	{
+		if (!mentionsTypeParameter(formalType))
+		{
+			return;
+		}
+		
+		if (typeParameters.contains(formalType))
+		{
+			Type exactType = exactTypesByParameter.put((TypeVariable<?>) formalType, type);
+			
+			if (exactType != null && !TypeUtils.equals(exactType, type))
+			{
+				consistent = false;
+			}
+		}
+		else if (formalType instanceof GenericArrayType)
+		{
+			Type componentType = TypeUtils.getComponentType(type);
+			
+			if (componentType != null)
+			{
+				inferFromEqualType(((GenericArrayType) formalType).getGenericComponentType(), componentType);
+			}
+		}
+		else if (formalType instanceof ParameterizedType && type instanceof ParameterizedType)
+		{
+			inferFromEqualTypes(((ParameterizedType) formalType).getActualTypeArguments(),
+				((ParameterizedType) type).getActualTypeArguments());
+		}
+		else if (formalType instanceof WildcardType && type instanceof WildcardType)
+		{
+			inferFromEqualTypes(((WildcardType) formalType).getUpperBounds(), ((WildcardType) type).getUpperBounds());
+			inferFromEqualTypes(((WildcardType) formalType).getLowerBounds(), ((WildcardType) type).getLowerBounds());
+		}
+	}
+	
+	private void inferFromEqualTypes(Type[] formalTypes, Type[] types)
+	{
+		if (formalTypes.length == types.length)
+		{
+			for (int i = 0; i < formalTypes.length; i++)
+			{
+				inferFromEqualType(formalTypes[i], types[i]);
+			}
+		}
+	}
+	
+	/**
+	 * Collects constraints between the type arguments of two parameterized types with the same raw type.
+	 * 
+	 * @param reverse
+	 *            {@code true} if the formal type must be a supertype of the type, otherwise {@code false} if it must be
+	 *            a subtype
+	 */
+	private void inferFromTypeArguments(ParameterizedType formalType, Type type, boolean reverse)
+	{
+		if (!(type instanceof ParameterizedType))
+		{
+			// raw types impose no constraints
+			return;
+		}
+		
+		Type[] formalTypeArguments = formalType.getActualTypeArguments();
+		Type[] typeArguments = ((ParameterizedType) type).getActualTypeArguments();
+		
+		for (int i = 0; i < formalTypeArguments.length && i < typeArguments.length; i++)
+		{
+			if (reverse)
+			{
+				inferFromContainingTypeArgument(formalTypeArguments[i], typeArguments[i]);
+			}
+			else
+			{
+				inferFromContainedTypeArgument(formalTypeArguments[i], typeArguments[i]);
+			}
+		}
+	}
+	
+	/**
+	 * Collects constraints such that the specified formal type argument contains the specified type argument.
+	 * 
+	 * @see <a href="http://java.sun.com/docs/books/jls/third_edition/html/typesValues.html#4.5.1.1">4.5.1.1 Type
+	 *      Argument Containment and Equivalence</a>
+	 */
+	private void inferFromContainedTypeArgument(Type formalTypeArgument, Type typeArgument)
+	{
+		if (!(formalTypeArgument instanceof WildcardType))
+		{
+			if (!(typeArgument instanceof WildcardType))
+			{
+				inferFromEqualType(formalTypeArgument, typeArgument);
+			}
+			
+			return;
+		}
+		
+		WildcardType formalWildcardType = (WildcardType) formalTypeArgument;
+		Type[] formalLowerBounds = formalWildcardType.getLowerBounds();
+		
+		if (formalLowerBounds.length > 0)
+		{
+			// ? super L contains T when L extends T, and ? super T when L extends T
+			Type type = getLowerBound(typeArgument);
+			
+			if (type != null)
+			{
+				inferFromSupertype(formalLowerBounds[0], type);
+			}
+		}
+		else
+		{
+			// ? extends U contains T when T extends U, and ? extends T when T extends U
+			Type type = getUpperBound(typeArgument);
+			
+			if (type != null)
+			{
+				inferFromSubtype(formalWildcardType.getUpperBounds()[0], type);
+			}
+		}
+	}
+	
+	/**
+	 * Collects constraints such that the specified type argument contains the specified formal type argument.
+	 */
+	private void inferFromContainingTypeArgument(Type formalTypeArgument, Type typeArgument)
+	{
+		if (!(typeArgument instanceof WildcardType))
+		{
+			if (!(formalTypeArgument instanceof WildcardType))
+			{
+				inferFromEqualType(formalTypeArgument, typeArgument);
+			}
+			
+			return;
+		}
+		
+		WildcardType wildcardType = (WildcardType) typeArgument;
+		Type[] lowerBounds = wildcardType.getLowerBounds();
+		
+		if (lowerBounds.length > 0)
+		{
+			Type formalType = getLowerBound(formalTypeArgument);
+			
+			if (formalType != null)
+			{
+				inferFromSubtype(formalType, lowerBounds[0]);
+			}
+		}
+		else
+		{
+			Type formalType = getUpperBound(formalTypeArgument);
+			
+			if (formalType != null)
+			{
+				inferFromSupertype(formalType, wildcardType.getUpperBounds()[0]);
+			}
+		}
+	}
+	
+	private Map<TypeVariable<Method>, Type> resolve()
+	{
+		Map<TypeVariable<Method>, Type> typeArguments = new LinkedHashMap<TypeVariable<Method>, Type>();
+		List<TypeVariable<Method>> unconstrainedParameters = new ArrayList<TypeVariable<Method>>();
+		
+		for (TypeVariable<Method> typeParameter : typeParameters)
+		{
+			Type typeArgument = exactTypesByParameter.get(typeParameter);
+			
+			if (typeArgument == null && lowerBoundsByParameter.containsKey(typeParameter))
+			{
+				typeArgument = getLeastUpperBound(lowerBoundsByParameter.get(typeParameter));
+			}
+			
+			if (typeArgument == null && upperBoundsByParameter.containsKey(typeParameter))
+			{
+				typeArgument = getMostSpecificType(upperBoundsByParameter.get(typeParameter));
+			}
+			
+			if (typeArgument == null)
+			{
+				unconstrainedParameters.add(typeParameter);
+			}
+			
+			typeArguments.put(typeParameter, typeArgument);
+		}
+		
+		// bind unconstrained type parameters to their declared bound once the others are known
+		for (TypeVariable<Method> typeParameter : unconstrainedParameters)
+		{
+			Type bound = TypeUtils.substitute(typeParameter.getBounds()[0], typeArguments);
+			
+			typeArguments.put(typeParameter, mentionsTypeParameter(bound) ? TypeUtils.getErasedType(bound) : bound);
+		}
+		
+		return typeArguments;
+	}
+	
+	private boolean isApplicable(Map<TypeVariable<Method>, Type> typeArguments, Type[] parameterTypes,
+		Type[] argumentTypes)
+	{
+		for (int i = 0; i < parameterTypes.length; i++)
+		{
+			Type parameterType = TypeUtils.substitute(parameterTypes[i], typeArguments);
+			Type argumentType = argumentTypes[i];
+			
+			if (argumentType != null && !isInvocationConvertible(parameterType, argumentType))
+			{
+				return false;
+			}
+			
+			if (argumentType == null && TypeUtils.isPrimitive(parameterType))
+			{
+				return false;
+			}
+		}
+		
+		for (Map.Entry<TypeVariable<Method>, Type> entry : typeArguments.entrySet())
+		{
+			for (Type bound : entry.getKey().getBounds())
+			{
+				if (!TypeUtils.isAssignable(TypeUtils.substitute(bound, typeArguments), entry.getValue()))
+				{
+					return false;
+				}
+			}
+		}
+		
+		return true;
+	}
+	
+	private boolean mentionsTypeParameter(Type type)
+	{
+		if (typeParameters.contains(type))
+		{
+			return true;
+		}
+		
+		if (type instanceof GenericArrayType)
+		{
+			return mentionsTypeParameter(((GenericArrayType) type).getGenericComponentType());
+		}
+		
+		if (type instanceof ParameterizedType)
+		{
+			return mentionsTypeParameter(((ParameterizedType) type).getOwnerType())
+				|| mentionsTypeParameters(((ParameterizedType) type).getActualTypeArguments());
+		}
+		
+		if (type instanceof WildcardType)
+		{
+			return mentionsTypeParameters(((WildcardType) type).getUpperBounds())
+				|| mentionsTypeParameters(((WildcardType) type).getLowerBounds());
+		}
+		
+		return false;
+	}
+	
+	private boolean mentionsTypeParameters(Type[] types)
+	{
+		for (Type type : types)
+		{
+			if (mentionsTypeParameter(type))
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private static void addBound(Map<TypeVariable<?>, List<Type>> boundsByParameter, TypeVariable<?> typeParameter,
+		Type bound)
+	{
+		List<Type> bounds = boundsByParameter.get(typeParameter);
+		
+		if (bounds == null)
+		{
+			bounds = new ArrayList<Type>();
+			boundsByParameter.put(typeParameter, bounds);
+		}
+		
+		if (!bounds.contains(bound))
+		{
+			bounds.add(bound);
+		}
+	}
+	
+	/**
+	 * Gets the type that bounds the specified type argument from above, or {@code null} if it is a {@code super}
+	 * wildcard.
+	 */
+	private static Type getUpperBound(Type typeArgument)
+	{
+		if (!(typeArgument instanceof WildcardType))
+		{
+			return typeArgument;
+		}
+		
+		WildcardType wildcardType = (WildcardType) typeArgument;
+		
+		return (wildcardType.getLowerBounds().length == 0) ? wildcardType.getUpperBounds()[0] : null;
+	}
+	
+	/**
+	 * Gets the type that bounds the specified type argument from below, or {@code null} if it is an {@code extends}
+	 * wildcard.
+	 */
+	private static Type getLowerBound(Type typeArgument)
+	{
+		if (!(typeArgument instanceof WildcardType))
+		{
+			return typeArgument;
+		}
+		
+		Type[] lowerBounds = ((WildcardType) typeArgument).getLowerBounds();
+		
+		return (lowerBounds.length > 0) ? lowerBounds[0] : null;
+	}
+	
+	private static Type getSupertype(Type type, ParameterizedType supertype)
+	{
+		if (!(type instanceof Class<?> || type instanceof ParameterizedType) || TypeUtils.isArray(type))
+		{
+			return null;
+		}
+		
+		// the supertypes of raw types are erased
+		if (TypeUtils.isRawType(type))
+		{
+			return null;
+		}
+		
+		return TypeUtils.getResolvedSupertype(type, supertype.getRawType());
+	}
+	
+	private static Type getLeastUpperBound(List<Type> types)
+	{
+		// type arguments cannot be intersection types so use the class or first interface
+		return TypeBoundCalculator.leastUpperBound(types.toArray(new Type[types.size()]))[0];
+	}
+	
+	private static Type getMostSpecificType(List<Type> types)
+	{
+		for (Type type : types)
+		{
+			if (isAssignableToAll(type, types))
+			{
+				return type;
+			}
+		}
+		
+		return null;
+	}
+	
+	private static boolean isAssignableToAll(Type type, List<Type> supertypes)
+	{
+		for (Type supertype : supertypes)
+		{
+			if (!TypeUtils.isAssignable(supertype, type))
+			{
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	private static boolean isInvocationConvertible(Type parameterType, Type argumentType)
+	{
+		if (TypeUtils.isPrimitive(parameterType))
+		{
+			// widening primitive conversion, or unboxing optionally followed by widening
+			return TypeUtils.isAssignable(parameterType, argumentType, true);
+		}
+		
+		// unchecked conversion from raw types
+		if (TypeUtils.isRawType(argumentType))
+		{
+			return TypeUtils.isAssignable(TypeUtils.getErasedType(parameterType), argumentType);
+		}
+		
+		// widening reference conversion, possibly after boxing
+		return TypeUtils.isAssignable(parameterType, argumentType, true);
+	}
+	
+	private static Type box(Type type)
+	{
+		return (type instanceof Class<?>) ? ClassUtils.getWrapperType((Class<?>) type) : type;
+	}
+}
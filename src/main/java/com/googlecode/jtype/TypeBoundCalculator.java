@@ -0,0 +1,726 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.io.Serializable;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Computes the least upper bound and greatest lower bound of reference types.
+ * <p>
+ * Bounds are represented by the types of an intersection type, with at most one class or array type first. Any number
+ * of types are reduced pairwise, where the least upper bound of two types is the intersection of their minimal erased
+ * common supertypes, each parameterized by the least containing invocation of its parameterizations. Pairwise results
+ * are cached by each calculator, except those that were approximated to terminate the computation of an infinite type.
+ * Calculators only live for a single computation, so that the types they cache can be garbage collected.
+ * 
+ * @author Mark Hobson
+ * @see TypeUtils#leastUpperBound(Type...)
+ * @see TypeUtils#greatestLowerBound(Type...)
+ * @see <a href="http://java.sun.com/docs/books/jls/third_edition/html/expressions.html#15.12.2.7">15.12.2.7
+ *      Inferring Type Arguments Based on Actual Arguments</a>
+ */
+final class TypeBoundCalculator
+{
+	// classes ----------------------------------------------------------------
+	
+	private static final class RangeTask implements Callable<Type[]>
+	{
+		private final Type[] types;
+		
+		private final int fromIndex;
+		
+		private final int toIndex;
+		
+		private final boolean upper;
+		
+		private final AtomicBoolean done;
+		
+		public RangeTask(Type[] types, int fromIndex, int toIndex, boolean upper, AtomicBoolean done)
+		{
+			this.types = types;
+			this.fromIndex = fromIndex;
+			this.toIndex = toIndex;
+			this.upper = upper;
+			this.done = done;
+		}
+		
+		public Type[] call()
+		{
+			return new TypeBoundCalculator().reduce(types, fromIndex, toIndex, upper, done);
+		}
+	}
+	
+	// constants --------------------------------------------------------------
+	
+	private static final Type[] OBJECT_BOUND = new Type[] {Object.class};
+	
+	private static final Type[] ARRAY_SUPERTYPES = new Type[] {Object.class, Cloneable.class, Serializable.class};
+	
+	/**
+	 * The minimum number of types that are reduced by each parallel task.
+	 */
+	private static final int MIN_RANGE_SIZE = 256;
+	
+	/**
+	 * The number of parallel tasks per processor, which balances the load when types vary in cost.
+	 */
+	private static final int TASKS_PER_PROCESSOR = 4;
+	
+	// fields -----------------------------------------------------------------
+	
+	/**
+	 * The pairs of types whose least upper bound is being computed, which recur for infinite types such as the least
+	 * upper bound of {@code Integer} and {@code Long}.
+	 */
+	private final Set<List<Object>> pendingKeys;
+	
+	private final Map<List<Object>, Type[]> leastUpperBoundsByTypes;
+	
+	/**
+	 * The greatest lower bounds of pairs of types, where an empty bound denotes that the types have no greatest lower
+	 * bound.
+	 */
+	private final Map<List<Object>, Type[]> greatestLowerBoundsByTypes;
+	
+	private int approximationCount;
+	
+	// constructors -----------------------------------------------------------
+	
+	private TypeBoundCalculator()
+	{
+		pendingKeys = new HashSet<List<Object>>();
+		leastUpperBoundsByTypes = new HashMap<List<Object>, Type[]>();
+		greatestLowerBoundsByTypes = new HashMap<List<Object>, Type[]>();
+		approximationCount = 0;
+	}
+	
+	// public methods ---------------------------------------------------------
+	
+	/**
+	 * Computes the least upper bound of the specified types.
+	 * 
+	 * @param types
+	 *            the reference types to compute the least upper bound of
+	 * @return the types of the intersection type that is the least upper bound
+	 */
+	public static Type[] leastUpperBound(Type[] types)
+	{
+		return clone(new TypeBoundCalculator().reduce(types, 0, types.length, true, new AtomicBoolean()));
+	}
+	
+	/**
+	 * Computes the least upper bound of the specified types, reducing ranges of types in parallel.
+	 * 
+	 * @param types
+	 *            the reference types to compute the least upper bound of
+	 * @param executor
+	 *            the executor to reduce ranges of types with
+	 * @return the types of the intersection type that is the least upper bound
+	 * @throws InterruptedException
+	 *             if the current thread was interrupted while waiting for the executor
+	 */
+	public static Type[] leastUpperBound(Type[] types, ExecutorService executor) throws InterruptedException
+	{
+		return clone(reduce(types, true, executor));
+	}
+	
+	/**
+	 * Computes the greatest lower bound of the specified types.
+	 * 
+	 * @param types
+	 *            the reference types to compute the greatest lower bound of
+	 * @return the types of the intersection type that is the greatest lower bound, or {@code null} if the types have
+	 *         no greatest lower bound
+	 */
+	public static Type[] greatestLowerBound(Type[] types)
+	{
+		return clone(new TypeBoundCalculator().reduce(types, 0, types.length, false, new AtomicBoolean()));
+	}
+	
+	/**
+	 * Computes the greatest lower bound of the specified types, reducing ranges of types in parallel.
+	 * 
+	 * @param types
+	 *            the reference types to compute the greatest lower bound of
+	 * @param executor
+	 *            the executor to reduce ranges of types with
+	 * @return the types of the intersection type that is the greatest lower bound, or {@code null} if the types have
+	 *         no greatest lower bound
+	 * @throws InterruptedException
+	 *             if the current thread was interrupted while waiting for the executor
+	 */
+	public static Type[] greatestLowerBound(Type[] types, ExecutorService executor) throws InterruptedException
+	{
+		return clone(reduce(types, false, executor));
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private static Type[] reduce(Type[] types, boolean upper, ExecutorService executor) throws InterruptedException
+	{
+		int maxRangeCount = Runtime.getRuntime().availableProcessors() * TASKS_PER_PROCESSOR;
+		int rangeCount = Math.min(types.length / MIN_RANGE_SIZE, maxRangeCount);
+		
+		if (rangeCount <= 1)
+		{
+			return new TypeBoundCalculator().reduce(types, 0, types.length, upper, new AtomicBoolean());
+		}
+		
+		int rangeSize = (types.length + rangeCount - 1) / rangeCount;
+		AtomicBoolean done = new AtomicBoolean();
+		List<Future<Type[]>> futures = new ArrayList<Future<Type[]>>(rangeCount - 1);
+		
+		try
+		{
+			for (int fromIndex = rangeSize; fromIndex < types.length; fromIndex += rangeSize)
+			{
+				int toIndex = Math.min(fromIndex + rangeSize, types.length);
+				
+				futures.add(executor.submit(new RangeTask(types, fromIndex, toIndex, upper, done)));
+			}
+			
+			// reduce the first range on this thread while waiting
+			TypeBoundCalculator calculator = new TypeBoundCalculator();
+			Type[] bound = calculator.reduce(types, 0, rangeSize, upper, done);
+			
+			for (Future<Type[]> future : futures)
+			{
+				if (isAbsorbing(bound, upper))
+				{
+					break;
+				}
+				
+				Type[] rangeBound = future.get();
+				
+				bound = isAbsorbing(rangeBound, upper) ? rangeBound : calculator.reduce(bound, rangeBound, upper);
+			}
+			
+			return bound;
+		}
+		catch (ExecutionException exception)
+		{
+			Throwable cause = exception.getCause();
+			
+			if (cause instanceof RuntimeException)
+			{
+				throw (RuntimeException) cause;
+			}
+			
+			throw (Error) cause;
+		}
+		finally
+		{
+			// stop any tasks that are still running once the bound is known or after an exception
+			done.set(true);
+			
+			for (Future<Type[]> future : futures)
+			{
+				future.cancel(false);
+			}
+		}
+	}
+	
+	private Type[] reduce(Type[] types, int fromIndex, int toIndex, boolean upper, AtomicBoolean done)
+	{
+		Type[] bound = new Type[] {types[fromIndex]};
+		
+		for (int i = fromIndex + 1; i < toIndex && !isAbsorbing(bound, upper); i++)
+		{
+			if (done.get())
+			{
+				// the overall bound is already known
+				break;
+			}
+			
+			bound = reduce(bound, new Type[] {types[i]}, upper);
+		}
+		
+		if (isAbsorbing(bound, upper))
+		{
+			done.set(true);
+		}
+		
+		return bound;
+	}
+	
+	private Type[] reduce(Type[] bound1, Type[] bound2, boolean upper)
+	{
+		return upper ? getLeastUpperBound(bound1, bound2) : getGreatestLowerBound(bound1, bound2);
+	}
+	
+	/**
+	 * Gets whether the specified bound is the bound of any types that include it, which is {@code Object} for least
+	 * upper bounds and no bound for greatest lower bounds.
+	 */
+	private static boolean isAbsorbing(Type[] bound, boolean upper)
+	{
+		return upper ? Arrays.equals(bound, OBJECT_BOUND) : (bound == null);
+	}
+	
+	private Type[] getLeastUpperBound(Type[] bound1, Type[] bound2)
+	{
+		List<Object> key = Arrays.<Object>asList(Arrays.asList(bound1), Arrays.asList(bound2));
+		
+		if (pendingKeys.contains(key))
+		{
+			// approximate infinite types by an unbounded wildcard type argument
+			approximationCount++;
+			
+			return OBJECT_BOUND;
+		}
+		
+		Type[] bound = leastUpperBoundsByTypes.get(key);
+		
+		if (bound != null)
+		{
+			return bound;
+		}
+		
+		int previousApproximationCount = approximationCount;
+		pendingKeys.add(key);
+		
+		try
+		{
+			bound = computeLeastUpperBound(bound1, bound2);
+		}
+		finally
+		{
+			pendingKeys.remove(key);
+		}
+		
+		// approximations depend on the pairs being computed so are not reusable
+		if (approximationCount == previousApproximationCount)
+		{
+			leastUpperBoundsByTypes.put(key, bound);
+		}
+		
+		return bound;
+	}
+	
+	private Type[] computeLeastUpperBound(Type[] bound1, Type[] bound2)
+	{
+		if (isSupertype(bound1, bound2))
+		{
+			return bound1;
+		}
+		
+		if (isSupertype(bound2, bound1))
+		{
+			return bound2;
+		}
+		
+		Map<Type, List<Type>> supertypesByErasure1 = getSupertypesByErasure(bound1);
+		Map<Type, List<Type>> supertypesByErasure2 = getSupertypesByErasure(bound2);
+		
+		// erased candidates in breadth-first order
+		List<Type> candidates = new ArrayList<Type>(supertypesByErasure1.keySet());
+		candidates.retainAll(supertypesByErasure2.keySet());
+		
+		List<Type> bound = new ArrayList<Type>();
+		
+		for (Type candidate : candidates)
+		{
+			if (isMinimal(candidate, candidates))
+			{
+				List<Type> invocations = new ArrayList<Type>(supertypesByErasure1.get(candidate));
+				invocations.addAll(supertypesByErasure2.get(candidate));
+				
+				bound.add(getLeastContainingInvocation(invocations));
+			}
+		}
+		
+		return toBound(bound);
+	}
+	
+	private Type getLeastContainingInvocation(List<Type> invocations)
+	{
+		Type invocation = invocations.get(0);
+		
+		for (int i = 1; i < invocations.size(); i++)
+		{
+			invocation = getLeastContainingInvocation(invocation, invocations.get(i));
+		}
+		
+		return invocation;
+	}
+	
+	private Type getLeastContainingInvocation(Type type1, Type type2)
+	{
+		if (TypeUtils.equals(type1, type2))
+		{
+			return type1;
+		}
+		
+		if (type1 instanceof ParameterizedType && type2 instanceof ParameterizedType)
+		{
+			ParameterizedType parameterizedType1 = (ParameterizedType) type1;
+			Type[] typeArgs1 = parameterizedType1.getActualTypeArguments();
+			Type[] typeArgs2 = ((ParameterizedType) type2).getActualTypeArguments();
+			Type[] typeArgs = new Type[typeArgs1.length];
+			
+			for (int i = 0; i < typeArgs.length; i++)
+			{
+				typeArgs[i] = getLeastContainingTypeArgument(typeArgs1[i], typeArgs2[i]);
+			}
+			
+			return parameterize(parameterizedType1, typeArgs);
+		}
+		
+		if (TypeUtils.isArray(type1) && TypeUtils.isArray(type2))
+		{
+			Type componentType1 = TypeUtils.getComponentType(type1);
+			Type componentType2 = TypeUtils.getComponentType(type2);
+			
+			return TypeUtils.getArrayType(getLeastContainingInvocation(componentType1, componentType2));
+		}
+		
+		// raw types are only contained by raw types
+		return TypeUtils.getErasedType(type1);
+	}
+	
+	private Type getLeastContainingTypeArgument(Type typeArg1, Type typeArg2)
+	{
+		if (TypeUtils.equals(typeArg1, typeArg2))
+		{
+			return typeArg1;
+		}
+		
+		Type upperBound1 = getUpperBound(typeArg1);
+		Type upperBound2 = getUpperBound(typeArg2);
+		Type lowerBound1 = getLowerBound(typeArg1);
+		Type lowerBound2 = getLowerBound(typeArg2);
+		
+		if (upperBound1 != null && upperBound2 != null)
+		{
+			// lcta(U, V) = lcta(U, ? extends V) = lcta(? extends U, ? extends V) = ? extends lub(U, V)
+			Type[] bound = getLeastUpperBound(new Type[] {upperBound1}, new Type[] {upperBound2});
+			
+			return isAbsorbing(bound, true) ? Types.unboundedWildcardType() : new DefaultWildcardType(bound, null);
+		}
+		
+		if (lowerBound1 != null && lowerBound2 != null)
+		{
+			// lcta(U, ? super V) = lcta(? super U, ? super V) = ? super glb(U, V)
+			Type[] bound = getGreatestLowerBound(new Type[] {lowerBound1}, new Type[] {lowerBound2});
+			
+			return (bound != null && bound.length == 1) ? Types.lowerBoundedWildcardType(bound[0])
+				: Types.unboundedWildcardType();
+		}
+		
+		// lcta(? extends U, ? super V) = ?, since U does not contain ? extends U as JLS 15.12.2.7 has when U = V
+		return Types.unboundedWildcardType();
+	}
+	
+	private Type[] getGreatestLowerBound(Type[] bound1, Type[] bound2)
+	{
+		List<Object> key = Arrays.<Object>asList(Arrays.asList(bound1), Arrays.asList(bound2));
+		Type[] bound = greatestLowerBoundsByTypes.get(key);
+		
+		if (bound == null)
+		{
+			bound = computeGreatestLowerBound(bound1, bound2);
+			
+			// cache the absence of a bound as an empty intersection
+			if (bound == null)
+			{
+				bound = new Type[0];
+			}
+			
+			greatestLowerBoundsByTypes.put(key, bound);
+		}
+		
+		return (bound.length > 0) ? bound : null;
+	}
+	
+	private static Type[] computeGreatestLowerBound(Type[] bound1, Type[] bound2)
+	{
+		if (isSupertype(bound1, bound2))
+		{
+			return bound2;
+		}
+		
+		if (isSupertype(bound2, bound1))
+		{
+			return bound1;
+		}
+		
+		List<Type> types = new ArrayList<Type>(Arrays.asList(bound1));
+		types.addAll(Arrays.asList(bound2));
+		
+		List<Type> bound = new ArrayList<Type>();
+		Set<Type> erasedTypes = new HashSet<Type>();
+		Type classType = null;
+		
+		for (int i = 0; i < types.size(); i++)
+		{
+			Type type = types.get(i);
+			
+			if (!isMinimal(type, types, i))
+			{
+				continue;
+			}
+			
+			// a type cannot have different parameterizations of the same type
+			if (!erasedTypes.add(TypeUtils.getErasedType(type)))
+			{
+				return null;
+			}
+			
+			if (isClassType(type))
+			{
+				// nor be a subtype of unrelated classes
+				if (classType != null)
+				{
+					return null;
+				}
+				
+				classType = type;
+				bound.add(0, type);
+			}
+			else
+			{
+				bound.add(type);
+			}
+		}
+		
+		return toBound(bound);
+	}
+	
+	/**
+	 * Gets the parameterizations of the supertypes of the specified intersection type, including its own types, keyed
+	 * by their erasure in breadth-first order.
+	 */
+	private static Map<Type, List<Type>> getSupertypesByErasure(Type[] bound)
+	{
+		Map<Type, List<Type>> supertypesByErasure = new LinkedHashMap<Type, List<Type>>();
+		Set<Type> visitedTypes = new HashSet<Type>();
+		LinkedList<Type> supertypes = new LinkedList<Type>(Arrays.asList(bound));
+		
+		while (!supertypes.isEmpty())
+		{
+			Type supertype = supertypes.removeFirst();
+			
+			if (!visitedTypes.add(supertype))
+			{
+				continue;
+			}
+			
+			// type variables are only supertypes of themselves
+			Type erasedSupertype = (supertype instanceof TypeVariable<?>) ? supertype
+				: TypeUtils.getErasedType(supertype);
+			List<Type> invocations = supertypesByErasure.get(erasedSupertype);
+			
+			if (invocations == null)
+			{
+				invocations = new ArrayList<Type>(1);
+				supertypesByErasure.put(erasedSupertype, invocations);
+			}
+			
+			invocations.add(supertype);
+			
+			supertypes.addAll(getDirectSupertypes(supertype));
+		}
+		
+		return supertypesByErasure;
+	}
+	
+	/**
+	 * Gets the direct supertypes of the specified type.
+	 * 
+	 * @see <a href="http://java.sun.com/docs/books/jls/third_edition/html/typesValues.html#4.10">4.10 Subtyping</a>
+	 */
+	private static List<Type> getDirectSupertypes(Type type)
+	{
+		if (type instanceof TypeVariable<?>)
+		{
+			return Arrays.asList(((TypeVariable<?>) type).getBounds());
+		}
+		
+		if (TypeUtils.isArray(type))
+		{
+			Type componentType = TypeUtils.getComponentType(type);
+			List<Type> componentSupertypes = TypeUtils.isPrimitive(componentType) ? null
+				: getDirectSupertypes(componentType);
+			
+			if (componentSupertypes == null || componentSupertypes.isEmpty())
+			{
+				return Arrays.asList(ARRAY_SUPERTYPES);
+			}
+			
+			List<Type> supertypes = new ArrayList<Type>(componentSupertypes.size());
+			
+			for (Type componentSupertype : componentSupertypes)
+			{
+				supertypes.add(TypeUtils.getArrayType(componentSupertype));
+			}
+			
+			return supertypes;
+		}
+		
+		if (type == Object.class)
+		{
+			return new ArrayList<Type>();
+		}
+		
+		List<Type> supertypes = new ArrayList<Type>();
+		Type superclass = TypeUtils.getResolvedSuperclass(type);
+		
+		// interfaces are direct subtypes of Object
+		supertypes.add((superclass != null) ? superclass : Object.class);
+		supertypes.addAll(Arrays.asList(TypeUtils.getResolvedInterfaces(type)));
+		
+		// the supertypes of raw types are erased
+		if (TypeUtils.isRawType(type))
+		{
+			for (int i = 0; i < supertypes.size(); i++)
+			{
+				supertypes.set(i, TypeUtils.getErasedType(supertypes.get(i)));
+			}
+		}
+		
+		return supertypes;
+	}
+	
+	/**
+	 * Gets whether each type of the specified intersection type is a supertype of some type of the other.
+	 */
+	private static boolean isSupertype(Type[] superbound, Type[] bound)
+	{
+		for (Type supertype : superbound)
+		{
+			if (!isAssignableFromAny(supertype, bound))
+			{
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	private static boolean isAssignableFromAny(Type supertype, Type[] types)
+	{
+		for (Type type : types)
+		{
+			if (TypeUtils.isAssignable(supertype, type))
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private static boolean isMinimal(Type type, List<Type> types)
+	{
+		return isMinimal(type, types, types.indexOf(type));
+	}
+	
+	/**
+	 * Gets whether the specified type at the specified index is not a supertype of any other of the types, keeping
+	 * the first of any equal types.
+	 */
+	private static boolean isMinimal(Type type, List<Type> types, int index)
+	{
+		for (int i = 0; i < types.size(); i++)
+		{
+			Type otherType = types.get(i);
+			
+			if (i != index && TypeUtils.isAssignable(type, otherType)
+				&& (i > index || !TypeUtils.equals(type, otherType)))
+			{
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	private static boolean isClassType(Type type)
+	{
+		if (type instanceof TypeVariable<?>)
+		{
+			return false;
+		}
+		
+		Type erasedType = TypeUtils.getErasedType(type);
+		
+		return !(erasedType instanceof Class<?>) || ((Class<?>) erasedType).isArray()
+			|| !((Class<?>) erasedType).isInterface();
+	}
+	
+	private static Type getUpperBound(Type typeArg)
+	{
+		if (!(typeArg instanceof WildcardType))
+		{
+			return typeArg;
+		}
+		
+		WildcardType wildcardType = (WildcardType) typeArg;
+		
+		return (wildcardType.getLowerBounds().length == 0) ? wildcardType.getUpperBounds()[0] : null;
+	}
+	
+	private static Type getLowerBound(Type typeArg)
+	{
+		if (!(typeArg instanceof WildcardType))
+		{
+			return typeArg;
+		}
+		
+		Type[] lowerBounds = ((WildcardType) typeArg).getLowerBounds();
+		
+		return (lowerBounds.length > 0) ? lowerBounds[0] : null;
+	}
+	
+	private static Type parameterize(ParameterizedType parameterizedType, Type[] typeArgs)
+	{
+		Type ownerType = parameterizedType.getOwnerType();
+		Type rawType = parameterizedType.getRawType();
+		
+		if (rawType instanceof ClassFileClass)
+		{
+			return new ClassFileParameterizedType(ownerType, (ClassFileClass) rawType, typeArgs);
+		}
+		
+		return new DefaultParameterizedType(ownerType, (Class<?>) rawType, typeArgs);
+	}
+	
+	private static Type[] toBound(List<Type> types)
+	{
+		return types.isEmpty() ? OBJECT_BOUND : types.toArray(new Type[types.size()]);
+	}
+	
+	private static Type[] clone(Type[] bound)
+	{
+		return (bound != null) ? bound.clone() : null;
+	}
+}
@@ -0,0 +1,290 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Comparator;
+
+/**
+ * Orders types deterministically by their structure.
+ * <p>
+ * Types are ordered first by kind, where classes precede parameterized types, generic array types, wildcard types and
+ * type variables in that order, and then by their components: classes by name, parameterized types by raw type, owner
+ * type and actual type arguments, generic array types by component type, wildcard types by upper and then lower
+ * bounds, and type variables by name and then generic declaration. Arrays of components are ordered
+ * lexicographically. No strings are built, and the components of this library's types are not copied.
+ * <p>
+ * The order is consistent with {@link TypeUtils#equals(Type, Type)}, except that distinct classes with the same name
+ * from different class loaders, and captured type variables of the same wildcard type, compare as equal.
+ * 
+ * @author Mark Hobson
+ * @see TypeUtils#equals(Type, Type)
+ */
+public final class TypeComparator implements Comparator<Type>, Serializable
+{
+	// constants --------------------------------------------------------------
+	
+	/**
+	 * The type comparator instance.
+	 */
+	public static final TypeComparator INSTANCE = new TypeComparator();
+	
+	private static final long serialVersionUID = 1L;
+	
+	private static final int CLASS = 0;
+	
+	private static final int PARAMETERIZED_TYPE = 1;
+	
+	private static final int GENERIC_ARRAY_TYPE = 2;
+	
+	private static final int WILDCARD_TYPE = 3;
+	
+	private static final int TYPE_VARIABLE = 4;
+	
+	// constructors -----------------------------------------------------------
+	
+	private TypeComparator()
+	{
+		// singleton
+	}
+	
+	// Comparator methods -----------------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	public int compare(Type type1, Type type2)
+	{
+		if (type1 == type2)
+		{
+			return 0;
+		}
+		
+		// order null first for owner types
+		if (type1 == null || type2 == null)
+		{
+			return (type1 == null) ? -1 : 1;
+		}
+		
+		int kind1 = getKind(type1);
+		int kind2 = getKind(type2);
+		
+		if (kind1 != kind2)
+		{
+			return (kind1 < kind2) ? -1 : 1;
+		}
+		
+		switch (kind1)
+		{
+			case CLASS:
+				return getClassName(type1).compareTo(getClassName(type2));
+			
+			case PARAMETERIZED_TYPE:
+				return compareParameterizedTypes((ParameterizedType) type1, (ParameterizedType) type2);
+			
+			case GENERIC_ARRAY_TYPE:
+				return compare(((GenericArrayType) type1).getGenericComponentType(),
+					((GenericArrayType) type2).getGenericComponentType());
+			
+			case WILDCARD_TYPE:
+				return compareWildcardTypes((WildcardType) type1, (WildcardType) type2);
+			
+			default:
+				return compareTypeVariables((TypeVariable<?>) type1, (TypeVariable<?>) type2);
+		}
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private Object readResolve()
+	{
+		return INSTANCE;
+	}
+	
+	private static int getKind(Type type)
+	{
+		if (type instanceof Class<?> || type instanceof ClassFileClass)
+		{
+			return CLASS;
+		}
+		
+		if (type instanceof ParameterizedType)
+		{
+			return PARAMETERIZED_TYPE;
+		}
+		
+		if (type instanceof GenericArrayType)
+		{
+			return GENERIC_ARRAY_TYPE;
+		}
+		
+		if (type instanceof WildcardType)
+		{
+			return WILDCARD_TYPE;
+		}
+		
+		if (type instanceof TypeVariable<?>)
+		{
+			return TYPE_VARIABLE;
+		}
+		
+		throw new IllegalArgumentException("Unknown type: " + type);
+	}
+	
+	private static String getClassName(Type classType)
+	{
+		if (classType instanceof ClassFileClass)
+		{
+			return ((ClassFileClass) classType).getName();
+		}
+		
+		return ((Class<?>) classType).getName();
+	}
+	
+	private int compareParameterizedTypes(ParameterizedType type1, ParameterizedType type2)
+	{
+		int result = compare(type1.getRawType(), type2.getRawType());
+		
+		if (result == 0)
+		{
+			result = compare(type1.getOwnerType(), type2.getOwnerType());
+		}
+		
+		if (result == 0)
+		{
+			result = compare(TypeUtils.getActualTypeArgumentsInternal(type1),
+				TypeUtils.getActualTypeArgumentsInternal(type2));
+		}
+		
+		return result;
+	}
+	
+	private int compareWildcardTypes(WildcardType type1, WildcardType type2)
+	{
+		int result = compare(TypeUtils.getUpperBoundsInternal(type1), TypeUtils.getUpperBoundsInternal(type2));
+		
+		if (result == 0)
+		{
+			result = compare(TypeUtils.getLowerBoundsInternal(type1), TypeUtils.getLowerBoundsInternal(type2));
+		}
+		
+		return result;
+	}
+	
+	private int compareTypeVariables(TypeVariable<?> type1, TypeVariable<?> type2)
+	{
+		// bounds are not compared since they are fixed by the declaration and may be recursive
+		int result = type1.getName().compareTo(type2.getName());
+		
+		if (result == 0)
+		{
+			result = compareDeclarations(type1.getGenericDeclaration(), type2.getGenericDeclaration());
+		}
+		
+		return result;
+	}
+	
+	private int compareDeclarations(GenericDeclaration declaration1, GenericDeclaration declaration2)
+	{
+		if (declaration1 instanceof Type && declaration2 instanceof Type)
+		{
+			return compare((Type) declaration1, (Type) declaration2);
+		}
+		
+		if (declaration1 instanceof Method && declaration2 instanceof Method)
+		{
+			Method method1 = (Method) declaration1;
+			Method method2 = (Method) declaration2;
+			
+			int result = compare(method1.getDeclaringClass(), method2.getDeclaringClass());
+			
+			if (result == 0)
+			{
+				result = method1.getName().compareTo(method2.getName());
+			}
+			
+			if (result == 0)
+			{
+				result = compare(method1.getParameterTypes(), method2.getParameterTypes());
+			}
+			
+			return result;
+		}
+		
+		if (declaration1 instanceof Constructor<?> && declaration2 instanceof Constructor<?>)
+		{
+			Constructor<?> constructor1 = (Constructor<?>) declaration1;
+			Constructor<?> constructor2 = (Constructor<?>) declaration2;
+			
+			int result = compare(constructor1.getDeclaringClass(), constructor2.getDeclaringClass());
+			
+			if (result == 0)
+			{
+				result = compare(constructor1.getParameterTypes(), constructor2.getParameterTypes());
+			}
+			
+			return result;
+		}
+		
+		int kind1 = getDeclarationKind(declaration1);
+		int kind2 = getDeclarationKind(declaration2);
+		
+		if (kind1 != kind2)
+		{
+			return (kind1 < kind2) ? -1 : 1;
+		}
+		
+		return String.valueOf(declaration1).compareTo(String.valueOf(declaration2));
+	}
+	
+	private static int getDeclarationKind(GenericDeclaration declaration)
+	{
+		if (declaration instanceof Type)
+		{
+			return 0;
+		}
+		
+		if (declaration instanceof Method)
+		{
+			return 1;
+		}
+		
+		return (declaration instanceof Constructor<?>) ? 2 : 3;
+	}
+	
+	private int compare(Type[] types1, Type[] types2)
+	{
+		int length = Math.min(types1.length, types2.length);
+		
+		for (int i = 0; i < length; i++)
+		{
+			int result = compare(types1[i], types2[i]);
+			
+			if (result != 0)
+			{
+				return result;
+			}
+		}
+		
+		return (types1.length == types2.length) ? 0 : ((types1.length < types2.length) ? -1 : 1);
+	}
+}
@@ -0,0 +1,316 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Matches a pattern type against a concrete type to bind the type variables of the pattern.
+ * <p>
+ * Bindings are collected in arrays that are reused by each thread, so that a binding map is only allocated when
+ * unification succeeds.
+ * 
+ * @author Mark Hobson
+ * @see TypeUtils#unify(Type, Type)
+ */
+final class TypeUnifier
+{
+	// constants --------------------------------------------------------------
+	
+	private static final int INITIAL_CAPACITY = 4;
+	
+	private static final ThreadLocal<TypeUnifier> UNIFIERS = new ThreadLocal<TypeUnifier>()
+	{
+		@Override
+		protected TypeUnifier initialValue()
+		{
+			return new TypeUnifier();
+		}
+	};
+	
+	// fields -----------------------------------------------------------------
+	
+	private TypeVariable<?>[] variables;
+	
+	private Type[] types;
+	
+	private int size;
+	
+	// constructors -----------------------------------------------------------
+	
+	private TypeUnifier()
+	{
+		variables = new TypeVariable<?>[INITIAL_CAPACITY];
+		types = new Type[INITIAL_CAPACITY];
+	}
+	
+	// public methods ---------------------------------------------------------
+	
+	/**
+	 * Unifies the specified pattern type with the specified concrete type.
+	 * 
+	 * @param pattern
+	 *            the type whose type variables are to be bound
+	 * @param concrete
+	 *            the type to match the pattern against
+	 * @return the concrete types bound to each type variable of the pattern in the order they were bound, or
+	 *         {@code null} if the types cannot be unified
+	 */
+	public static Map<TypeVariable<?>, Type> unify(Type pattern, Type concrete)
+	{
+		TypeUnifier unifier = UNIFIERS.get();
+		
+		try
+		{
+			return unifier.unify(pattern, concrete, true) ? unifier.getBindings() : null;
+		}
+		finally
+		{
+			unifier.clear();
+		}
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	/**
+	 * Unifies the specified pattern type with the specified concrete type.
+	 * 
+	 * @param lift
+	 *            {@code true} if the concrete type may be a subtype of the pattern, otherwise {@code false} if it must
+	 *            have the same structure
+	 * @return whether the types were unified
+	 */
+	private boolean unify(Type pattern, Type concrete, boolean lift)
+	{
+		if (pattern instanceof TypeVariable<?>)
+		{
+			return !TypeUtils.isPrimitive(concrete) && !(concrete instanceof WildcardType)
+				&& bind((TypeVariable<?>) pattern, concrete);
+		}
+		
+		if (pattern instanceof Class<?>)
+		{
+			return lift ? TypeUtils.isAssignable(pattern, concrete) : TypeUtils.equals(pattern, concrete);
+		}
+		
+		if (pattern instanceof ParameterizedType)
+		{
+			return unifyParameterizedType((ParameterizedType) pattern, concrete, lift);
+		}
+		
+		if (pattern instanceof GenericArrayType)
+		{
+			Type componentType = TypeUtils.getComponentType(concrete);
+			
+			return componentType != null
+				&& unify(((GenericArrayType) pattern).getGenericComponentType(), componentType, lift);
+		}
+		
+		if (pattern instanceof WildcardType)
+		{
+			return unifyWildcardType((WildcardType) pattern, concrete);
+		}
+		
+		return TypeUtils.equals(pattern, concrete);
+	}
+	
+	private boolean unifyParameterizedType(ParameterizedType pattern, Type concrete, boolean lift)
+	{
+		Type rawType = pattern.getRawType();
+		
+		if (lift)
+		{
+			if (!(concrete instanceof Class<?> || concrete instanceof ParameterizedType) || TypeUtils.isArray(concrete))
+			{
+				return false;
+			}
+			
+			boolean classType = (concrete instanceof Class<?>);
+			
+			concrete = TypeUtils.getResolvedSupertype(concrete, rawType);
+			
+			// raw types leave type variables of their own that must not be bound to the pattern
+			if (classType && hasTypeVariable(concrete))
+			{
+				return false;
+			}
+		}
+		
+		if (!(concrete instanceof ParameterizedType) || !rawType.equals(((ParameterizedType) concrete).getRawType()))
+		{
+			return false;
+		}
+		
+		Type[] patternArguments = pattern.getActualTypeArguments();
+		Type[] concreteArguments = ((ParameterizedType) concrete).getActualTypeArguments();
+		
+		if (patternArguments.length != concreteArguments.length)
+		{
+			return false;
+		}
+		
+		for (int i = 0; i < patternArguments.length; i++)
+		{
+			Type patternArgument = patternArguments[i];
+			
+			// class type arguments are invariant
+			boolean liftArgument = lift && !(patternArgument instanceof Class<?>);
+			
+			if (!unify(patternArgument, concreteArguments[i], liftArgument))
+			{
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	private boolean unifyWildcardType(WildcardType pattern, Type concrete)
+	{
+		Type[] lowerBounds = pattern.getLowerBounds();
+		
+		if (lowerBounds.length > 0)
+		{
+			// ? super T is matched by T or ? super T
+			if (concrete instanceof WildcardType)
+			{
+				Type[] concreteLowerBounds = ((WildcardType) concrete).getLowerBounds();
+				
+				return concreteLowerBounds.length > 0 && unify(lowerBounds[0], concreteLowerBounds[0], false);
+			}
+			
+			return unify(lowerBounds[0], concrete, false);
+		}
+		
+		// ? extends T is matched by subtypes of T or ? extends subtypes of T
+		Type upperBound = pattern.getUpperBounds()[0];
+		
+		if (concrete instanceof WildcardType)
+		{
+			WildcardType concreteWildcard = (WildcardType) concrete;
+			
+			return concreteWildcard.getLowerBounds().length == 0
+				&& unify(upperBound, concreteWildcard.getUpperBounds()[0], true);
+		}
+		
+		return unify(upperBound, concrete, true);
+	}
+	
+	private static boolean hasTypeVariable(Type type)
+	{
+		if (type instanceof TypeVariable<?>)
+		{
+			return true;
+		}
+		
+		if (type instanceof ParameterizedType)
+		{
+			return hasTypeVariable(((ParameterizedType) type).getActualTypeArguments());
+		}
+		
+		if (type instanceof GenericArrayType)
+		{
+			return hasTypeVariable(((GenericArrayType) type).getGenericComponentType());
+		}
+		
+		if (type instanceof WildcardType)
+		{
+			WildcardType wildcardType = (WildcardType) type;
+			
+			return hasTypeVariable(wildcardType.getUpperBounds()) || hasTypeVariable(wildcardType.getLowerBounds());
+		}
+		
+		return false;
+	}
+	
+	private static boolean hasTypeVariable(Type[] types)
+	{
+		for (Type type : types)
+		{
+			if (hasTypeVariable(type))
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private boolean bind(TypeVariable<?> variable, Type type)
+	{
+		for (int i = 0; i < size; i++)
+		{
+			if (variables[i].equals(variable))
+			{
+				return TypeUtils.equals(types[i], type);
+			}
+		}
+		
+		if (size == variables.length)
+		{
+			grow();
+		}
+		
+		variables[size] = variable;
+		types[size] = type;
+		size++;
+		
+		return true;
+	}
+	
+	private void grow()
+	{
+		TypeVariable<?>[] newVariables = new TypeVariable<?>[size * 2];
+		Type[] newTypes = new Type[size * 2];
+		
+		System.arraycopy(variables, 0, newVariables, 0, size);
+		System.arraycopy(types, 0, newTypes, 0, size);
+		
+		variables = newVariables;
+		types = newTypes;
+	}
+	
+	private Map<TypeVariable<?>, Type> getBindings()
+	{
+		if (size == 0)
+		{
+			return Collections.emptyMap();
+		}
+		
+		Map<TypeVariable<?>, Type> bindings = new LinkedHashMap<TypeVariable<?>, Type>();
+		
+		for (int i = 0; i < size; i++)
+		{
+			bindings.put(variables[i], types[i]);
+		}
+		
+		return Collections.unmodifiableMap(bindings);
+	}
+	
+	private void clear()
+	{
+		// avoid retaining types after unification
+		Arrays.fill(variables, 0, size, null);
+		Arrays.fill(types, 0, size, null);
+		size = 0;
+	}
+}
@@ -14,20 +14,26 @@
 package com.googlecode.jtype;
 
 import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.GenericDeclaration;
 import java.lang.reflect.MalformedParameterizedTypeException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
+import static com.googlecode.jtype.Utils.checkFalse;
 import static com.googlecode.jtype.Utils.checkNotNull;
 import static com.googlecode.jtype.Utils.checkTrue;
 
@@ -40,24 +46,43 @@ public final class TypeUtils
 {
 	// constants --------------------------------------------------------------
 	
-	private static final Map<Class<?>, Set<Class<?>>> SUBTYPES_BY_PRIMITIVE;
+	private static final String OBJECT_CLASS_NAME = Object.class.getName();
 	
-	static
-	{
-		Map<Class<?>, Set<Class<?>>> subtypesByPrimitive = new HashMap<Class<?>, Set<Class<?>>>();
-		
-		putPrimitiveSubtypes(subtypesByPrimitive, Void.TYPE);
-		putPrimitiveSubtypes(subtypesByPrimitive, Boolean.TYPE);
-		putPrimitiveSubtypes(subtypesByPrimitive, Byte.TYPE);
-		putPrimitiveSubtypes(subtypesByPrimitive, Character.TYPE);
-		putPrimitiveSubtypes(subtypesByPrimitive, Short.TYPE, Byte.TYPE);
-		putPrimitiveSubtypes(subtypesByPrimitive, Integer.TYPE, Character.TYPE, Short.TYPE);
-		putPrimitiveSubtypes(subtypesByPrimitive, Long.TYPE, Integer.TYPE);
-		putPrimitiveSubtypes(subtypesByPrimitive, Float.TYPE, Long.TYPE);
-		putPrimitiveSubtypes(subtypesByPrimitive, Double.TYPE, Float.TYPE);
-
-		SUBTYPES_BY_PRIMITIVE = Collections.unmodifiableMap(subtypesByPrimitive);
-	}
+	private static final long FINGERPRINT_BASIS = 0xcbf29ce484222325L;
+	
+	private static final long FINGERPRINT_PRIME = 0x100000001b3L;
+	
+	private static final int BOOLEAN = 1 << 0;
+	
+	private static final int BYTE = 1 << 1;
+	
+	private static final int CHAR = 1 << 2;
+	
+	private static final int SHORT = 1 << 3;
+	
+	private static final int INT = 1 << 4;
+	
+	private static final int LONG = 1 << 5;
+	
+	private static final int FLOAT = 1 << 6;
+	
+	private static final int DOUBLE = 1 << 7;
+	
+	private static final int VOID = 1 << 8;
+	
+	/**
+	 * The resolved types of members keyed by member and subtype, where the types of a method are its return type
+	 * followed by its parameter types.
+	 */
+	private static final SoftCache<List<Object>, Type[]> RESOLVED_MEMBER_TYPES_BY_MEMBER_AND_TYPE =
+		new SoftCache<List<Object>, Type[]>();
+	
+	/**
+	 * The resolved type arguments of supertypes keyed by subclass and raw supertype, where an empty array denotes type
+	 * arguments that cannot be resolved.
+	 */
+	private static final SoftCache<List<Object>, Type[]> RESOLVED_TYPE_ARGUMENTS_BY_CLASS_AND_SUPERTYPE =
+		new SoftCache<List<Object>, Type[]>();
 	
 	// constructors -----------------------------------------------------------
 	
@@ -144,6 +169,11 @@ public final class TypeUtils
 				
 			visitor.endVisit(wildcardType);
 		}
+		else if (type instanceof ClassFileClass && visitor instanceof AbstractTypeVisitor)
+		{
+			// class file types are not classes so are only known to the internal visitors
+			((AbstractTypeVisitor) visitor).visit((ClassFileClass) type);
+		}
 		else
 		{
 			throw new IllegalArgumentException("Unknown type: " + type);
@@ -155,16 +185,16 @@ public final class TypeUtils
 		checkNotNull(supertype, "supertype");
 		checkNotNull(type, "type");
 		
-		if (supertype.equals(type))
+		if (equals(supertype, type))
 		{
 			return true;
 		}
 		
-		if (supertype instanceof Class<?>)
+		if (isClassType(supertype))
 		{
-			if (type instanceof Class<?>)
+			if (isClassType(type))
 			{
-				return isClassAssignable((Class<?>) supertype, (Class<?>) type);
+				return isClassTypeAssignable(supertype, type);
 			}
 			
 			if (type instanceof ParameterizedType)
@@ -179,17 +209,17 @@ public final class TypeUtils
 			
 			if (type instanceof GenericArrayType)
 			{
-				if (((Class<?>) supertype).isArray())
+				if (isArray(supertype))
 				{
 					return isAssignable(getComponentType(supertype), getComponentType(type));
 				}
 				
-				return isArraySupertype((Class<?>) supertype);
+				return isArraySupertype(supertype);
 			}
 			
 			if (type instanceof WildcardType)
 			{
-				return isClassAssignableToWildcardType((Class<?>) supertype, (WildcardType) type);
+				return isClassAssignableToWildcardType(supertype, (WildcardType) type);
 			}
 			
 			return false;
@@ -197,8 +227,16 @@ public final class TypeUtils
 		
 		if (supertype instanceof ParameterizedType)
 		{
-			if (type instanceof Class<?>)
+			if (isClassType(type))
 			{
+				Type rawSupertype = ((ParameterizedType) supertype).getRawType();
+				
+				// rule out unrelated raw types before resolving the generic supertypes of the type
+				if (isClassType(rawSupertype) && !isClassTypeAssignable(rawSupertype, type))
+				{
+					return false;
+				}
+				
 				return isSuperAssignable(supertype, type);
 			}
 			
@@ -210,6 +248,12 @@ public final class TypeUtils
 			return false;
 		}
 		
+		if (supertype instanceof CapturedTypeVariable && isCapturedTypeVariableAssignable(
+			(CapturedTypeVariable) supertype, type))
+		{
+			return true;
+		}
+		
 		if (type instanceof TypeVariable<?>)
 		{
 			return isTypeVariableAssignable(supertype, (TypeVariable<?>) type);
@@ -233,11 +277,130 @@ public final class TypeUtils
 		return false;
 	}
 	
+	/**
+	 * Gets whether the specified type is assignable to the specified supertype, optionally allowing the boxing and
+	 * unboxing conversions of method invocation conversion.
+	 * <p>
+	 * When {@code boxing} is {@code true}, a primitive type is also assignable to any supertype of its wrapper class,
+	 * and a wrapper class is also assignable to any primitive type that its primitive type widens to; for example,
+	 * {@code int} is assignable to {@code Number} and {@code Integer} is assignable to {@code long}. Unchecked
+	 * conversion is not performed in either mode.
+	 * 
+	 * @param supertype
+	 *            the type to assign to
+	 * @param type
+	 *            the type to assign
+	 * @param boxing
+	 *            whether to allow boxing and unboxing conversions
+	 * @return {@code true} if {@code type} is assignable to {@code supertype}
+	 * @see #isAssignable(Type, Type)
+	 */
+	public static boolean isAssignable(Type supertype, Type type, boolean boxing)
+	{
+		if (isAssignable(supertype, type))
+		{
+			return true;
+		}
+		
+		if (!boxing)
+		{
+			return false;
+		}
+		
+		// unboxing conversion, optionally followed by widening primitive conversion
+		if (isPrimitive(supertype))
+		{
+			return (type instanceof Class<?>) && (getPrimitiveSubtypes(getPrimitiveBit((Class<?>) supertype))
+				& getUnboxedPrimitiveBit((Class<?>) type)) != 0;
+		}
+		
+		// boxing conversion, optionally followed by widening reference conversion
+		if (isPrimitive(type) && type != Void.TYPE)
+		{
+			return isAssignable(supertype, ClassUtils.getWrapperType((Class<?>) type));
+		}
+		
+		return false;
+	}
+	
 	public static boolean isInstance(Type type, Object object)
 	{
 		return getErasedReferenceType(type).isInstance(object);
 	}
 	
+	/**
+	 * Gets whether the specified object is an instance of the specified type, including the elements of any
+	 * collections, maps and arrays that it contains.
+	 * <p>
+	 * Unlike {@link #isInstance(Type, Object)}, the type arguments of {@code Collection} and {@code Map} types and the
+	 * component types of array types are checked against every element, key and value, recursively. Null elements are
+	 * instances of any type.
+	 * 
+	 * @param type
+	 *            the type to check against
+	 * @param object
+	 *            the object to check
+	 * @return {@code true} if the object is a non-null instance of the type
+	 */
+	public static boolean isDeepInstance(Type type, Object object)
+	{
+		return isDeepInstance(type, object, Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * Gets whether the specified object is an instance of the specified type, checking at most the specified number of
+	 * elements within each collection, map and array that it contains.
+	 * <p>
+	 * Elements are sampled evenly across arrays and random access lists, and from the start of the iteration order of
+	 * other collections and maps. Checking stops at the first element that is not an instance.
+	 * 
+	 * @param type
+	 *            the type to check against
+	 * @param object
+	 *            the object to check
+	 * @param sampleSize
+	 *            the maximum number of elements to check within each collection, map and array
+	 * @return {@code true} if the object is a non-null instance of the type and its sampled elements are instances of
+	 *         their respective types
+	 * @see #isDeepInstance(Type, Object)
+	 */
+	public static boolean isDeepInstance(Type type, Object object, int sampleSize)
+	{
+		checkNotNull(type, "type");
+		checkTrue(sampleSize > 0, "sampleSize must be positive: ", sampleSize);
+		
+		return (object != null) && InstanceChecker.get(type).isInstance(object, sampleSize);
+	}
+	
+	/**
+	 * Gets whether the specified object is an instance of the specified type, checking the elements of a large list,
+	 * array or map in parallel using the specified executor.
+	 * <p>
+	 * The elements of the object are split into ranges that are checked by tasks submitted to the executor, with the
+	 * first range checked by the current thread. All tasks stop as soon as any one of them finds an element that is not
+	 * an instance. Nested collections, maps and arrays are checked sequentially, and the result is always the same as
+	 * {@link #isDeepInstance(Type, Object)}.
+	 * 
+	 * @param type
+	 *            the type to check against
+	 * @param object
+	 *            the object to check
+	 * @param executor
+	 *            the executor to check ranges of elements with, which should not be running the current thread if its
+	 *            number of threads is bounded
+	 * @return {@code true} if the object is a non-null instance of the type
+	 * @throws InterruptedException
+	 *             if the current thread was interrupted while waiting for the executor
+	 */
+	public static boolean isDeepInstance(Type type, Object object, ExecutorService executor)
+		throws InterruptedException
+	{
+		checkNotNull(type, "type");
+		checkNotNull(executor, "executor");
+		
+		return (object != null) && InstanceChecker.get(type).isInstance(object, executor);
+	}
+	
 	/**
 	 * Gets the erased type of the specified type.
 	 * 
@@ -248,6 +411,12 @@ public final class TypeUtils
 	 */
 	public static Type getErasedType(Type type)
 	{
+		// classes, including class arrays, are already erased
+		if (type instanceof Class<?>)
+		{
+			return type;
+		}
+		
 		// the erasure of a parameterized type G<T1, ... ,Tn> is |G|
 		if (type instanceof ParameterizedType)
 		{
@@ -261,10 +430,18 @@ public final class TypeUtils
 		// the erasure of an array type T[] is |T|[]
 		if (isArray(type))
 		{
-			Type componentType = getComponentType(type);
+			Type componentType = type;
+			int dimensions = 0;
+			
+			while (isArray(componentType))
+			{
+				componentType = getComponentType(componentType);
+				dimensions++;
+			}
+			
 			Type erasedComponentType = getErasedType(componentType);
 			
-			return getArrayType(erasedComponentType);
+			return getArrayType(erasedComponentType, dimensions);
 		}
 		
 		// the erasure of a type variable is the erasure of its leftmost bound 
@@ -335,6 +512,35 @@ public final class TypeUtils
 		return Types.genericArrayType(componentType);
 	}
 	
+	/**
+	 * Gets the array type with the specified number of dimensions of the specified component type.
+	 * 
+	 * @param componentType
+	 *            the innermost component type of the array
+	 * @param dimensions
+	 *            the number of array dimensions, where zero returns the component type
+	 * @return the array type, which is a {@code Class} if the component type is a class
+	 */
+	public static Type getArrayType(Type componentType, int dimensions)
+	{
+		checkNotNull(componentType, "componentType");
+		checkTrue(dimensions >= 0, "dimensions must be non-negative: ", dimensions);
+		
+		if (componentType instanceof Class<?>)
+		{
+			return ClassUtils.getArrayType((Class<?>) componentType, dimensions);
+		}
+		
+		Type arrayType = componentType;
+		
+		for (int i = 0; i < dimensions; i++)
+		{
+			arrayType = Types.genericArrayType(arrayType);
+		}
+		
+		return arrayType;
+	}
+	
 	public static boolean isParameterizedType(Type type, Class<?> rawType)
 	{
 		checkNotNull(type, "type");
@@ -398,8 +604,8 @@ public final class TypeUtils
 	{
 		checkNotNull(type, "type");
 		
-		Class<?> rawType = getErasedReferenceType(type);
-		Type supertype = rawType.getGenericSuperclass();
+		Type rawType = getErasedClassType(type);
+		Type supertype = getGenericSuperclass(rawType);
 		
 		if (supertype == null)
 		{
@@ -413,8 +619,8 @@ public final class TypeUtils
 	{
 		checkNotNull(type, "type");
 		
-		Class<?> rawType = getErasedReferenceType(type);
-		Type[] interfaces = rawType.getGenericInterfaces();
+		Type rawType = getErasedClassType(type);
+		Type[] interfaces = getGenericInterfaces(rawType);
 		Type[] resolvedInterfaces = new Type[interfaces.length];
 		
 		for (int i = 0; i < interfaces.length; i++)
@@ -427,7 +633,7 @@ public final class TypeUtils
 	
 	public static <T> Type getResolvedSupertype(Class<? extends T> type, Class<T> rawSupertype)
 	{
-		Type resolvedSupertype = getResolvedSupertype((Type) type, rawSupertype);
+		Type resolvedSupertype = getResolvedSupertypeInternal(type, rawSupertype);
 		
 		if (resolvedSupertype == null)
 		{
@@ -437,129 +643,1166 @@ public final class TypeUtils
 		return resolvedSupertype;
 	}
 	
-	public static String toString(Type type)
+	/**
+	 * Gets the supertype of the specified type that has the specified raw type, with any type variables resolved
+	 * against the specified type.
+	 * <p>
+	 * Raw types can be either classes or class file types obtained from a {@link ClassFileTypeLoader}, where the two
+	 * are matched by class name.
+	 * 
+	 * @param type
+	 *            the type to obtain a supertype of
+	 * @param rawSupertype
+	 *            the raw type of the supertype to obtain
+	 * @return the resolved supertype, or {@code null} if the type does not extend or implement the raw supertype
+	 */
+	public static Type getResolvedSupertype(Type type, Type rawSupertype)
 	{
-		return toString(type, ClassSerializers.QUALIFIED);
+		checkNotNull(type, "type");
+		checkNotNull(rawSupertype, "rawSupertype");
+		
+		return getResolvedSupertypeInternal(type, rawSupertype);
 	}
 	
-	public static String toString(Type type, ClassSerializer serializer)
+	/**
+	 * Gets the actual type arguments of the specified generic supertype as extended or implemented by the specified
+	 * class, such as the {@code T} of {@code Comparable<T>} for an implementation of {@code Comparable}.
+	 * <p>
+	 * Type arguments are resolved through any number of generic superclasses and superinterfaces, including abstract
+	 * superclasses that only bind some of their type parameters. They can be type variables of the class itself, or of
+	 * its enclosing classes, where the class leaves them unbound.
+	 * <p>
+	 * Classes that have no generic signature for the supertype, such as those that implement it as a raw type or that
+	 * were generated at run time, have no type arguments and are reported by returning {@code null}. Results, including
+	 * those of classes without type arguments, are cached by class and supertype so that repeated lookups do not walk
+	 * the class hierarchy.
+	 * 
+	 * @param type
+	 *            the class that extends or implements the supertype
+	 * @param rawSupertype
+	 *            the generic class or interface to obtain the type arguments of
+	 * @return the resolved type arguments in the order of the supertype's type parameters, or {@code null} if the
+	 *         class does not provide them
+	 * @throws IllegalArgumentException
+	 *             if the supertype is not generic, or the class does not extend or implement it
+	 */
+	public static Type[] getResolvedTypeArguments(Class<?> type, Class<?> rawSupertype)
 	{
-		if (type == null)
+		checkNotNull(type, "type");
+		checkNotNull(rawSupertype, "rawSupertype");
+		
+		List<Object> key = Arrays.<Object>asList(type, rawSupertype);
+		Type[] typeArgs = RESOLVED_TYPE_ARGUMENTS_BY_CLASS_AND_SUPERTYPE.get(key);
+		
+		if (typeArgs == null)
 		{
-			return String.valueOf(type);
+			checkTrue(rawSupertype.getTypeParameters().length > 0, "rawSupertype must be generic: ", rawSupertype);
+			checkTrue(rawSupertype.isAssignableFrom(type), "type must extend or implement " + rawSupertype.getName()
+				+ ": ", type);
+			
+			typeArgs = RESOLVED_TYPE_ARGUMENTS_BY_CLASS_AND_SUPERTYPE.put(key,
+				resolveTypeArguments(type, rawSupertype));
 		}
 		
-		SerializingTypeVisitor visitor = new SerializingTypeVisitor(serializer);
+		return (typeArgs.length > 0) ? typeArgs.clone() : null;
+	}
+	
+	/**
+	 * Gets the type of the specified field as a member of the specified type, with any type variables of its
+	 * declaring class resolved against the specified type.
+	 * <p>
+	 * For example, the type of the field {@code List<T> items} declared by {@code Page<T>} is {@code List<Order>} as a
+	 * member of {@code Page<Order>}, or as a member of any subtype of {@code Page<Order>}. The type of the field is
+	 * erased as a member of a raw type. Results are cached by field and type.
+	 * 
+	 * @param type
+	 *            the class or parameterized type to obtain the field type as a member of
+	 * @param field
+	 *            the field whose type to resolve
+	 * @return the resolved field type
+	 * @throws IllegalArgumentException
+	 *             if the type does not extend or implement the field's declaring class
+	 * @see <a href="http://java.sun.com/docs/books/jls/third_edition/html/typesValues.html#4.5.2">4.5.2 Members and
+	 *      Constructors of Parameterized Types</a>
+	 */
+	public static Type getResolvedFieldType(Type type, Field field)
+	{
+		checkNotNull(type, "type");
+		checkNotNull(field, "field");
 		
-		accept(type, visitor);
+		return getResolvedMemberTypes(type, field)[0];
+	}
+	
+	/**
+	 * Gets the return type of the specified method as a member of the specified type, with any type variables of its
+	 * declaring class resolved against the specified type.
+	 * <p>
+	 * Type variables declared by the method itself are not resolved. The return type is erased as a member of a raw
+	 * type. Results are cached by method and type.
+	 * 
+	 * @param type
+	 *            the class or parameterized type to obtain the return type as a member of
+	 * @param method
+	 *            the method whose return type to resolve
+	 * @return the resolved return type
+	 * @throws IllegalArgumentException
+	 *             if the type does not extend or implement the method's declaring class
+	 * @see #getResolvedFieldType(Type, Field)
+	 */
+	public static Type getResolvedReturnType(Type type, Method method)
+	{
+		checkNotNull(type, "type");
+		checkNotNull(method, "method");
 		
-		return visitor.toString();
+		return getResolvedMemberTypes(type, method)[0];
 	}
-
-	public static String toUnqualifiedString(Type type)
+	
+	/**
+	 * Gets the parameter types of the specified method as a member of the specified type, with any type variables of
+	 * its declaring class resolved against the specified type.
+	 * <p>
+	 * Type variables declared by the method itself are not resolved. The parameter types are erased as a member of a
+	 * raw type. Results are cached by method and type.
+	 * 
+	 * @param type
+	 *            the class or parameterized type to obtain the parameter types as a member of
+	 * @param method
+	 *            the method whose parameter types to resolve
+	 * @return the resolved parameter types
+	 * @throws IllegalArgumentException
+	 *             if the type does not extend or implement the method's declaring class
+	 * @see #getResolvedFieldType(Type, Field)
+	 */
+	public static Type[] getResolvedParameterTypes(Type type, Method method)
 	{
-		return toString(type, ClassSerializers.UNQUALIFIED);
+		checkNotNull(type, "type");
+		checkNotNull(method, "method");
+		
+		Type[] memberTypes = getResolvedMemberTypes(type, method);
+		Type[] parameterTypes = new Type[memberTypes.length - 1];
+		
+		System.arraycopy(memberTypes, 1, parameterTypes, 0, parameterTypes.length);
+		
+		return parameterTypes;
 	}
 	
-	public static String toSimpleString(Type type)
+	/**
+	 * Gets the least upper bound of the specified reference types, which is their most specific common supertype.
+	 * <p>
+	 * The least upper bound is generally an intersection type, which is returned as its types with any class or array
+	 * type first. For example, the least upper bound of {@code ArrayList<Integer>} and {@code LinkedList<Integer>} is
+	 * {@code AbstractList<Integer> & Cloneable & Serializable}. Infinite types, such as the least upper bound of
+	 * {@code Integer} and {@code Long}, are approximated by unbounded wildcard type arguments. Many types are reduced
+	 * pairwise and the least upper bound of each pair of types is cached for the duration of the call.
+	 * 
+	 * @param types
+	 *            the reference types to obtain the least upper bound of
+	 * @return the types of the intersection type that is the least upper bound, which is {@code Object} alone when
+	 *         the types have no other common supertype
+	 * @see <a href="http://java.sun.com/docs/books/jls/third_edition/html/expressions.html#15.12.2.7">15.12.2.7
+	 *      Inferring Type Arguments Based on Actual Arguments</a>
+	 */
+	public static Type[] leastUpperBound(Type... types)
 	{
-		return toString(type, ClassSerializers.SIMPLE);
+		checkBoundTypes(types);
+		
+		return TypeBoundCalculator.leastUpperBound(types);
 	}
 	
-	// private methods --------------------------------------------------------
+	/**
+	 * Gets the least upper bound of the specified reference types, reducing large numbers of types in parallel using
+	 * the specified executor.
+	 * <p>
+	 * The types are split into ranges that are reduced by tasks submitted to the executor, with the first range
+	 * reduced by the current thread. All tasks stop as soon as any one of them reduces its range to {@code Object}.
+	 * 
+	 * @param types
+	 *            the reference types to obtain the least upper bound of
+	 * @param executor
+	 *            the executor to reduce ranges of types with, which should not be running the current thread if its
+	 *            number of threads is bounded
+	 * @return the types of the intersection type that is the least upper bound
+	 * @throws InterruptedException
+	 *             if the current thread was interrupted while waiting for the executor
+	 * @see #leastUpperBound(Type...)
+	 */
+	public static Type[] leastUpperBound(Type[] types, ExecutorService executor) throws InterruptedException
+	{
+		checkBoundTypes(types);
+		checkNotNull(executor, "executor");
+		
+		return TypeBoundCalculator.leastUpperBound(types, executor);
+	}
 	
-	private static void putPrimitiveSubtypes(Map<Class<?>, Set<Class<?>>> subtypesByPrimitive, Class<?> primitiveType,
-		Class<?>... directSubtypes)
+	/**
+	 * Gets the greatest lower bound of the specified reference types, which is the intersection of those types that
+	 * are not supertypes of the others.
+	 * <p>
+	 * The greatest lower bound is returned as the types of an intersection type with any class or array type first.
+	 * Many types are reduced pairwise and the greatest lower bound of each pair of types is cached for the duration of
+	 * the call.
+	 * 
+	 * @param types
+	 *            the reference types to obtain the greatest lower bound of
+	 * @return the types of the intersection type that is the greatest lower bound
+	 * @throws IllegalArgumentException
+	 *             if the types include unrelated classes or different parameterizations of the same type
+	 * @see <a href="http://java.sun.com/docs/books/jls/third_edition/html/conversions.html#5.1.10">5.1.10 Capture
+	 *      Conversion</a>
+	 */
+	public static Type[] greatestLowerBound(Type... types)
 	{
-		Set<Class<?>> subtypes = new HashSet<Class<?>>();
+		checkBoundTypes(types);
 		
-		for (Class<?> directSubtype : directSubtypes)
-		{
-			subtypes.add(directSubtype);
-			subtypes.addAll(subtypesByPrimitive.get(directSubtype));
-		}
+		return checkGreatestLowerBound(TypeBoundCalculator.greatestLowerBound(types), types);
+	}
+	
+	/**
+	 * Gets the greatest lower bound of the specified reference types, reducing large numbers of types in parallel
+	 * using the specified executor.
+	 * <p>
+	 * The types are split into ranges that are reduced by tasks submitted to the executor, with the first range
+	 * reduced by the current thread. All tasks stop as soon as any one of them finds that its range has no greatest
+	 * lower bound.
+	 * 
+	 * @param types
+	 *            the reference types to obtain the greatest lower bound of
+	 * @param executor
+	 *            the executor to reduce ranges of types with, which should not be running the current thread if its
+	 *            number of threads is bounded
+	 * @return the types of the intersection type that is the greatest lower bound
+	 * @throws IllegalArgumentException
+	 *             if the types include unrelated classes or different parameterizations of the same type
+	 * @throws InterruptedException
+	 *             if the current thread was interrupted while waiting for the executor
+	 * @see #greatestLowerBound(Type...)
+	 */
+	public static Type[] greatestLowerBound(Type[] types, ExecutorService executor) throws InterruptedException
+	{
+		checkBoundTypes(types);
+		checkNotNull(executor, "executor");
 		
-		subtypesByPrimitive.put(primitiveType, Collections.unmodifiableSet(subtypes));
+		return checkGreatestLowerBound(TypeBoundCalculator.greatestLowerBound(types, executor), types);
 	}
 	
-	private static boolean isClassAssignable(Class<?> supertype, Class<?> type)
+	/**
+	 * Infers the type arguments of an invocation of the specified generic method with arguments of the specified
+	 * types.
+	 * <p>
+	 * Argument types are matched against the method's generic parameter types, using
+	 * {@link #getResolvedSupertype(Type, Type)} to find the corresponding supertype of each argument type, and the
+	 * inferred type arguments are checked with {@link #isAssignable(Type, Type)}. Primitive argument types are boxed
+	 * and variable arity methods are supported. Results are cached by method and argument types.
+	 * 
+	 * @param method
+	 *            the generic method being invoked
+	 * @param argumentTypes
+	 *            the types of the actual arguments, where {@code null} denotes the type of a {@code null} argument
+	 * @return the inferred type arguments keyed by the method's type parameters in declaration order
+	 * @throws IllegalArgumentException
+	 *             if type arguments cannot be inferred that make the method applicable to the argument types
+	 */
+	public static Map<TypeVariable<Method>, Type> inferTypeArguments(Method method, Type... argumentTypes)
 	{
-		// Class.isAssignableFrom does not perform primitive widening
-		if (supertype.isPrimitive() && type.isPrimitive())
-		{
-			return SUBTYPES_BY_PRIMITIVE.get(supertype).contains(type);
-		}
+		checkNotNull(method, "method");
+		checkNotNull(argumentTypes, "argumentTypes");
 		
-		return supertype.isAssignableFrom(type);
+		return TypeArgumentInferrer.infer(method, argumentTypes);
 	}
 	
-	private static boolean isClassAssignableToWildcardType(Class<?> supertype, WildcardType type)
+	/**
+	 * Unifies the specified pattern type with the specified concrete type, binding the type variables of the pattern.
+	 * <p>
+	 * The concrete type is lifted to the raw type of the pattern with {@link #getResolvedSupertype(Type, Type)} before
+	 * their type arguments are matched, and likewise for type arguments that are matched by parameterized types or
+	 * {@code extends} wildcards. For example, unifying {@code Map<K, List<V>>} with
+	 * {@code HashMap<String, ArrayList<Integer>>} binds {@code K} to {@code String} and {@code V} to {@code Integer}.
+	 * Type variables that occur more than once must be bound to equal types. Raw types, and classes that extend raw
+	 * types, cannot be unified with parameterized types since they have no type arguments to bind.
+	 * 
+	 * @param pattern
+	 *            the type whose type variables are to be bound
+	 * @param concrete
+	 *            the type to match the pattern against
+	 * @return the types bound to each type variable of the pattern in the order that they occur, or {@code null} if
+	 *         the types cannot be unified
+	 */
+	public static Map<TypeVariable<?>, Type> unify(Type pattern, Type concrete)
 	{
-		for (Type upperBound : type.getUpperBounds())
-		{
-			if (!isAssignable(supertype, upperBound))
-			{
-				return false;
-			}
-		}
+		checkNotNull(pattern, "pattern");
+		checkNotNull(concrete, "concrete");
 		
-		return true;
+		return TypeUnifier.unify(pattern, concrete);
 	}
 	
-	private static boolean isParameterizedTypeAssignable(ParameterizedType supertype, ParameterizedType type)
+	/**
+	 * Gets whether the specified types are structurally equal, regardless of their implementations.
+	 * <p>
+	 * Parameterized types, generic array types and wildcard types are equal when their components are equal, and type
+	 * variables are equal when they have the same generic declaration and name. Captured type variables are only equal
+	 * to themselves. Identical types are equal without inspecting their components, and the components of this
+	 * library's types are compared without copying them.
+	 * 
+	 * @param type1
+	 *            the first type to compare, or {@code null}
+	 * @param type2
+	 *            the second type to compare, or {@code null}
+	 * @return {@code true} if the types are structurally equal or both {@code null}
+	 * @see #hashCode(Type)
+	 */
+	public static boolean equals(Type type1, Type type2)
 	{
-		Type rawSupertype = supertype.getRawType();
-		Type rawType = type.getRawType();
-
-		if (!rawSupertype.equals(rawType))
+		if (type1 == type2)
 		{
-			// short circuit when class raw types are unassignable
-			if (rawSupertype instanceof Class<?> && rawType instanceof Class<?>
-				&& !(((Class<?>) rawSupertype).isAssignableFrom((Class<?>) rawType)))
-			{
-				return false;
-			}
-		
-			return isSuperAssignable(supertype, type);
+			return true;
 		}
 		
-		Type[] supertypeArgs = supertype.getActualTypeArguments();
-		Type[] typeArgs = type.getActualTypeArguments();
-		
-		if (supertypeArgs.length != typeArgs.length)
+		if (type1 == null || type2 == null || type1 instanceof Class<?> || type2 instanceof Class<?>)
 		{
 			return false;
 		}
 		
-		for (int i = 0; i < supertypeArgs.length; i++)
+		if (type1 instanceof ParameterizedType)
 		{
-			Type supertypeArg = supertypeArgs[i];
-			Type typeArg = typeArgs[i];
-			
-			if (supertypeArg instanceof WildcardType)
-			{
-				if (!isWildcardTypeAssignable((WildcardType) supertypeArg, typeArg))
-				{
-					return false;
-				}
-			}
-			else if (!supertypeArg.equals(typeArg))
-			{
-				return false;
-			}
+			return (type2 instanceof ParameterizedType)
+				&& isParameterizedTypeEqual((ParameterizedType) type1, (ParameterizedType) type2);
 		}
 		
-		return true;
-	}
-	
-	private static boolean isTypeVariableAssignable(Type supertype, TypeVariable<?> type)
-	{
-		for (Type bound : type.getBounds())
+		if (type1 instanceof GenericArrayType)
 		{
-			if (isAssignable(supertype, bound))
-			{
-				return true;
-			}
+			return (type2 instanceof GenericArrayType)
+				&& equals(((GenericArrayType) type1).getGenericComponentType(),
+					((GenericArrayType) type2).getGenericComponentType());
+		}
+		
+		if (type1 instanceof WildcardType)
+		{
+			return (type2 instanceof WildcardType)
+				&& equals(getLowerBoundsInternal((WildcardType) type1), getLowerBoundsInternal((WildcardType) type2))
+				&& equals(getUpperBoundsInternal((WildcardType) type1), getUpperBoundsInternal((WildcardType) type2));
+		}
+		
+		if (isStructuralTypeVariable(type1))
+		{
+			return isStructuralTypeVariable(type2)
+				&& isTypeVariableEqual((TypeVariable<?>) type1, (TypeVariable<?>) type2);
+		}
+		
+		return type1.equals(type2);
+	}
+	
+	/**
+	 * Gets a hash code for the specified type that is consistent with {@link #equals(Type, Type)}.
+	 * <p>
+	 * The hash code of a class, parameterized type, generic array type or wildcard type is the same as that of the
+	 * JDK's implementation of it.
+	 * 
+	 * @param type
+	 *            the type to obtain a hash code for, or {@code null}
+	 * @return the structural hash code of the type, or {@code 0} if it is {@code null}
+	 */
+	public static int hashCode(Type type)
+	{
+		if (type == null)
+		{
+			return 0;
+		}
+		
+		if (type instanceof Class<?>)
+		{
+			return type.hashCode();
+		}
+		
+		if (type instanceof ParameterizedType)
+		{
+			ParameterizedType parameterizedType = (ParameterizedType) type;
+			
+			return hashCode(getActualTypeArgumentsInternal(parameterizedType))
+				^ hashCode(parameterizedType.getOwnerType()) ^ hashCode(parameterizedType.getRawType());
+		}
+		
+		if (type instanceof GenericArrayType)
+		{
+			return hashCode(((GenericArrayType) type).getGenericComponentType());
+		}
+		
+		if (type instanceof WildcardType)
+		{
+			WildcardType wildcardType = (WildcardType) type;
+			
+			return hashCode(getLowerBoundsInternal(wildcardType)) ^ hashCode(getUpperBoundsInternal(wildcardType));
+		}
+		
+		if (isStructuralTypeVariable(type))
+		{
+			TypeVariable<?> typeVariable = (TypeVariable<?>) type;
+			
+			return typeVariable.getGenericDeclaration().hashCode() ^ typeVariable.getName().hashCode();
+		}
+		
+		return type.hashCode();
+	}
+	
+	/**
+	 * Gets a 64-bit fingerprint of the structure of the specified type, which is the same across virtual machines.
+	 * <p>
+	 * The fingerprint is computed from the names of the classes that the type refers to and the kinds and order of
+	 * the types that it is composed of, without building any strings, so it does not depend on a
+	 * {@code ClassSerializer}. Types that are equal according to {@link #equals(Type, Type)} have equal fingerprints.
+	 * Fingerprints are cached by this library's parameterized types, generic array types and wildcard types.
+	 * 
+	 * @param type
+	 *            the type to fingerprint
+	 * @return the fingerprint of the type
+	 */
+	public static long fingerprint(Type type)
+	{
+		checkNotNull(type, "type");
+		
+		if (type instanceof AbstractFingerprintedType)
+		{
+			return ((AbstractFingerprintedType) type).getFingerprint();
+		}
+		
+		return computeFingerprint(type);
+	}
+	
+	public static String toString(Type type)
+	{
+		return toString(type, ClassSerializers.QUALIFIED);
+	}
+	
+	public static String toString(Type type, ClassSerializer serializer)
+	{
+		if (type == null)
+		{
+			return String.valueOf(type);
+		}
+		
+		if (serializer == ClassSerializers.DESCRIPTOR)
+		{
+			// descriptors have no syntax for type arguments, so serialize the erasure rather than each class
+			return toDescriptor(type);
+		}
+		
+		SerializingTypeVisitor visitor = new SerializingTypeVisitor(serializer);
+		
+		accept(type, visitor);
+		
+		return visitor.toString();
+	}
+
+	public static String toUnqualifiedString(Type type)
+	{
+		return toString(type, ClassSerializers.UNQUALIFIED);
+	}
+	
+	public static String toSimpleString(Type type)
+	{
+		return toString(type, ClassSerializers.SIMPLE);
+	}
+	
+	/**
+	 * Gets the JVM field descriptor of the erasure of the specified type, for example {@code Ljava/util/List;}.
+	 * 
+	 * @param type
+	 *            the type to obtain a descriptor for
+	 * @return the field descriptor
+	 * @see <a href="http://docs.oracle.com/javase/specs/jvms/se7/html/jvms-4.html#jvms-4.3.2">4.3.2 Field
+	 *      Descriptors</a>
+	 */
+	public static String toDescriptor(Type type)
+	{
+		StringBuilder builder = new StringBuilder();
+		
+		appendDescriptor(type, builder);
+		
+		return builder.toString();
+	}
+	
+	/**
+	 * Appends the JVM field descriptor of the erasure of the specified type to the specified builder.
+	 * 
+	 * @param type
+	 *            the type to append a descriptor for
+	 * @param builder
+	 *            the builder to append the descriptor to
+	 * @throws IllegalArgumentException
+	 *             if the type is a wildcard type
+	 * @see #toDescriptor(Type)
+	 */
+	public static void appendDescriptor(Type type, StringBuilder builder)
+	{
+		checkNotNull(type, "type");
+		checkNotNull(builder, "builder");
+		
+		Type erasedType = getErasedType(type);
+		
+		checkFalse(erasedType instanceof WildcardType, "type has no descriptor: ", type);
+		
+		accept(erasedType, new SignatureTypeVisitor(builder));
+	}
+	
+	/**
+	 * Gets the JVM generic signature of the specified type, for example {@code Ljava/util/List<Ljava/lang/String;>;}.
+	 * 
+	 * @param type
+	 *            the type to obtain a signature for
+	 * @return the signature
+	 * @see <a href="http://docs.oracle.com/javase/specs/jvms/se7/html/jvms-4.html#jvms-4.3.4">4.3.4 Signatures</a>
+	 */
+	public static String toSignature(Type type)
+	{
+		StringBuilder builder = new StringBuilder();
+		
+		appendSignature(type, builder);
+		
+		return builder.toString();
+	}
+	
+	/**
+	 * Appends the JVM generic signature of the specified type to the specified builder.
+	 * 
+	 * @param type
+	 *            the type to append a signature for
+	 * @param builder
+	 *            the builder to append the signature to
+	 * @throws IllegalArgumentException
+	 *             if the type is a wildcard type
+	 * @see #toSignature(Type)
+	 */
+	public static void appendSignature(Type type, StringBuilder builder)
+	{
+		checkNotNull(type, "type");
+		checkNotNull(builder, "builder");
+		checkFalse(type instanceof WildcardType, "Wildcard types only have signatures as type arguments: ", type);
+		
+		accept(type, new SignatureTypeVisitor(builder));
+	}
+	
+	// package methods --------------------------------------------------------
+	
+	/**
+	 * Replaces the type variables within the specified type with their corresponding types.
+	 * 
+	 * @param type
+	 *            the type to substitute type variables within
+	 * @param typesByVariable
+	 *            the types to replace each type variable with, where absent type variables are left as they are
+	 * @return the substituted type, which is the specified type if it does not contain any type variables
+	 */
+	static Type substitute(Type type, Map<? extends Type, ? extends Type> typesByVariable)
+	{
+		if (type instanceof TypeVariable<?>)
+		{
+			Type substitutedType = typesByVariable.get(type);
+			
+			return (substitutedType != null) ? substitutedType : type;
+		}
+		
+		if (type instanceof GenericArrayType)
+		{
+			Type componentType = ((GenericArrayType) type).getGenericComponentType();
+			Type substitutedComponentType = substitute(componentType, typesByVariable);
+			
+			return (substitutedComponentType == componentType) ? type : getArrayType(substitutedComponentType);
+		}
+		
+		if (type instanceof ParameterizedType)
+		{
+			ParameterizedType parameterizedType = (ParameterizedType) type;
+			Type ownerType = parameterizedType.getOwnerType();
+			Type substitutedOwnerType = (ownerType != null) ? substitute(ownerType, typesByVariable) : null;
+			Type[] typeArgs = parameterizedType.getActualTypeArguments();
+			
+			if (!substitute(typeArgs, typesByVariable) && substitutedOwnerType == ownerType)
+			{
+				return type;
+			}
+			
+			Type rawType = parameterizedType.getRawType();
+			
+			if (rawType instanceof ClassFileClass)
+			{
+				return new ClassFileParameterizedType(substitutedOwnerType, (ClassFileClass) rawType, typeArgs);
+			}
+			
+			return new DefaultParameterizedType(substitutedOwnerType, (Class<?>) rawType, typeArgs);
+		}
+		
+		if (type instanceof WildcardType)
+		{
+			WildcardType wildcardType = (WildcardType) type;
+			Type[] upperBounds = wildcardType.getUpperBounds();
+			Type[] lowerBounds = wildcardType.getLowerBounds();
+			
+			// substitute both bounds before checking whether either changed
+			if (!substitute(upperBounds, typesByVariable) & !substitute(lowerBounds, typesByVariable))
+			{
+				return type;
+			}
+			
+			return new DefaultWildcardType(upperBounds, lowerBounds);
+		}
+		
+		return type;
+	}
+	
+	/**
+	 * Gets the actual type arguments of the specified parameterized types keyed by their type parameters. Types that
+	 * are not parameterized types, including {@code null}, are ignored.
+	 * 
+	 * @param types
+	 *            the parameterized types to obtain the actual type arguments of
+	 * @return the actual type arguments keyed by type parameter
+	 */
+	static Map<Type, Type> getActualTypeArgumentsByParameter(Type... types)
+	{
+		// TODO: return Map<TypeVariable<Class<?>>, Type> somehow
+		
+		Map<Type, Type> actualTypeArgumentsByParameter = new LinkedHashMap<Type, Type>();
+		
+		for (Type type : types)
+		{
+			actualTypeArgumentsByParameter.putAll(getActualTypeArgumentsByParameterInternal(type));
+		}
+		
+		return normalize(actualTypeArgumentsByParameter);
+	}
+	
+	/**
+	 * Computes the fingerprint of the specified type using the fingerprints of its components, which may be cached.
+	 * 
+	 * @param type
+	 *            the type to fingerprint
+	 * @return the fingerprint of the type
+	 * @see #fingerprint(Type)
+	 */
+	static long computeFingerprint(Type type)
+	{
+		if (isClassType(type))
+		{
+			return fingerprint(fingerprint(FINGERPRINT_BASIS, 'C'), getClassName(type));
+		}
+		
+		if (type instanceof ParameterizedType)
+		{
+			ParameterizedType parameterizedType = (ParameterizedType) type;
+			Type ownerType = parameterizedType.getOwnerType();
+			
+			long fingerprint = fingerprint(FINGERPRINT_BASIS, 'P');
+			fingerprint = fingerprint(fingerprint, fingerprint(parameterizedType.getRawType()));
+			fingerprint = fingerprint(fingerprint, (ownerType != null) ? fingerprint(ownerType) : 0);
+			
+			return fingerprint(fingerprint, getActualTypeArgumentsInternal(parameterizedType));
+		}
+		
+		if (type instanceof GenericArrayType)
+		{
+			long fingerprint = fingerprint(FINGERPRINT_BASIS, 'A');
+			
+			return fingerprint(fingerprint, fingerprint(((GenericArrayType) type).getGenericComponentType()));
+		}
+		
+		if (type instanceof WildcardType)
+		{
+			WildcardType wildcardType = (WildcardType) type;
+			
+			long fingerprint = fingerprint(FINGERPRINT_BASIS, 'W');
+			fingerprint = fingerprint(fingerprint, getUpperBoundsInternal(wildcardType));
+			
+			return fingerprint(fingerprint, getLowerBoundsInternal(wildcardType));
+		}
+		
+		if (type instanceof TypeVariable<?>)
+		{
+			TypeVariable<?> typeVariable = (TypeVariable<?>) type;
+			
+			// bounds are not included since they are fixed by the declaration and may be recursive
+			long fingerprint = fingerprint(FINGERPRINT_BASIS, 'V');
+			fingerprint = fingerprint(fingerprint, typeVariable.getName());
+			
+			return fingerprint(fingerprint, typeVariable.getGenericDeclaration());
+		}
+		
+		throw new IllegalArgumentException("Unknown type: " + type);
+	}
+	
+	/**
+	 * Gets the actual type arguments of the specified parameterized type without copying them where it is one of this
+	 * library's types. The returned array must not be modified.
+	 * 
+	 * @param type
+	 *            the parameterized type
+	 * @return the actual type arguments
+	 */
+	static Type[] getActualTypeArgumentsInternal(ParameterizedType type)
+	{
+		if (type instanceof DefaultParameterizedType)
+		{
+			return ((DefaultParameterizedType) type).getActualTypeArgumentsInternal();
+		}
+		
+		if (type instanceof ClassFileParameterizedType)
+		{
+			return ((ClassFileParameterizedType) type).getActualTypeArgumentsInternal();
+		}
+		
+		return type.getActualTypeArguments();
+	}
+	
+	/**
+	 * Gets the upper bounds of the specified wildcard type without copying them where it is one of this library's
+	 * types. The returned array must not be modified.
+	 * 
+	 * @param type
+	 *            the wildcard type
+	 * @return the upper bounds
+	 */
+	static Type[] getUpperBoundsInternal(WildcardType type)
+	{
+		return (type instanceof DefaultWildcardType) ? ((DefaultWildcardType) type).getUpperBoundsInternal()
+			: type.getUpperBounds();
+	}
+	
+	/**
+	 * Gets the lower bounds of the specified wildcard type without copying them where it is one of this library's
+	 * types. The returned array must not be modified.
+	 * 
+	 * @param type
+	 *            the wildcard type
+	 * @return the lower bounds
+	 */
+	static Type[] getLowerBoundsInternal(WildcardType type)
+	{
+		return (type instanceof DefaultWildcardType) ? ((DefaultWildcardType) type).getLowerBoundsInternal()
+			: type.getLowerBounds();
+	}
+	
+	/**
+	 * Gets whether the specified type is a <em>raw type</em>, that is, a generic class or interface that is used
+	 * without type arguments.
+	 * 
+	 * @param type
+	 *            the type to check
+	 * @return {@code true} if the type is a generic class
+	 */
+	static boolean isRawType(Type type)
+	{
+		return (type instanceof Class<?>) && ((Class<?>) type).getTypeParameters().length > 0;
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private static long fingerprint(long fingerprint, GenericDeclaration declaration)
+	{
+		if (declaration instanceof Type && isClassType((Type) declaration))
+		{
+			return fingerprint(fingerprint, fingerprint((Type) declaration));
+		}
+		
+		if (declaration instanceof Method)
+		{
+			Method method = (Method) declaration;
+			
+			fingerprint = fingerprint(fingerprint, 'M');
+			fingerprint = fingerprint(fingerprint, method.getDeclaringClass().getName());
+			fingerprint = fingerprint(fingerprint, method.getName());
+			
+			return fingerprint(fingerprint, method.getParameterTypes());
+		}
+		
+		if (declaration instanceof Constructor<?>)
+		{
+			Constructor<?> constructor = (Constructor<?>) declaration;
+			
+			fingerprint = fingerprint(fingerprint, 'K');
+			fingerprint = fingerprint(fingerprint, constructor.getDeclaringClass().getName());
+			
+			return fingerprint(fingerprint, constructor.getParameterTypes());
+		}
+		
+		return fingerprint(fingerprint, String.valueOf(declaration));
+	}
+	
+	private static long fingerprint(long fingerprint, Type[] types)
+	{
+		fingerprint = fingerprint(fingerprint, types.length);
+		
+		for (Type type : types)
+		{
+			fingerprint = fingerprint(fingerprint, fingerprint(type));
+		}
+		
+		return fingerprint;
+	}
+	
+	private static long fingerprint(long fingerprint, String string)
+	{
+		fingerprint = fingerprint(fingerprint, string.length());
+		
+		for (int i = 0; i < string.length(); i++)
+		{
+			fingerprint = fingerprint(fingerprint, string.charAt(i));
+		}
+		
+		return fingerprint;
+	}
+	
+	private static long fingerprint(long fingerprint, char value)
+	{
+		return fingerprint(fingerprint, value, 2);
+	}
+	
+	private static long fingerprint(long fingerprint, int value)
+	{
+		return fingerprint(fingerprint, value, 4);
+	}
+	
+	private static long fingerprint(long fingerprint, long value)
+	{
+		return fingerprint(fingerprint, value, 8);
+	}
+	
+	/**
+	 * Adds the specified number of low-order bytes of the specified value to a fingerprint using the 64-bit FNV-1a
+	 * hash. Values of each kind have a fixed width so that the bytes of adjacent values cannot be confused.
+	 */
+	private static long fingerprint(long fingerprint, long value, int byteCount)
+	{
+		for (int i = 0; i < byteCount; i++)
+		{
+			fingerprint = (fingerprint ^ ((value >>> (i * 8)) & 0xFF)) * FINGERPRINT_PRIME;
+		}
+		
+		return fingerprint;
+	}
+	
+	/**
+	 * Replaces the type variables within the specified types in place.
+	 * 
+	 * @return {@code true} if any of the types were substituted
+	 */
+	private static boolean substitute(Type[] types, Map<? extends Type, ? extends Type> typesByVariable)
+	{
+		boolean substituted = false;
+		
+		for (int i = 0; i < types.length; i++)
+		{
+			Type substitutedType = substitute(types[i], typesByVariable);
+			
+			if (substitutedType != types[i])
+			{
+				types[i] = substitutedType;
+				substituted = true;
+			}
+		}
+		
+		return substituted;
+	}
+	
+	private static int getPrimitiveBit(Class<?> type)
+	{
+		if (type == Integer.TYPE)
+		{
+			return INT;
+		}
+		
+		if (type == Long.TYPE)
+		{
+			return LONG;
+		}
+		
+		if (type == Double.TYPE)
+		{
+			return DOUBLE;
+		}
+		
+		if (type == Boolean.TYPE)
+		{
+			return BOOLEAN;
+		}
+		
+		if (type == Float.TYPE)
+		{
+			return FLOAT;
+		}
+		
+		if (type == Character.TYPE)
+		{
+			return CHAR;
+		}
+		
+		if (type == Short.TYPE)
+		{
+			return SHORT;
+		}
+		
+		if (type == Byte.TYPE)
+		{
+			return BYTE;
+		}
+		
+		return (type == Void.TYPE) ? VOID : 0;
+	}
+	
+	private static int getUnboxedPrimitiveBit(Class<?> type)
+	{
+		// Void has no unboxing conversion
+		if (type == Integer.class)
+		{
+			return INT;
+		}
+		
+		if (type == Long.class)
+		{
+			return LONG;
+		}
+		
+		if (type == Double.class)
+		{
+			return DOUBLE;
+		}
+		
+		if (type == Boolean.class)
+		{
+			return BOOLEAN;
+		}
+		
+		if (type == Float.class)
+		{
+			return FLOAT;
+		}
+		
+		if (type == Character.class)
+		{
+			return CHAR;
+		}
+		
+		if (type == Short.class)
+		{
+			return SHORT;
+		}
+		
+		return (type == Byte.class) ? BYTE : 0;
+	}
+	
+	/**
+	 * Gets the primitive types that can be converted to the specified primitive type by identity or widening primitive
+	 * conversion, as a bitmask of primitive bits.
+	 */
+	private static int getPrimitiveSubtypes(int primitiveBit)
+	{
+		switch (primitiveBit)
+		{
+			case SHORT:
+				return SHORT | BYTE;
+				
+			case INT:
+				return INT | CHAR | SHORT | BYTE;
+				
+			case LONG:
+				return LONG | INT | CHAR | SHORT | BYTE;
+				
+			case FLOAT:
+				return FLOAT | LONG | INT | CHAR | SHORT | BYTE;
+				
+			case DOUBLE:
+				return DOUBLE | FLOAT | LONG | INT | CHAR | SHORT | BYTE;
+				
+			default:
+				return primitiveBit;
+		}
+	}
+	
+	private static boolean isClassAssignable(Class<?> supertype, Class<?> type)
+	{
+		// Class.isAssignableFrom does not perform primitive widening
+		if (supertype.isPrimitive() && type.isPrimitive())
+		{
+			return (getPrimitiveSubtypes(getPrimitiveBit(supertype)) & getPrimitiveBit(type)) != 0;
+		}
+		
+		return supertype.isAssignableFrom(type);
+	}
+	
+	private static boolean isClassTypeAssignable(Type supertype, Type type)
+	{
+		if (supertype instanceof Class<?> && type instanceof Class<?>)
+		{
+			return isClassAssignable((Class<?>) supertype, (Class<?>) type);
+		}
+		
+		// class file types are not loaded so are matched by name
+		String supertypeName = getClassName(supertype);
+		
+		if (OBJECT_CLASS_NAME.equals(supertypeName))
+		{
+			return !isPrimitive(type);
+		}
+		
+		// rule out most unrelated class file types without walking their hierarchy
+		if (type instanceof ClassFileClass && !((ClassFileClass) type).mayBeSubtypeOf(supertypeName))
+		{
+			return false;
+		}
+		
+		return isSubclassByName(supertypeName, type);
+	}
+	
+	private static boolean isSubclassByName(String supertypeName, Type type)
+	{
+		if (supertypeName.equals(getClassName(type)))
+		{
+			return true;
+		}
+		
+		Type superclass = getRawSuperclass(type);
+		
+		if (superclass != null && isSubclassByName(supertypeName, superclass))
+		{
+			return true;
+		}
+		
+		for (Type interphace : getRawInterfaces(type))
+		{
+			if (isSubclassByName(supertypeName, interphace))
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private static boolean isClassAssignableToWildcardType(Type supertype, WildcardType type)
+	{
+		for (Type upperBound : type.getUpperBounds())
+		{
+			if (!isAssignable(supertype, upperBound))
+			{
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	private static boolean isParameterizedTypeAssignable(ParameterizedType supertype, ParameterizedType type)
+	{
+		Type rawSupertype = supertype.getRawType();
+		Type rawType = type.getRawType();
+
+		if (!rawSupertype.equals(rawType))
+		{
+			// short circuit when class raw types are unassignable
+			if (isClassType(rawSupertype) && isClassType(rawType) && !isClassTypeAssignable(rawSupertype, rawType))
+			{
+				return false;
+			}
+		
+			return isSuperAssignable(supertype, type);
+		}
+		
+		Type[] supertypeArgs = supertype.getActualTypeArguments();
+		Type[] typeArgs = type.getActualTypeArguments();
+		
+		if (supertypeArgs.length != typeArgs.length)
+		{
+			return false;
+		}
+		
+		for (int i = 0; i < supertypeArgs.length; i++)
+		{
+			Type supertypeArg = supertypeArgs[i];
+			Type typeArg = typeArgs[i];
+			
+			if (supertypeArg instanceof WildcardType)
+			{
+				if (!isTypeArgumentContained((WildcardType) supertypeArg, typeArg))
+				{
+					return false;
+				}
+			}
+			else if (!equals(supertypeArg, typeArg))
+			{
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Gets whether the specified type argument is contained by the specified wildcard type argument.
+	 * 
+	 * @param supertypeArg
+	 *            the wildcard type argument of the supertype
+	 * @param typeArg
+	 *            the type argument of the subtype
+	 * @return {@code true} if the type argument is contained by the wildcard type argument
+	 * @see <a href="http://java.sun.com/docs/books/jls/third_edition/html/typesValues.html#4.5.1.1">4.5.1.1 Type
+	 *      Argument Containment and Equivalence</a>
+	 */
+	private static boolean isTypeArgumentContained(WildcardType supertypeArg, Type typeArg)
+	{
+		if (!(typeArg instanceof WildcardType))
+		{
+			return isWildcardTypeAssignable(supertypeArg, typeArg);
+		}
+		
+		WildcardType wildcardTypeArg = (WildcardType) typeArg;
+		Type[] lowerBounds = supertypeArg.getLowerBounds();
+		
+		if (lowerBounds.length > 0)
+		{
+			// ? super T contains ? super S if T <: S
+			Type[] typeArgLowerBounds = wildcardTypeArg.getLowerBounds();
+			
+			return typeArgLowerBounds.length > 0 && isAssignable(typeArgLowerBounds[0], lowerBounds[0]);
+		}
+		
+		// ? extends T contains ? extends S if S <: T, and ? super S if T is Object
+		for (Type upperBound : supertypeArg.getUpperBounds())
+		{
+			if (!isAssignableFromAny(upperBound, wildcardTypeArg.getUpperBounds()))
+			{
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	private static boolean isAssignableFromAny(Type supertype, Type[] types)
+	{
+		for (Type type : types)
+		{
+			if (isAssignable(supertype, type))
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private static boolean isCapturedTypeVariableAssignable(CapturedTypeVariable supertype, Type type)
+	{
+		// types are assignable to a captured super wildcard through its lower bound
+		Type lowerBound = supertype.getLowerBound();
+		
+		return lowerBound != null && isAssignable(lowerBound, type);
+	}
+	
+	private static boolean isTypeVariableAssignable(Type supertype, TypeVariable<?> type)
+	{
+		for (Type bound : type.getBounds())
+		{
+			if (isAssignable(supertype, bound))
+			{
+				return true;
+			}
 		}
 		
 		return false;
@@ -588,6 +1831,8 @@ public final class TypeUtils
 	
 	private static boolean isSuperAssignable(Type supertype, Type type)
 	{
+		type = capture(type);
+		
 		Type superclass = getResolvedSuperclass(type);
 		
 		if (superclass != null && isAssignable(supertype, superclass))
@@ -606,6 +1851,55 @@ public final class TypeUtils
 		return false;
 	}
 	
+	/**
+	 * Applies capture conversion to the specified type, replacing each wildcard type argument with a fresh type
+	 * variable. Types without wildcard type arguments are returned unchanged.
+	 * 
+	 * @param type
+	 *            the type to capture
+	 * @return the captured type
+	 * @see <a href="http://java.sun.com/docs/books/jls/third_edition/html/conversions.html#5.1.10">5.1.10 Capture
+	 *      Conversion</a>
+	 */
+	private static Type capture(Type type)
+	{
+		if (!(type instanceof ParameterizedType))
+		{
+			return type;
+		}
+		
+		ParameterizedType parameterizedType = (ParameterizedType) type;
+		Type rawType = parameterizedType.getRawType();
+		
+		if (!(rawType instanceof Class<?>))
+		{
+			return type;
+		}
+		
+		Type[] typeArgs = parameterizedType.getActualTypeArguments();
+		TypeVariable<?>[] typeParameters = null;
+		
+		for (int i = 0; i < typeArgs.length; i++)
+		{
+			if (typeArgs[i] instanceof WildcardType)
+			{
+				if (typeParameters == null)
+				{
+					typeParameters = ((Class<?>) rawType).getTypeParameters();
+				}
+				
+				typeArgs[i] = new CapturedTypeVariable((WildcardType) typeArgs[i], typeParameters[i]);
+			}
+		}
+		
+		if (typeParameters == null)
+		{
+			return type;
+		}
+		
+		return new DefaultParameterizedType(parameterizedType.getOwnerType(), (Class<?>) rawType, typeArgs);
+	}
+	
 	/**
 	 * Gets whether the specified type is a <em>reference type</em>.
 	 * <p>
@@ -634,39 +1928,343 @@ public final class TypeUtils
 			|| type instanceof GenericArrayType;
 	}
 	
-	private static boolean isArraySupertype(Class<?> type)
+	private static Type[] resolveTypeArguments(Class<?> type, Class<?> rawSupertype)
+	{
+		// generic classes are parameterized by their own type parameters
+		if (type == rawSupertype)
+		{
+			TypeVariable<?>[] typeParameters = type.getTypeParameters();
+			Type[] typeArgs = new Type[typeParameters.length];
+			
+			System.arraycopy(typeParameters, 0, typeArgs, 0, typeArgs.length);
+			
+			return typeArgs;
+		}
+		
+		Type supertype = getResolvedSupertypeInternal(type, rawSupertype);
+		
+		// raw supertypes have no type arguments
+		if (!(supertype instanceof ParameterizedType))
+		{
+			return new Type[0];
+		}
+		
+		Type[] typeArgs = ((ParameterizedType) supertype).getActualTypeArguments();
+		
+		// type variables of other classes are left by raw types between the class and the supertype
+		for (Type typeArg : typeArgs)
+		{
+			if (hasForeignTypeVariable(typeArg, type))
+			{
+				return new Type[0];
+			}
+		}
+		
+		return typeArgs;
+	}
+	
+	/**
+	 * Gets whether the specified type contains a type variable that is not declared by the specified class or its
+	 * enclosing classes.
+	 */
+	private static boolean hasForeignTypeVariable(Type type, Class<?> klass)
 	{
-		return Object.class.equals(type)
-			|| Cloneable.class.equals(type)
-			|| Serializable.class.equals(type);
+		if (type instanceof TypeVariable<?>)
+		{
+			GenericDeclaration declaration = ((TypeVariable<?>) type).getGenericDeclaration();
+			
+			for (Class<?> enclosingClass = klass; enclosingClass != null;
+				enclosingClass = enclosingClass.getEnclosingClass())
+			{
+				if (declaration == enclosingClass)
+				{
+					return false;
+				}
+			}
+			
+			return true;
+		}
+		
+		if (type instanceof ParameterizedType)
+		{
+			return hasForeignTypeVariable(((ParameterizedType) type).getActualTypeArguments(), klass);
+		}
+		
+		if (type instanceof GenericArrayType)
+		{
+			return hasForeignTypeVariable(((GenericArrayType) type).getGenericComponentType(), klass);
+		}
+		
+		if (type instanceof WildcardType)
+		{
+			WildcardType wildcardType = (WildcardType) type;
+			
+			return hasForeignTypeVariable(wildcardType.getUpperBounds(), klass)
+				|| hasForeignTypeVariable(wildcardType.getLowerBounds(), klass);
+		}
+		
+		return false;
 	}
-
-	private static Type resolveTypeVariables(Type type, Type subtype)
+	
+	private static boolean hasForeignTypeVariable(Type[] types, Class<?> klass)
 	{
-		// TODO: need to support other types in future, e.g. T[], etc.
-		if (!(type instanceof ParameterizedType))
+		for (Type type : types)
 		{
-			return type;
+			if (hasForeignTypeVariable(type, klass))
+			{
+				return true;
+			}
 		}
 		
-		Map<Type, Type> actualTypeArgumentsByParameter = getActualTypeArgumentsByParameter(type, subtype);
-		Class<?> rawType = getErasedReferenceType(type);
+		return false;
+	}
+	
+	private static Type[] getResolvedMemberTypes(Type type, Member member)
+	{
+		List<Object> key = Arrays.<Object>asList(member, type);
+		Type[] memberTypes = RESOLVED_MEMBER_TYPES_BY_MEMBER_AND_TYPE.get(key);
 		
-		return parameterizeClass(rawType, actualTypeArgumentsByParameter);
+		if (memberTypes == null)
+		{
+			memberTypes = RESOLVED_MEMBER_TYPES_BY_MEMBER_AND_TYPE.put(key, resolveMemberTypes(type, member));
+		}
+		
+		return memberTypes;
 	}
 	
-	private static Map<Type, Type> getActualTypeArgumentsByParameter(Type... types)
+	private static Type[] resolveMemberTypes(Type type, Member member)
 	{
-		// TODO: return Map<TypeVariable<Class<?>>, Type> somehow
+		checkTrue(type instanceof Class<?> || type instanceof ParameterizedType,
+			"type must be a class or parameterized type: ", type);
 		
-		Map<Type, Type> actualTypeArgumentsByParameter = new LinkedHashMap<Type, Type>();
+		Class<?> declaringClass = member.getDeclaringClass();
+		Type declaringType = isArray(type) ? null : getResolvedSupertypeInternal(type, declaringClass);
+		
+		if (declaringType == null)
+		{
+			throw new IllegalArgumentException("type must extend or implement " + declaringClass.getName() + ": "
+				+ toString(type));
+		}
+		
+		Type[] memberTypes = getGenericMemberTypes(member);
+		
+		// the members of raw types, and of their supertypes, are erased
+		if (isRawType(type) || isRawType(declaringType))
+		{
+			for (int i = 0; i < memberTypes.length; i++)
+			{
+				memberTypes[i] = getErasedType(memberTypes[i]);
+			}
+		}
+		else if (declaringType instanceof ParameterizedType)
+		{
+			// include the type arguments of any enclosing types of inner classes
+			Type ownerType = ((ParameterizedType) declaringType).getOwnerType();
+			
+			substitute(memberTypes, getActualTypeArgumentsByParameter(declaringType, ownerType));
+		}
+		
+		return memberTypes;
+	}
+	
+	private static Type[] getGenericMemberTypes(Member member)
+	{
+		if (member instanceof Field)
+		{
+			return new Type[] {((Field) member).getGenericType()};
+		}
+		
+		Method method = (Method) member;
+		Type[] parameterTypes = method.getGenericParameterTypes();
+		Type[] memberTypes = new Type[parameterTypes.length + 1];
+		
+		memberTypes[0] = method.getGenericReturnType();
+		System.arraycopy(parameterTypes, 0, memberTypes, 1, parameterTypes.length);
+		
+		return memberTypes;
+	}
+	
+	private static void checkBoundTypes(Type[] types)
+	{
+		checkNotNull(types, "types");
+		checkTrue(types.length > 0, "types cannot be empty");
 		
 		for (Type type : types)
 		{
-			actualTypeArgumentsByParameter.putAll(getActualTypeArgumentsByParameterInternal(type));
+			checkNotNull(type, "type");
+			checkTrue(isReferenceType(type) && !isPrimitive(type), "type must be a reference type: ", type);
+		}
+	}
+	
+	private static Type[] checkGreatestLowerBound(Type[] bound, Type[] types)
+	{
+		if (bound == null)
+		{
+			throw new IllegalArgumentException("types have no greatest lower bound: " + Arrays.asList(types));
 		}
 		
-		return normalize(actualTypeArgumentsByParameter);
+		return bound;
+	}
+	
+	private static boolean isArraySupertype(Type type)
+	{
+		String className = getClassName(type);
+		
+		return OBJECT_CLASS_NAME.equals(className)
+			|| Cloneable.class.getName().equals(className)
+			|| Serializable.class.getName().equals(className);
+	}
+	
+	/**
+	 * Gets whether the specified type is a class or interface type, either loaded or read from a class file.
+	 * 
+	 * @param type
+	 *            the type to check
+	 * @return {@code true} if the specified type is a {@code Class} or a class file type
+	 */
+	private static boolean isClassType(Type type)
+	{
+		return type instanceof Class<?> || type instanceof ClassFileClass;
+	}
+	
+	private static boolean isParameterizedTypeEqual(ParameterizedType type1, ParameterizedType type2)
+	{
+		Type rawType1 = type1.getRawType();
+		Type rawType2 = type2.getRawType();
+		
+		// compare the raw types first since they are neither copied nor recursive
+		return (rawType1 == rawType2 || rawType1.equals(rawType2))
+			&& equals(type1.getOwnerType(), type2.getOwnerType())
+			&& equals(getActualTypeArgumentsInternal(type1), getActualTypeArgumentsInternal(type2));
+	}
+	
+	private static boolean isStructuralTypeVariable(Type type)
+	{
+		// captured type variables are distinct even when they capture the same type parameter
+		return (type instanceof TypeVariable<?>) && !(type instanceof CapturedTypeVariable);
+	}
+	
+	private static boolean isTypeVariableEqual(TypeVariable<?> typeVariable1, TypeVariable<?> typeVariable2)
+	{
+		// bounds are not compared since they are fixed by the declaration and may be recursive
+		return typeVariable1.getName().equals(typeVariable2.getName())
+			&& typeVariable1.getGenericDeclaration().equals(typeVariable2.getGenericDeclaration());
+	}
+	
+	private static boolean equals(Type[] types1, Type[] types2)
+	{
+		if (types1.length != types2.length)
+		{
+			return false;
+		}
+		
+		for (int i = 0; i < types1.length; i++)
+		{
+			if (!equals(types1[i], types2[i]))
+			{
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	private static int hashCode(Type[] types)
+	{
+		int hashCode = 1;
+		
+		for (Type type : types)
+		{
+			hashCode = (31 * hashCode) + hashCode(type);
+		}
+		
+		return hashCode;
+	}
+	
+	private static String getClassName(Type classType)
+	{
+		if (classType instanceof ClassFileClass)
+		{
+			return ((ClassFileClass) classType).getName();
+		}
+		
+		return ((Class<?>) classType).getName();
+	}
+	
+	private static Type getErasedClassType(Type type)
+	{
+		Type erasedType = getErasedType(type);
+		
+		if (erasedType instanceof ClassFileClass)
+		{
+			return erasedType;
+		}
+		
+		return getErasedReferenceType(type);
+	}
+	
+	private static Type getRawSuperclass(Type classType)
+	{
+		if (classType instanceof ClassFileClass)
+		{
+			return ((ClassFileClass) classType).getSuperclass();
+		}
+		
+		return ((Class<?>) classType).getSuperclass();
+	}
+	
+	private static Type[] getRawInterfaces(Type classType)
+	{
+		if (classType instanceof ClassFileClass)
+		{
+			return ((ClassFileClass) classType).getInterfaces();
+		}
+		
+		return ((Class<?>) classType).getInterfaces();
+	}
+	
+	private static Type getGenericSuperclass(Type classType)
+	{
+		if (classType instanceof ClassFileClass)
+		{
+			return ((ClassFileClass) classType).getGenericSuperclass();
+		}
+		
+		return ((Class<?>) classType).getGenericSuperclass();
+	}
+	
+	private static Type[] getGenericInterfaces(Type classType)
+	{
+		if (classType instanceof ClassFileClass)
+		{
+			return ((ClassFileClass) classType).getGenericInterfaces();
+		}
+		
+		return ((Class<?>) classType).getGenericInterfaces();
+	}
+	
+	private static TypeVariable<?>[] getTypeParameters(Type classType)
+	{
+		if (classType instanceof ClassFileClass)
+		{
+			return ((ClassFileClass) classType).getTypeParameters();
+		}
+		
+		return ((Class<?>) classType).getTypeParameters();
+	}
+
+	private static Type resolveTypeVariables(Type type, Type subtype)
+	{
+		// TODO: need to support other types in future, e.g. T[], etc.
+		if (!(type instanceof ParameterizedType))
+		{
+			return type;
+		}
+		
+		Map<Type, Type> actualTypeArgumentsByParameter = getActualTypeArgumentsByParameter(type, subtype);
+		Type rawType = getErasedClassType(type);
+		
+		return parameterizeClass(rawType, actualTypeArgumentsByParameter);
 	}
 	
 	private static Map<Type, Type> getActualTypeArgumentsByParameterInternal(Type type)
@@ -677,7 +2275,7 @@ public final class TypeUtils
 			return Collections.emptyMap();
 		}
 		
-		TypeVariable<?>[] typeParameters = getErasedReferenceType(type).getTypeParameters();
+		TypeVariable<?>[] typeParameters = getTypeParameters(getErasedClassType(type));
 		Type[] typeArguments = ((ParameterizedType) type).getActualTypeArguments();
 		
 		if (typeParameters.length != typeArguments.length)
@@ -695,22 +2293,16 @@ public final class TypeUtils
 		return actualTypeArgumentsByParameter;
 	}
 	
-	private static ParameterizedType parameterizeClass(Class<?> type, Map<Type, Type> actualTypeArgumentsByParameter)
-	{
-		return parameterizeClassCapture(type, actualTypeArgumentsByParameter);
-	}
-	
-	private static <T> ParameterizedType parameterizeClassCapture(Class<T> type,
-		Map<Type, Type> actualTypeArgumentsByParameter)
+	private static ParameterizedType parameterizeClass(Type type, Map<Type, Type> actualTypeArgumentsByParameter)
 	{
 		// TODO: actualTypeArgumentsByParameter should be Map<TypeVariable<Class<T>>, Type>
 		
-		TypeVariable<Class<T>>[] typeParameters = type.getTypeParameters();
+		TypeVariable<?>[] typeParameters = getTypeParameters(type);
 		Type[] actualTypeArguments = new Type[typeParameters.length];
 		
 		for (int i = 0; i < typeParameters.length; i++)
 		{
-			TypeVariable<Class<T>> typeParameter = typeParameters[i];
+			TypeVariable<?> typeParameter = typeParameters[i];
 			Type actualTypeArgument = actualTypeArgumentsByParameter.get(typeParameter);
 			
 			if (actualTypeArgument == null)
@@ -718,10 +2310,16 @@ public final class TypeUtils
 				throw new IllegalArgumentException("Missing actual type argument for type parameter: " + typeParameter);
 			}
 			
-			actualTypeArguments[i] = actualTypeArgument;
+			// resolve type variables nested within type arguments, such as T in Comparable<List<T>>
+			actualTypeArguments[i] = substitute(actualTypeArgument, actualTypeArgumentsByParameter);
+		}
+		
+		if (type instanceof ClassFileClass)
+		{
+			return new ClassFileParameterizedType(null, (ClassFileClass) type, actualTypeArguments);
 		}
 		
-		return Types.parameterizedType(getErasedReferenceType(type), actualTypeArguments);
+		return Types.parameterizedType((Class<?>) type, actualTypeArguments);
 	}
 	
 	private static <K, V> Map<K, V> normalize(Map<K, V> map)
@@ -744,11 +2342,13 @@ public final class TypeUtils
 		return map;
 	}
 	
-	private static Type getResolvedSupertype(Type type, Class<?> rawSupertype)
+	private static Type getResolvedSupertypeInternal(Type type, Type rawSupertype)
 	{
-		Class<?> rawCurrentType = TypeUtils.getErasedReferenceType(type);
+		Type rawCurrentType = getErasedClassType(type);
 		
-		if (rawSupertype.equals(rawCurrentType))
+		if (rawSupertype.equals(rawCurrentType)
+			|| (!(rawSupertype instanceof Class<?> && rawCurrentType instanceof Class<?>)
+				&& getClassName(rawSupertype).equals(getClassName(rawCurrentType))))
 		{
 			return type;
 		}
@@ -757,7 +2357,7 @@ public final class TypeUtils
 		
 		for (Type interfaceType : TypeUtils.getResolvedInterfaces(type))
 		{
-			Type resolvedType = getResolvedSupertype(interfaceType, rawSupertype);
+			Type resolvedType = getResolvedSupertypeInternal(interfaceType, rawSupertype);
 			
 			if (resolvedType != null)
 			{
@@ -774,6 +2374,6 @@ public final class TypeUtils
 			return null;
 		}
 		
-		return getResolvedSupertype(supertype, rawSupertype);
+		return getResolvedSupertypeInternal(supertype, rawSupertype);
 	}
 }
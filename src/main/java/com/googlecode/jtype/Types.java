@@ -22,6 +22,7 @@ import java.lang.reflect.WildcardType;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
@@ -47,6 +48,13 @@ public final class Types
 	
 	private static final Pattern LOWER_BOUND_PATTERN = Pattern.compile("^\\?\\s+super\\s+");
 	
+	/**
+	 * Interned canonical types keyed by their kind and components, which do not refer to the interned types
+	 * themselves so that they can be garbage collected.
+	 */
+	private static final SoftCache<List<Object>, Type> INTERNED_TYPES_BY_COMPONENTS =
+		new SoftCache<List<Object>, Type>();
+	
 	// constructors -----------------------------------------------------------
 	
 	private Types()
@@ -187,16 +195,244 @@ public final class Types
 	 *             if the import context contains duplicate entries for an unqualified class name
 	 */
 	public static Type valueOf(String typeName, Set<String> imports)
+	{
+		return valueOf(typeName, imports, false);
+	}
+	
+	/**
+	 * Returns a type that corresponds to the specified string using the specified import context, optionally
+	 * initializing any classes that it refers to.
+	 * <p>
+	 * Classes are not initialized by the other {@code valueOf} methods, which avoids running static initializers when
+	 * only the type is required.
+	 * 
+	 * @param typeName
+	 *            the string to be parsed
+	 * @param imports
+	 *            the fully qualified class names to use when an unqualified class name is encountered, or {@code null}
+	 *            for none
+	 * @param initialize
+	 *            whether classes should be initialized when they are found
+	 * @return the type
+	 * @throws IllegalArgumentException
+	 *             if the import context contains duplicate entries for an unqualified class name
+	 */
+	public static Type valueOf(String typeName, Set<String> imports, boolean initialize)
 	{
 		checkNotNull(typeName, "typeName");
 		
 		Map<String, String> importMap = createImportMap(imports);
 		
-		return valueOf(typeName, importMap);
+		return valueOf(typeName, importMap, initialize);
+	}
+	
+	/**
+	 * Returns a type that corresponds to the specified JVM generic signature, for example
+	 * {@code Ljava/util/List<Ljava/lang/String;>;}.
+	 * <p>
+	 * Parsed types are cached per context class loader.
+	 * 
+	 * @param signature
+	 *            the field type signature to be parsed
+	 * @return the type
+	 * @throws IllegalArgumentException
+	 *             if the signature is malformed, refers to a class that cannot be found or refers to a type variable
+	 * @see <a href="http://docs.oracle.com/javase/specs/jvms/se7/html/jvms-4.html#jvms-4.3.4">4.3.4 Signatures</a>
+	 */
+	public static Type fromSignature(String signature)
+	{
+		checkNotNull(signature, "signature");
+		
+		return SignatureParser.parseSignature(signature);
+	}
+	
+	/**
+	 * Returns a type that corresponds to the specified JVM generic signature, resolving any type variables against the
+	 * specified generic declaration and its enclosing declarations.
+	 * 
+	 * @param signature
+	 *            the field type signature to be parsed
+	 * @param declaration
+	 *            the generic declaration to resolve type variables against
+	 * @return the type
+	 * @throws IllegalArgumentException
+	 *             if the signature is malformed, refers to a class that cannot be found or refers to a type variable
+	 *             that is not declared in scope of the generic declaration
+	 */
+	public static Type fromSignature(String signature, GenericDeclaration declaration)
+	{
+		checkNotNull(signature, "signature");
+		checkNotNull(declaration, "declaration");
+		
+		return SignatureParser.parseSignature(signature, declaration);
+	}
+	
+	/**
+	 * Returns a class that corresponds to the specified JVM field descriptor, for example {@code [Ljava/lang/String;}.
+	 * 
+	 * @param descriptor
+	 *            the field descriptor to be parsed
+	 * @return the type
+	 * @throws IllegalArgumentException
+	 *             if the descriptor is malformed or refers to a class that cannot be found
+	 * @see <a href="http://docs.oracle.com/javase/specs/jvms/se7/html/jvms-4.html#jvms-4.3.2">4.3.2 Field
+	 *      Descriptors</a>
+	 */
+	public static Type fromDescriptor(String descriptor)
+	{
+		checkNotNull(descriptor, "descriptor");
+		
+		return SignatureParser.parseDescriptor(descriptor);
+	}
+	
+	/**
+	 * Converts the specified type into this library's implementations of the types that it is composed of.
+	 * 
+	 * @param type
+	 *            the type to canonicalize
+	 * @return the canonical type
+	 * @see #canonicalize(Type, boolean)
+	 */
+	public static Type canonicalize(Type type)
+	{
+		return canonicalize(type, false);
+	}
+	
+	/**
+	 * Converts the specified type into this library's implementations of the types that it is composed of, such as
+	 * those provided by {@code Field.getGenericType()}, so that their components can be accessed without being copied.
+	 * <p>
+	 * Parameterized types, generic array types and wildcard types are converted at every level of the type, whereas
+	 * classes and type variables are retained since they are identified by their declaration. Types that are already
+	 * canonical are returned unchanged. Interned types are shared by every equal type that is canonicalized with
+	 * interning, until they are no longer used and memory is low.
+	 * 
+	 * @param type
+	 *            the type to canonicalize
+	 * @param intern
+	 *            whether to return the interned instance of the canonical type
+	 * @return the canonical type, which is equal to the specified type
+	 */
+	public static Type canonicalize(Type type, boolean intern)
+	{
+		checkNotNull(type, "type");
+		
+		return canonicalizeInternal(type, intern);
 	}
 	
 	// private methods --------------------------------------------------------
 	
+	private static Type canonicalizeInternal(Type type, boolean intern)
+	{
+		if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() instanceof Class<?>)
+		{
+			return canonicalizeParameterizedType((ParameterizedType) type, intern);
+		}
+		
+		if (type instanceof GenericArrayType)
+		{
+			return canonicalizeGenericArrayType((GenericArrayType) type, intern);
+		}
+		
+		if (type instanceof WildcardType)
+		{
+			return canonicalizeWildcardType((WildcardType) type, intern);
+		}
+		
+		// classes, type variables and class file types are already canonical
+		return type;
+	}
+	
+	private static Type canonicalizeParameterizedType(ParameterizedType type, boolean intern)
+	{
+		Type ownerType = type.getOwnerType();
+		Type canonicalOwnerType = (ownerType != null) ? canonicalizeInternal(ownerType, intern) : null;
+		Class<?> rawType = (Class<?>) type.getRawType();
+		Type[] typeArgs = type.getActualTypeArguments();
+		boolean changed = canonicalize(typeArgs, intern);
+		
+		if (changed || canonicalOwnerType != ownerType || !(type instanceof DefaultParameterizedType))
+		{
+			type = new DefaultParameterizedType(canonicalOwnerType, rawType, typeArgs);
+		}
+		
+		if (!intern)
+		{
+			return type;
+		}
+		
+		return intern(type, Arrays.<Object>asList(ParameterizedType.class, type.getOwnerType(), rawType,
+			Arrays.asList(typeArgs)));
+	}
+	
+	private static Type canonicalizeGenericArrayType(GenericArrayType type, boolean intern)
+	{
+		Type componentType = type.getGenericComponentType();
+		Type canonicalComponentType = canonicalizeInternal(componentType, intern);
+		
+		if (canonicalComponentType != componentType || !(type instanceof DefaultGenericArrayType))
+		{
+			type = new DefaultGenericArrayType(canonicalComponentType);
+		}
+		
+		if (!intern)
+		{
+			return type;
+		}
+		
+		return intern(type, Arrays.<Object>asList(GenericArrayType.class, canonicalComponentType));
+	}
+	
+	private static Type canonicalizeWildcardType(WildcardType type, boolean intern)
+	{
+		Type[] upperBounds = type.getUpperBounds();
+		Type[] lowerBounds = type.getLowerBounds();
+		boolean changed = canonicalize(upperBounds, intern) | canonicalize(lowerBounds, intern);
+		
+		if (!(type instanceof DefaultWildcardType))
+		{
+			type = UNBOUNDED_WILDCARD_TYPE.equals(type) ? UNBOUNDED_WILDCARD_TYPE
+				: wildcardType(upperBounds, lowerBounds);
+		}
+		else if (changed)
+		{
+			type = wildcardType(upperBounds, lowerBounds);
+		}
+		
+		if (!intern)
+		{
+			return type;
+		}
+		
+		return intern(type, Arrays.<Object>asList(WildcardType.class, Arrays.asList(upperBounds),
+			Arrays.asList(lowerBounds)));
+	}
+	
+	private static boolean canonicalize(Type[] types, boolean intern)
+	{
+		boolean changed = false;
+		
+		for (int i = 0; i < types.length; i++)
+		{
+			Type canonicalType = canonicalizeInternal(types[i], intern);
+			
+			if (canonicalType != types[i])
+			{
+				types[i] = canonicalType;
+				changed = true;
+			}
+		}
+		
+		return changed;
+	}
+	
+	private static Type intern(Type type, List<Object> components)
+	{
+		Type internedType = INTERNED_TYPES_BY_COMPONENTS.get(components);
+		
+		return (internedType != null) ? internedType : INTERNED_TYPES_BY_COMPONENTS.put(components, type);
+	}
+	
 	private static WildcardType wildcardType(Type[] upperBounds, Type[] lowerBounds)
 	{
 		return new DefaultWildcardType(upperBounds, lowerBounds);
@@ -227,28 +463,35 @@ public final class Types
 		return importMap;
 	}
 	
-	private static Type valueOf(String typeName, Map<String, String> imports)
+	private static Type valueOf(String typeName, Map<String, String> imports, boolean initialize)
 	{
 		typeName = typeName.trim();
 		
 		// handle arrays
 		
 		Matcher arrayMatcher = ARRAY_PATTERN.matcher(typeName);
+		int dimensions = 0;
 		
-		if (arrayMatcher.find())
+		while (arrayMatcher.find())
 		{
-			String componentName = typeName.substring(0, arrayMatcher.start());
+			typeName = typeName.substring(0, arrayMatcher.start()).trim();
+			dimensions++;
 			
-			Type componentType = valueOf(componentName, imports);
+			arrayMatcher.reset(typeName);
+		}
+		
+		if (dimensions > 0)
+		{
+			Type componentType = valueOf(typeName, imports, initialize);
 			
-			return TypeUtils.getArrayType(componentType);
+			return TypeUtils.getArrayType(componentType, dimensions);
 		}
 		
 		// handle wildcards
 		
 		if (typeName.startsWith("?"))
 		{
-			return parseWildcardType(typeName, imports);
+			return parseWildcardType(typeName, imports, initialize);
 		}
 		
 		// handle classes
@@ -257,7 +500,7 @@ public final class Types
 		
 		if (argStart == -1)
 		{
-			return parseClass(typeName, imports);
+			return parseClass(typeName, imports, initialize);
 		}
 		
 		// handle parameterized types
@@ -270,22 +513,22 @@ public final class Types
 		}
 		
 		String rawTypeName = typeName.substring(0, argStart).trim();
-		Class<?> rawType = parseClass(rawTypeName, imports);
+		Class<?> rawType = parseClass(rawTypeName, imports, initialize);
 		
 		String[] actualTypeArgumentNames = typeName.substring(argStart + 1, argEnd).split(",");
 		Type[] actualTypeArguments = new Type[actualTypeArgumentNames.length];
 		
 		for (int i = 0; i < actualTypeArgumentNames.length; i++)
 		{
-			actualTypeArguments[i] = valueOf(actualTypeArgumentNames[i], imports);
+			actualTypeArguments[i] = valueOf(actualTypeArgumentNames[i], imports, initialize);
 		}
 		
 		return parameterizedType(rawType, actualTypeArguments);
 	}
 	
-	private static Class<?> parseClass(String className, Map<String, String> imports)
+	private static Class<?> parseClass(String className, Map<String, String> imports, boolean initialize)
 	{
-		Class<?> klass = ClassUtils.valueOf(className);
+		Class<?> klass = ClassUtils.valueOf(className, initialize);
 		
 		if (klass != null)
 		{
@@ -296,7 +539,7 @@ public final class Types
 		{
 			String qualifiedClassName = imports.get(className);
 			
-			klass = ClassUtils.valueOf(qualifiedClassName);
+			klass = ClassUtils.valueOf(qualifiedClassName, initialize);
 			
 			if (klass != null)
 			{
@@ -307,7 +550,7 @@ public final class Types
 		throw new IllegalArgumentException("Class not found: " + className);
 	}
 	
-	private static WildcardType parseWildcardType(String typeName, Map<String, String> imports)
+	private static WildcardType parseWildcardType(String typeName, Map<String, String> imports, boolean initialize)
 	{
 		Type[] upperBounds;
 		Type[] lowerBounds;
@@ -323,7 +566,7 @@ public final class Types
 		else if ((upperBoundMatcher = UPPER_BOUND_PATTERN.matcher(typeName)).find())
 		{
 			String upperBoundName = typeName.substring(upperBoundMatcher.end());
-			Type upperBound = valueOf(upperBoundName, imports);
+			Type upperBound = valueOf(upperBoundName, imports, initialize);
 			
 			upperBounds = new Type[] {upperBound};
 			lowerBounds = null;
@@ -331,7 +574,7 @@ public final class Types
 		else if ((lowerBoundMatcher = LOWER_BOUND_PATTERN.matcher(typeName)).find())
 		{
 			String lowerBoundName = typeName.substring(lowerBoundMatcher.end());
-			Type lowerBound = valueOf(lowerBoundName, imports);
+			Type lowerBound = valueOf(lowerBoundName, imports, initialize);
 			
 			upperBounds = null;
 			lowerBounds = new Type[] {lowerBound};
@@ -0,0 +1,185 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Concurrent cache whose keys are weakly referenced and compared by identity.
+ * <p>
+ * Keys, such as classes, can be garbage collected while they are cached. Entries for collected keys are purged as new
+ * values are cached. Values are strongly referenced, so they must not strongly reference their keys.
+ * 
+ * @author Mark Hobson
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+final class WeakCache<K, V>
+{
+	// classes ----------------------------------------------------------------
+	
+	private static final class KeyReference<K> extends WeakReference<K>
+	{
+		private final int hashCode;
+		
+		public KeyReference(K key, ReferenceQueue<? super K> queue)
+		{
+			super(key, queue);
+			
+			hashCode = System.identityHashCode(key);
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return hashCode;
+		}
+		
+		@Override
+		public boolean equals(Object object)
+		{
+			if (this == object)
+			{
+				return true;
+			}
+			
+			if (!(object instanceof KeyReference<?>))
+			{
+				return false;
+			}
+			
+			Object key = get();
+			
+			return key != null && key == ((KeyReference<?>) object).get();
+		}
+	}
+	
+	/**
+	 * Looks up a key without creating a reference to it. {@code Map.get} compares the specified key to the keys of the
+	 * map, so only this side of the comparison needs to know about key references.
+	 */
+	private static final class LookupKey
+	{
+		private Object key;
+		
+		public void set(Object key)
+		{
+			this.key = key;
+		}
+		
+		public void clear()
+		{
+			key = null;
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return System.identityHashCode(key);
+		}
+		
+		@Override
+		public boolean equals(Object object)
+		{
+			return (object instanceof KeyReference<?>) && ((KeyReference<?>) object).get() == key;
+		}
+	}
+	
+	// constants --------------------------------------------------------------
+	
+	/**
+	 * Reusable lookup keys, one per thread, so that looking up a value does not allocate.
+	 */
+	private static final ThreadLocal<LookupKey> LOOKUP_KEYS = new ThreadLocal<LookupKey>()
+	{
+		@Override
+		protected LookupKey initialValue()
+		{
+			return new LookupKey();
+		}
+	};
+	
+	// fields -----------------------------------------------------------------
+	
+	private final ConcurrentMap<Object, V> valuesByKey;
+	
+	private final ReferenceQueue<K> queue;
+	
+	// constructors -----------------------------------------------------------
+	
+	public WeakCache()
+	{
+		valuesByKey = new ConcurrentHashMap<Object, V>();
+		queue = new ReferenceQueue<K>();
+	}
+	
+	// public methods ---------------------------------------------------------
+	
+	public V get(Object key)
+	{
+		LookupKey lookupKey = LOOKUP_KEYS.get();
+		
+		lookupKey.set(key);
+		
+		try
+		{
+			return valuesByKey.get(lookupKey);
+		}
+		finally
+		{
+			// release the key so that the thread cannot keep it reachable
+			lookupKey.clear();
+		}
+	}
+	
+	public void put(K key, V value)
+	{
+		purge();
+		
+		valuesByKey.put(new KeyReference<K>(key, queue), value);
+	}
+	
+	/**
+	 * Caches the specified value unless another value has been concurrently cached for the same key.
+	 * 
+	 * @param key
+	 *            the key to cache the value by
+	 * @param value
+	 *            the value to cache
+	 * @return the cached value, which is the existing value if one was already cached
+	 */
+	public V putIfAbsent(K key, V value)
+	{
+		purge();
+		
+		V existingValue = valuesByKey.putIfAbsent(new KeyReference<K>(key, queue), value);
+		
+		return (existingValue != null) ? existingValue : value;
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private void purge()
+	{
+		Object reference;
+		
+		while ((reference = queue.poll()) != null)
+		{
+			valuesByKey.remove(reference);
+		}
+	}
+}
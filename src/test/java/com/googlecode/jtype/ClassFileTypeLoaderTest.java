@@ -0,0 +1,292 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@code ClassFileTypeLoader}.
+ * 
+ * @author Mark Hobson
+ * @see ClassFileTypeLoader
+ */
+public class ClassFileTypeLoaderTest
+{
+	// classes ----------------------------------------------------------------
+	
+	private static class Uninitialized<T extends Comparable<T>>
+	{
+		static
+		{
+			initialized = true;
+		}
+	}
+	
+	private static class Outer<T>
+	{
+		private class Inner
+		{
+			// used by fromSignature tests
+		}
+	}
+	
+	// fields -----------------------------------------------------------------
+	
+	private static boolean initialized;
+	
+	private ClassFileTypeLoader loader;
+	
+	// public methods ---------------------------------------------------------
+	
+	@Before
+	public void setUp()
+	{
+		loader = new ClassFileTypeLoader();
+	}
+	
+	@After
+	public void tearDown() throws IOException
+	{
+		loader.close();
+	}
+	
+	// getType tests ----------------------------------------------------------
+	
+	@Test
+	public void getTypeWithPrimitive()
+	{
+		assertEquals(int.class, loader.getType("int"));
+	}
+	
+	@Test
+	public void getTypeWithClass()
+	{
+		Type type = loader.getType("java.util.ArrayList");
+		
+		assertTrue(type instanceof ClassFileClass);
+		assertEquals("java.util.ArrayList", type.toString());
+	}
+	
+	@Test
+	public void getTypeWithSameClass()
+	{
+		assertSame(loader.getType("java.util.ArrayList"), loader.getType("java.util.ArrayList"));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void getTypeWithUnknownClass()
+	{
+		loader.getType("com.googlecode.jtype.Unknown");
+	}
+	
+	@Test
+	public void getTypeDoesNotInitializeClass()
+	{
+		ClassFileClass type = (ClassFileClass) loader.getType(Uninitialized.class.getName());
+		
+		TypeVariable<ClassFileClass>[] typeParameters = type.getTypeParameters();
+		
+		assertEquals(1, typeParameters.length);
+		assertEquals("T", typeParameters[0].getName());
+		assertEquals(loader.getType("java.lang.Comparable"), TypeUtils.getErasedType(typeParameters[0].getBounds()[0]));
+		assertEquals(typeParameters[0], TypeUtils.getActualTypeArgument(typeParameters[0].getBounds()[0], 0));
+		assertFalse(initialized);
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void getTypeWithNull()
+	{
+		loader.getType(null);
+	}
+	
+	// fromSignature tests ----------------------------------------------------
+	
+	@Test
+	public void fromSignatureWithParameterizedType()
+	{
+		Type type = loader.fromSignature("Ljava/util/Map<Ljava/lang/String;+Ljava/lang/Number;>;");
+		
+		assertEquals("java.util.Map<java.lang.String, ? extends java.lang.Number>", type.toString());
+		assertEquals("Ljava/util/Map<Ljava/lang/String;+Ljava/lang/Number;>;", TypeUtils.toSignature(type));
+	}
+	
+	@Test
+	public void fromSignatureWithArray()
+	{
+		Type type = loader.fromSignature("[Ljava/util/List<Ljava/lang/String;>;");
+		
+		assertEquals("java.util.List<java.lang.String>[]", type.toString());
+		assertEquals("[Ljava/util/List;", TypeUtils.toDescriptor(type));
+	}
+	
+	@Test
+	public void fromSignatureWithParameterizedMemberClass()
+	{
+		Type type = loader.fromSignature("Ljava/util/Map$Entry<Ljava/lang/String;Ljava/lang/Integer;>;");
+		
+		assertEquals(loader.getType("java.util.Map"), ((ParameterizedType) type).getOwnerType());
+	}
+	
+	@Test
+	public void fromSignatureWithInnerClassOfParameterizedType()
+	{
+		String ownerSignature = "Lcom/googlecode/jtype/ClassFileTypeLoaderTest$Outer<Ljava/lang/String;>";
+		Type ownerType = loader.fromSignature(ownerSignature + ";");
+		Type type = loader.fromSignature(ownerSignature + ".Inner;");
+		
+		assertTrue(type instanceof ParameterizedType);
+		assertEquals(0, ((ParameterizedType) type).getActualTypeArguments().length);
+		assertEquals(ownerType, ((ParameterizedType) type).getOwnerType());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void fromSignatureWithTypeVariable()
+	{
+		loader.fromSignature("TT;");
+	}
+	
+	// isAssignable tests -----------------------------------------------------
+	
+	@Test
+	public void isAssignableWithSubclass()
+	{
+		assertTrue(TypeUtils.isAssignable(loader.getType("java.util.List"), loader.getType("java.util.ArrayList")));
+	}
+	
+	@Test
+	public void isAssignableWithSuperclass()
+	{
+		assertFalse(TypeUtils.isAssignable(loader.getType("java.util.ArrayList"), loader.getType("java.util.List")));
+	}
+	
+	@Test
+	public void isAssignableWithObjectAndInterface()
+	{
+		assertTrue(TypeUtils.isAssignable(Object.class, loader.getType("java.util.List")));
+	}
+	
+	@Test
+	public void isAssignableWithClassAndSubclass()
+	{
+		assertTrue(TypeUtils.isAssignable(List.class, loader.getType("java.util.ArrayList")));
+	}
+	
+	@Test
+	public void isAssignableWithParameterizedTypes()
+	{
+		Type supertype = loader.fromSignature("Ljava/util/List<Ljava/lang/String;>;");
+		Type type = loader.fromSignature("Ljava/util/ArrayList<Ljava/lang/String;>;");
+		
+		assertTrue(TypeUtils.isAssignable(supertype, type));
+	}
+	
+	@Test
+	public void isAssignableWithParameterizedTypesAndDifferentArguments()
+	{
+		Type supertype = loader.fromSignature("Ljava/util/List<Ljava/lang/String;>;");
+		Type type = loader.fromSignature("Ljava/util/ArrayList<Ljava/lang/Integer;>;");
+		
+		assertFalse(TypeUtils.isAssignable(supertype, type));
+	}
+	
+	@Test
+	public void isAssignableWithWildcardParameterizedType()
+	{
+		Type supertype = loader.fromSignature("Ljava/util/Collection<+Ljava/lang/Number;>;");
+		Type type = loader.fromSignature("Ljava/util/ArrayList<Ljava/lang/Integer;>;");
+		
+		assertTrue(TypeUtils.isAssignable(supertype, type));
+	}
+	
+	@Test
+	public void isAssignableWithIndirectInterface()
+	{
+		assertTrue(TypeUtils.isAssignable(loader.getType("java.lang.Iterable"), loader.getType("java.util.ArrayList")));
+	}
+	
+	@Test
+	public void isAssignableWithUnrelatedClass()
+	{
+		assertFalse(TypeUtils.isAssignable(loader.getType("java.util.Map"), loader.getType("java.util.ArrayList")));
+	}
+	
+	@Test
+	public void isAssignableWithParameterizedTypeAndUnrelatedClass()
+	{
+		Type supertype = loader.fromSignature("Ljava/util/Map<Ljava/lang/String;Ljava/lang/String;>;");
+		
+		assertFalse(TypeUtils.isAssignable(supertype, loader.getType("java.util.ArrayList")));
+	}
+	
+	@Test
+	public void isAssignableWithParameterizedTypeAndSubclass()
+	{
+		Type supertype = loader.fromSignature("Ljava/util/Collection<Ljava/lang/String;>;");
+		Type type = loader.fromSignature("Ljava/util/ArrayList<Ljava/lang/String;>;");
+		
+		assertTrue(TypeUtils.isAssignable(supertype, type));
+	}
+	
+	// getResolvedSupertype tests ---------------------------------------------
+	
+	@Test
+	public void getResolvedSupertypeWithInterface()
+	{
+		Type type = loader.fromSignature("Ljava/util/ArrayList<Ljava/lang/String;>;");
+		
+		Type supertype = TypeUtils.getResolvedSupertype(type, loader.getType("java.util.Collection"));
+		
+		assertEquals("java.util.Collection<java.lang.String>", supertype.toString());
+	}
+	
+	@Test
+	public void getResolvedSupertypeWithClass()
+	{
+		Type type = loader.fromSignature("Ljava/util/ArrayList<Ljava/lang/String;>;");
+		
+		Type supertype = TypeUtils.getResolvedSupertype(type, List.class);
+		
+		assertEquals("java.util.List<java.lang.String>", supertype.toString());
+	}
+	
+	@Test
+	public void getResolvedSupertypeWithUnrelatedClass()
+	{
+		Type type = loader.fromSignature("Ljava/util/ArrayList<Ljava/lang/String;>;");
+		
+		assertNull(TypeUtils.getResolvedSupertype(type, loader.getType("java.util.Map")));
+	}
+	
+	@Test
+	public void getResolvedInterfacesWithRawClass()
+	{
+		Type[] interfaces = TypeUtils.getResolvedInterfaces(loader.getType("java.lang.Integer"));
+		
+		assertEquals(loader.fromSignature("Ljava/lang/Comparable<Ljava/lang/Integer;>;"), interfaces[0]);
+	}
+}
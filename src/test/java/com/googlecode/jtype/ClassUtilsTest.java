@@ -16,6 +16,7 @@ package com.googlecode.jtype;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 /**
  * Tests {@code ClassUtils}.
@@ -81,6 +82,36 @@ public class ClassUtilsTest
 		assertEquals("E", ClassUtils.getSimpleClassName("a.b.C$D$E"));
 	}
 	
+	@Test
+	public void getDescriptorWithPrimitive()
+	{
+		assertEquals("D", ClassUtils.getDescriptor(Double.TYPE));
+	}
+	
+	@Test
+	public void getDescriptorWithVoid()
+	{
+		assertEquals("V", ClassUtils.getDescriptor(Void.TYPE));
+	}
+	
+	@Test
+	public void getDescriptorWithClass()
+	{
+		assertEquals("Ljava/lang/Object;", ClassUtils.getDescriptor(Object.class));
+	}
+	
+	@Test
+	public void getDescriptorWithPrimitiveArray()
+	{
+		assertEquals("[[I", ClassUtils.getDescriptor(int[][].class));
+	}
+	
+	@Test
+	public void getDescriptorWithClassArray()
+	{
+		assertEquals("[Ljava/lang/String;", ClassUtils.getDescriptor(String[].class));
+	}
+	
 	@Test
 	public void valueOfWithBooleanPrimitive()
 	{
@@ -134,4 +165,34 @@ public class ClassUtilsTest
 	{
 		assertEquals(Integer.class, ClassUtils.valueOf("java.lang.Integer"));
 	}
+	
+	@Test
+	public void getArrayTypeWithClass()
+	{
+		assertEquals(String[].class, ClassUtils.getArrayType(String.class));
+	}
+	
+	@Test
+	public void getArrayTypeWithPrimitive()
+	{
+		assertEquals(int[].class, ClassUtils.getArrayType(int.class));
+	}
+	
+	@Test
+	public void getArrayTypeWithClassIsCached()
+	{
+		assertSame(ClassUtils.getArrayType(String.class), ClassUtils.getArrayType(String.class));
+	}
+	
+	@Test
+	public void getArrayTypeWithDimensions()
+	{
+		assertEquals(String[][][].class, ClassUtils.getArrayType(String.class, 3));
+	}
+	
+	@Test
+	public void getArrayTypeWithZeroDimensions()
+	{
+		assertEquals(String.class, ClassUtils.getArrayType(String.class, 0));
+	}
 }
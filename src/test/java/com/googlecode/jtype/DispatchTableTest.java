@@ -0,0 +1,276 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.googlecode.jtype.test.AbstractTypeTest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests {@code DispatchTable}.
+ * 
+ * @author Mark Hobson
+ * @see DispatchTable
+ */
+public class DispatchTableTest extends AbstractTypeTest
+{
+	// types ------------------------------------------------------------------
+	
+	private static class Handlers
+	{
+		public void handle(Object object)
+		{
+			// general handler
+		}
+		
+		public void handle(Integer integer)
+		{
+			// specific handler
+		}
+		
+		public void handle(Long value)
+		{
+			// specific handler
+		}
+		
+		public <T extends CharSequence> void handle(List<T> list)
+		{
+			// generic handler
+		}
+	}
+	
+	// AbstractTypeTest methods -----------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void addImports(Set<Class<?>> imports)
+	{
+		imports.add(String.class);
+		imports.add(Number.class);
+		imports.add(Integer.class);
+		imports.add(List.class);
+		imports.add(Collection.class);
+	}
+	
+	// tests ------------------------------------------------------------------
+	
+	@Test
+	public void getWithExactType()
+	{
+		DispatchTable<String> table = table("object", Object.class, "number", Number.class, "integer",
+			Integer.class);
+		
+		assertEquals("number", table.get(Number.class));
+	}
+	
+	@Test
+	public void getWithSubtype()
+	{
+		DispatchTable<String> table = table("object", Object.class, "number", Number.class, "integer",
+			Integer.class);
+		
+		assertEquals("number", table.get(Double.class));
+		assertEquals("object", table.get(String.class));
+	}
+	
+	@Test
+	public void getWithNoApplicableTarget()
+	{
+		DispatchTable<String> table = table("number", Number.class);
+		
+		assertNull(table.get(String.class));
+	}
+	
+	@Test
+	public void getWithDifferentArity()
+	{
+		DispatchTable<String> table = table("number", Number.class);
+		
+		assertNull(table.get(Integer.class, Integer.class));
+	}
+	
+	@Test
+	public void getWithParameterizedTypes()
+	{
+		DispatchTable<String> table = table("collection", type("Collection<? extends Number>"), "list",
+			type("List<? extends Number>"), "object", Object.class);
+		
+		assertEquals("list", table.get(type("List<Integer>")));
+		assertEquals("collection", table.get(type("Collection<Integer>")));
+		assertEquals("object", table.get(type("List<String>")));
+	}
+	
+	@Test
+	public void getWithMultipleParameters()
+	{
+		Map<String, Type[]> signaturesByTarget = new LinkedHashMap<String, Type[]>();
+		signaturesByTarget.put("objectObject", new Type[] {Object.class, Object.class});
+		signaturesByTarget.put("numberObject", new Type[] {Number.class, Object.class});
+		signaturesByTarget.put("objectNumber", new Type[] {Object.class, Number.class});
+		signaturesByTarget.put("numberNumber", new Type[] {Number.class, Number.class});
+		
+		DispatchTable<String> table = new DispatchTable<String>(signaturesByTarget);
+		
+		assertEquals("numberObject", table.get(Integer.class, String.class));
+		assertEquals("objectNumber", table.get(String.class, Integer.class));
+		assertEquals("numberNumber", table.get(Integer.class, Integer.class));
+	}
+	
+	@Test
+	public void getWithPrimitiveType()
+	{
+		DispatchTable<String> table = table("int", int.class, "long", long.class);
+		
+		assertEquals("int", table.get(int.class));
+		assertEquals("int", table.get(short.class));
+	}
+	
+	@Test
+	public void getTargetsIsOrderedBySpecificity()
+	{
+		DispatchTable<String> table = table("object", Object.class, "number", Number.class, "integer",
+			Integer.class);
+		
+		assertEquals(Arrays.asList("integer", "number", "object"), table.getTargets());
+	}
+	
+	@Test
+	public void getSignature()
+	{
+		DispatchTable<String> table = table("number", Number.class);
+		
+		assertArrayEquals(new Type[] {Number.class}, table.getSignature("number"));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void getSignatureWithUnknownTarget()
+	{
+		table("number", Number.class).getSignature("integer");
+	}
+	
+	@Test
+	public void forMethods() throws NoSuchMethodException
+	{
+		DispatchTable<Method> table = DispatchTable.forMethods(getHandlerMethods());
+		
+		assertEquals(Handlers.class.getMethod("handle", Integer.class), table.get(Integer.class));
+		assertEquals(Handlers.class.getMethod("handle", Long.class), table.get(Long.class));
+		assertEquals(Handlers.class.getMethod("handle", List.class), table.get(type("List<String>")));
+		assertEquals(Handlers.class.getMethod("handle", Object.class), table.get(String.class));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorWithAmbiguousInterfaces()
+	{
+		table("serializable", Serializable.class, "comparable", Comparable.class);
+	}
+	
+	@Test
+	public void constructorWithFinalClassAndInterface()
+	{
+		DispatchTable<String> table = table("integer", Integer.class, "list", List.class);
+		
+		assertEquals("integer", table.get(Integer.class));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorWithAmbiguousClassAndInterface()
+	{
+		table("number", Number.class, "list", List.class);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorWithAmbiguousParameters()
+	{
+		Map<String, Type[]> signaturesByTarget = new LinkedHashMap<String, Type[]>();
+		signaturesByTarget.put("numberObject", new Type[] {Number.class, Object.class});
+		signaturesByTarget.put("objectNumber", new Type[] {Object.class, Number.class});
+		
+		new DispatchTable<String>(signaturesByTarget);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorWithDuplicateSignatures()
+	{
+		table("number1", Number.class, "number2", Number.class);
+	}
+	
+	@Test
+	public void constructorWithUnrelatedClasses()
+	{
+		DispatchTable<String> table = table("string", String.class, "integer", Integer.class);
+		
+		assertEquals("string", table.get(String.class));
+		assertEquals("integer", table.get(Integer.class));
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void constructorWithNullSignature()
+	{
+		new DispatchTable<String>(Collections.<String, Type[]>singletonMap("null", null));
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void getWithNullArgumentType()
+	{
+		table("number", Number.class).get((Type) null);
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private static DispatchTable<String> table(Object... targetsAndTypes)
+	{
+		Map<String, Type[]> signaturesByTarget = new LinkedHashMap<String, Type[]>();
+		
+		for (int i = 0; i < targetsAndTypes.length; i += 2)
+		{
+			signaturesByTarget.put((String) targetsAndTypes[i], new Type[] {(Type) targetsAndTypes[i + 1]});
+		}
+		
+		return new DispatchTable<String>(signaturesByTarget);
+	}
+	
+	private static List<Method> getHandlerMethods()
+	{
+		List<Method> methods = new ArrayList<Method>();
+		
+		for (Method method : Handlers.class.getDeclaredMethods())
+		{
+			if (method.getName().equals("handle"))
+			{
+				methods.add(method);
+			}
+		}
+		
+		return methods;
+	}
+}
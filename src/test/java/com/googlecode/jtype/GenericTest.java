@@ -15,10 +15,15 @@ package com.googlecode.jtype;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.MalformedParameterizedTypeException;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.List;
 import java.util.Map;
 
@@ -30,6 +35,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import static com.googlecode.jtype.test.MemoryAssert.assertCollected;
 import static com.googlecode.jtype.test.SerializableAssert.assertSerializable;
 
 /**
@@ -49,6 +55,11 @@ public class GenericTest implements Serializable
 		// simple subclass
 	}
 	
+	private static class CollectableFake
+	{
+		// loaded by its own class loader
+	}
+	
 	// fields -----------------------------------------------------------------
 	
 	private transient GenericDeclaration declaration;
@@ -84,6 +95,19 @@ public class GenericTest implements Serializable
 		assertEquals(Types.parameterizedType(List.class, String.class), new Generic<List<String>>() { /**/ }.getType());
 	}
 	
+	@Test
+	public void constructorWhenSubclassedRepeatedlyReusesType()
+	{
+		Type[] types = new Type[2];
+		
+		for (int i = 0; i < types.length; i++)
+		{
+			types[i] = new Generic<List<String>>() { /**/ }.getType();
+		}
+		
+		assertSame(types[0], types[1]);
+	}
+	
 	@Test(expected = IllegalArgumentException.class)
 	public <T> void constructorWhenSubclassedWithTypeVariable()
 	{
@@ -126,6 +150,47 @@ public class GenericTest implements Serializable
 		assertEquals(parameterizedType, Generic.get(List.class, String.class).getType());
 	}
 	
+	@Test
+	public void getWithRawTypeAndActualTypeArgumentIsCached()
+	{
+		assertSame(Generic.get(List.class, String.class), Generic.get(List.class, String.class));
+	}
+	
+	@Test
+	public void getWithRawTypeAndActualTypeArgumentIsSameAsParameterizedType()
+	{
+		assertSame(Generic.get(Types.parameterizedType(List.class, String.class)),
+			Generic.get(List.class, String.class));
+	}
+	
+	@Test
+	public void getWithRawTypeAndTwoActualTypeArguments()
+	{
+		ParameterizedType parameterizedType = Types.parameterizedType(Map.class, String.class, Integer.class);
+		
+		assertEquals(parameterizedType, Generic.get(Map.class, String.class, Integer.class).getType());
+	}
+	
+	@Test
+	public void getWithRawTypeAndTwoActualTypeArgumentsIsCached()
+	{
+		assertSame(Generic.get(Map.class, String.class, Integer.class), Generic.get(Map.class, String.class,
+			Integer.class));
+	}
+	
+	@Test
+	public void getWithRawTypeAndActualTypeArgumentArrayIsCached()
+	{
+		assertSame(Generic.get(Map.class, new Type[] {String.class, Integer.class}), Generic.get(Map.class,
+			String.class, Integer.class));
+	}
+	
+	@Test(expected = MalformedParameterizedTypeException.class)
+	public void getWithRawTypeAndMismatchedActualTypeArguments()
+	{
+		Generic.get(Map.class, String.class);
+	}
+	
 	@Test
 	public void getWithRawTypeAndNullActualTypeArguments()
 	{
@@ -184,6 +249,50 @@ public class GenericTest implements Serializable
 		assertEquals(genericArrayType, Generic.get(genericArrayType).getType());
 	}
 	
+	@Test
+	public void getWithClassIsCached()
+	{
+		assertSame(Generic.get(GenericTest.class), Generic.get(GenericTest.class));
+	}
+	
+	@Test
+	public void getWithParameterizedTypeIsCached()
+	{
+		assertSame(Generic.get(Types.parameterizedType(List.class, String.class)),
+			Generic.get(Types.parameterizedType(List.class, String.class)));
+	}
+	
+	@Test
+	public void getWithGenericArrayTypeIsCached()
+	{
+		assertSame(Generic.get(Types.genericArrayType(Types.parameterizedType(List.class, String.class))),
+			Generic.get(Types.genericArrayType(Types.parameterizedType(List.class, String.class))));
+	}
+	
+	@Test
+	public void getDoesNotPreventClassLoaderCollection() throws ClassNotFoundException
+	{
+		URL url = CollectableFake.class.getProtectionDomain().getCodeSource().getLocation();
+		ClassLoader classLoader = new URLClassLoader(new URL[] {url}, null);
+		Class<?> klass = classLoader.loadClass(CollectableFake.class.getName());
+		
+		Generic.get(klass);
+		Generic.get(List.class, klass);
+		Generic.get(Types.genericArrayType(Types.parameterizedType(List.class, klass)));
+		
+		Reference<ClassLoader> reference = new WeakReference<ClassLoader>(classLoader);
+		classLoader = null;
+		klass = null;
+		
+		assertCollected(reference);
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void getWithNullType()
+	{
+		Generic.get((Type) null);
+	}
+	
 	@Test
 	public void getWithObjectClassIsCached()
 	{
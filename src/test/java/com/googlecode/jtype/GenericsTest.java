@@ -15,19 +15,23 @@ package com.googlecode.jtype;
 
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Queue;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.SortedSet;
+import java.util.concurrent.ConcurrentMap;
 
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 /**
  * Tests {@code Generics}.
@@ -159,6 +163,12 @@ public class GenericsTest
 		assertEquals(new Generic<List<String>>() { /**/ }, Generics.list(String.class));
 	}
 	
+	@Test
+	public void listWithClassIsCached()
+	{
+		assertSame(Generics.list(String.class), Generics.list(String.class));
+	}
+	
 	@Test
 	public void map()
 	{
@@ -184,6 +194,32 @@ public class GenericsTest
 			Generics.sortedMap(String.class, Integer.class));
 	}
 	
+	@Test
+	public void navigableMap()
+	{
+		assertEquals(new Generic<NavigableMap<?, ?>>() { /**/ }, Generics.navigableMap());
+	}
+	
+	@Test
+	public void navigableMapWithClasses()
+	{
+		assertEquals(new Generic<NavigableMap<String, Integer>>() { /**/ },
+			Generics.navigableMap(String.class, Integer.class));
+	}
+	
+	@Test
+	public void concurrentMap()
+	{
+		assertEquals(new Generic<ConcurrentMap<?, ?>>() { /**/ }, Generics.concurrentMap());
+	}
+	
+	@Test
+	public void concurrentMapWithClasses()
+	{
+		assertEquals(new Generic<ConcurrentMap<String, Integer>>() { /**/ },
+			Generics.concurrentMap(String.class, Integer.class));
+	}
+	
 	@Test
 	public void queue()
 	{
@@ -195,4 +231,22 @@ public class GenericsTest
 	{
 		assertEquals(new Generic<Queue<String>>() { /**/ }, Generics.queue(String.class));
 	}
+	
+	@Test
+	public void deque()
+	{
+		assertEquals(new Generic<Deque<?>>() { /**/ }, Generics.deque());
+	}
+	
+	@Test
+	public void dequeIsCached()
+	{
+		assertSame(Generics.deque(), Generics.deque());
+	}
+	
+	@Test
+	public void dequeWithClass()
+	{
+		assertEquals(new Generic<Deque<String>>() { /**/ }, Generics.deque(String.class));
+	}
 }
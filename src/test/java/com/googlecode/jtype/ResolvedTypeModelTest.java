@@ -0,0 +1,388 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.googlecode.jtype.ResolvedTypeModel.Property;
+import com.googlecode.jtype.test.AbstractTypeTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import static com.googlecode.jtype.test.MemoryAssert.assertCollected;
+
+/**
+ * Tests {@code ResolvedTypeModel}.
+ * 
+ * @author Mark Hobson
+ * @see ResolvedTypeModel
+ */
+public class ResolvedTypeModelTest extends AbstractTypeTest
+{
+	// types ------------------------------------------------------------------
+	
+	private static class Entity<ID>
+	{
+		// simple generic bean
+		
+		private ID id;
+		
+		public ID getId()
+		{
+			return id;
+		}
+		
+		public void setId(ID id)
+		{
+			this.id = id;
+		}
+	}
+	
+	private static class Page<T> extends Entity<Integer>
+	{
+		// simple generic bean
+		
+		private List<T> items;
+		
+		private Map<String, T[]> index;
+		
+		public List<T> getItems()
+		{
+			return items;
+		}
+		
+		public void setItems(List<T> items)
+		{
+			this.items = items;
+		}
+		
+		public boolean isEmpty()
+		{
+			return items.isEmpty();
+		}
+		
+		public void setName(String name)
+		{
+			// write-only property
+		}
+		
+		public void setIndex(String index)
+		{
+			// mismatched setter
+		}
+		
+		public Map<String, T[]> getIndex()
+		{
+			return index;
+		}
+		
+		public String getURL()
+		{
+			return null;
+		}
+		
+		public static String getStatic()
+		{
+			return null;
+		}
+	}
+	
+	private static class StringPage extends Page<String>
+	{
+		// simple subtype
+	}
+	
+	private interface Named<T>
+	{
+		T getName();
+	}
+	
+	private static class OverloadedFake
+	{
+		public Integer getCount()
+		{
+			return null;
+		}
+		
+		public void setCount(Object count)
+		{
+			// overloaded setter
+		}
+		
+		public void setCount(Number count)
+		{
+			// overloaded setter
+		}
+		
+		public void setCount(String count)
+		{
+			// overloaded setter
+		}
+		
+		public void setValue(Object value)
+		{
+			// overloaded write-only property
+		}
+		
+		public void setValue(Number value)
+		{
+			// overloaded write-only property
+		}
+	}
+	
+	private static class CollectableFake
+	{
+		public String getName()
+		{
+			return null;
+		}
+	}
+	
+	// AbstractTypeTest methods -----------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void addImports(Set<Class<?>> imports)
+	{
+		imports.add(String.class);
+		imports.add(Integer.class);
+		imports.add(List.class);
+		imports.add(Map.class);
+		imports.add(Page.class);
+		imports.add(Named.class);
+	}
+	
+	// tests ------------------------------------------------------------------
+	
+	@Test
+	public void getFields()
+	{
+		ResolvedTypeModel model = ResolvedTypeModel.get(type("Page<String>"));
+		
+		assertEquals(Arrays.asList(field(Entity.class, "id"), field(Page.class, "items"), field(Page.class, "index")),
+			new ArrayList<Field>(model.getFields()));
+	}
+	
+	@Test
+	public void getFieldTypeWithSupertypeField()
+	{
+		ResolvedTypeModel model = ResolvedTypeModel.get(type("Page<String>"));
+		
+		assertEquals(Integer.class, model.getFieldType(field(Entity.class, "id")));
+	}
+	
+	@Test
+	public void getFieldTypeWithParameterizedType()
+	{
+		ResolvedTypeModel model = ResolvedTypeModel.get(type("Page<String>"));
+		
+		assertEquals(type("List<String>"), model.getFieldType(field(Page.class, "items")));
+	}
+	
+	@Test
+	public void getFieldTypeWithGenericArrayType()
+	{
+		ResolvedTypeModel model = ResolvedTypeModel.get(type("Page<String>"));
+		
+		assertEquals(type("Map<String, String[]>"), model.getFieldType(field(Page.class, "index")));
+	}
+	
+	@Test
+	public void getFieldTypeWithSubtype()
+	{
+		ResolvedTypeModel model = ResolvedTypeModel.get(StringPage.class);
+		
+		assertEquals(type("List<String>"), model.getFieldType(field(Page.class, "items")));
+	}
+	
+	@Test
+	public void getFieldTypeWithRawType()
+	{
+		ResolvedTypeModel model = ResolvedTypeModel.get(Page.class);
+		
+		assertEquals(List.class, model.getFieldType(field(Page.class, "items")));
+		assertEquals(Object.class, model.getFieldType(field(Entity.class, "id")));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void getFieldTypeWithUnknownField()
+	{
+		ResolvedTypeModel.get(type("Entity<String>")).getFieldType(field(Page.class, "items"));
+	}
+	
+	@Test
+	public void getProperties()
+	{
+		ResolvedTypeModel model = ResolvedTypeModel.get(type("Page<String>"));
+		List<String> names = new ArrayList<String>();
+		
+		for (Property property : model.getProperties())
+		{
+			names.add(property.getName());
+		}
+		
+		assertEquals(Arrays.asList("URL", "empty", "id", "index", "items", "name"), names);
+	}
+	
+	@Test
+	public void getPropertyWithGetterAndSetter() throws NoSuchMethodException
+	{
+		Property property = ResolvedTypeModel.get(type("Page<String>")).getProperty("items");
+		
+		assertEquals(type("List<String>"), property.getType());
+		assertEquals(Page.class.getMethod("getItems"), property.getReadMethod());
+		assertEquals(Page.class.getMethod("setItems", List.class), property.getWriteMethod());
+	}
+	
+	@Test
+	public void getPropertyWithSupertypeProperty()
+	{
+		Property property = ResolvedTypeModel.get(type("Page<String>")).getProperty("id");
+		
+		assertEquals(Integer.class, property.getType());
+	}
+	
+	@Test
+	public void getPropertyWithBooleanGetter()
+	{
+		assertEquals(boolean.class, ResolvedTypeModel.get(type("Page<String>")).getProperty("empty").getType());
+	}
+	
+	@Test
+	public void getPropertyWithWriteOnlyProperty()
+	{
+		Property property = ResolvedTypeModel.get(type("Page<String>")).getProperty("name");
+		
+		assertEquals(String.class, property.getType());
+		assertNull(property.getReadMethod());
+	}
+	
+	@Test
+	public void getPropertyWithMismatchedSetter()
+	{
+		Property property = ResolvedTypeModel.get(type("Page<String>")).getProperty("index");
+		
+		assertEquals(type("Map<String, String[]>"), property.getType());
+		assertNull(property.getWriteMethod());
+	}
+	
+	@Test
+	public void getPropertyWithOverloadedSetter() throws NoSuchMethodException
+	{
+		Property property = ResolvedTypeModel.get(OverloadedFake.class).getProperty("count");
+		
+		assertEquals(OverloadedFake.class.getMethod("setCount", Number.class), property.getWriteMethod());
+	}
+	
+	@Test
+	public void getPropertyWithOverloadedWriteOnlyProperty() throws NoSuchMethodException
+	{
+		Property property = ResolvedTypeModel.get(OverloadedFake.class).getProperty("value");
+		
+		assertEquals(Number.class, property.getType());
+		assertEquals(OverloadedFake.class.getMethod("setValue", Number.class), property.getWriteMethod());
+	}
+	
+	@Test
+	public void getPropertyWithInterface()
+	{
+		Property property = ResolvedTypeModel.get(type("Named<Integer>")).getProperty("name");
+		
+		assertEquals(Integer.class, property.getType());
+	}
+	
+	@Test
+	public void getPropertyWithUnknownProperty()
+	{
+		assertNull(ResolvedTypeModel.get(type("Page<String>")).getProperty("static"));
+	}
+	
+	@Test
+	public void getIsCached()
+	{
+		ResolvedTypeModel model = ResolvedTypeModel.get(type("Page<String>"));
+		
+		assertSame(model, ResolvedTypeModel.get(type("Page<String>")));
+	}
+	
+	@Test
+	public void getDoesNotPreventClassLoaderCollection() throws ClassNotFoundException
+	{
+		URL url = CollectableFake.class.getProtectionDomain().getCodeSource().getLocation();
+		ClassLoader classLoader = new URLClassLoader(new URL[] {url}, null);
+		Class<?> klass = classLoader.loadClass(CollectableFake.class.getName());
+		
+		ResolvedTypeModel.get(klass);
+		
+		Reference<ClassLoader> reference = new WeakReference<ClassLoader>(classLoader);
+		classLoader = null;
+		klass = null;
+		
+		assertCollected(reference);
+	}
+	
+	@Test(expected = UnsupportedOperationException.class)
+	public void getFieldsIsUnmodifiable()
+	{
+		ResolvedTypeModel.get(type("Page<String>")).getFields().clear();
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void getWithArrayType()
+	{
+		ResolvedTypeModel.get(String[].class);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void getWithTypeVariable()
+	{
+		ResolvedTypeModel.get(Page.class.getTypeParameters()[0]);
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void getWithNull()
+	{
+		ResolvedTypeModel.get(null);
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private static Field field(Class<?> declaringClass, String name)
+	{
+		try
+		{
+			return declaringClass.getDeclaredField(name);
+		}
+		catch (NoSuchFieldException exception)
+		{
+			throw new AssertionError(exception);
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.googlecode.jtype.test.AbstractTypeTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@code TypeComparator}.
+ * 
+ * @author Mark Hobson
+ * @see TypeComparator
+ */
+public class TypeComparatorTest extends AbstractTypeTest
+{
+	// types ------------------------------------------------------------------
+	
+	private static class Fields<T>
+	{
+		// fields whose generic types are provided by the JDK
+		
+		public Map<String, ? extends Number> map;
+		
+		public <U> U get(U defaultValue)
+		{
+			return defaultValue;
+		}
+		
+		public <U> U get(U defaultValue, int index)
+		{
+			return defaultValue;
+		}
+	}
+	
+	// AbstractTypeTest methods -----------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void addImports(Set<Class<?>> imports)
+	{
+		imports.add(String.class);
+		imports.add(Integer.class);
+		imports.add(Number.class);
+		imports.add(List.class);
+		imports.add(Map.class);
+	}
+	
+	// tests ------------------------------------------------------------------
+	
+	@Test
+	public void compareWithClasses()
+	{
+		assertOrdered(Integer.class, String.class);
+	}
+	
+	@Test
+	public void compareWithKinds()
+	{
+		assertOrdered(String.class, type("List<String>"), Types.genericArrayType(type("List<String>")),
+			Types.unboundedWildcardType(), Fields.class.getTypeParameters()[0]);
+	}
+	
+	@Test
+	public void compareWithParameterizedTypes()
+	{
+		assertOrdered(type("List<Integer>"), type("List<String>"), type("Map<Integer, String>"),
+			type("Map<String, Integer>"));
+	}
+	
+	@Test
+	public void compareWithWildcardTypes()
+	{
+		// unbounded wildcards have an upper bound of Object
+		assertOrdered(type("List<? extends Integer>"), type("List<? extends Number>"), type("List<?>"),
+			type("List<? super Integer>"));
+	}
+	
+	@Test
+	public void compareWithTypeVariables() throws NoSuchMethodException
+	{
+		Method method1 = Fields.class.getMethod("get", Object.class);
+		Method method2 = Fields.class.getMethod("get", Object.class, int.class);
+		
+		assertOrdered(Fields.class.getTypeParameters()[0], method1.getTypeParameters()[0],
+			method2.getTypeParameters()[0]);
+	}
+	
+	@Test
+	public void compareWithJdkType()
+	{
+		assertEquals(0, TypeComparator.INSTANCE.compare(fieldType("map"), type("Map<String, ? extends Number>")));
+	}
+	
+	@Test
+	public void compareWithSameType()
+	{
+		Type type = type("List<String>");
+		
+		assertEquals(0, TypeComparator.INSTANCE.compare(type, type));
+	}
+	
+	@Test
+	public void sort()
+	{
+		List<Type> types = new ArrayList<Type>(Arrays.asList(type("Map<String, Integer>"), String.class,
+			type("List<String>"), Integer.class));
+		
+		Collections.sort(types, TypeComparator.INSTANCE);
+		
+		assertEquals(Arrays.asList(Integer.class, String.class, type("List<String>"), type("Map<String, Integer>")),
+			types);
+	}
+	
+	@Test
+	public void serialize() throws IOException, ClassNotFoundException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(TypeComparator.INSTANCE);
+		out.close();
+		
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		
+		assertSame(TypeComparator.INSTANCE, in.readObject());
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private static void assertOrdered(Type... types)
+	{
+		for (int i = 0; i < types.length; i++)
+		{
+			for (int j = 0; j < types.length; j++)
+			{
+				int result = TypeComparator.INSTANCE.compare(types[i], types[j]);
+				
+				assertTrue(types[i] + " and " + types[j], Integer.signum(result) == Integer.signum(i - j));
+			}
+		}
+	}
+	
+	private static Type fieldType(String name)
+	{
+		try
+		{
+			return Fields.class.getField(name).getGenericType();
+		}
+		catch (NoSuchFieldException exception)
+		{
+			throw new AssertionError(exception);
+		}
+	}
+}
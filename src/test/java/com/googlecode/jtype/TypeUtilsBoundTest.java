@@ -0,0 +1,434 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.io.Serializable;
+import java.lang.reflect.Type;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.googlecode.jtype.test.AbstractTypeTest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotSame;
+
+/**
+ * Tests {@code TypeUtils.leastUpperBound} and {@code TypeUtils.greatestLowerBound}.
+ * 
+ * @author Mark Hobson
+ * @see TypeUtils#leastUpperBound(Type...)
+ * @see TypeUtils#greatestLowerBound(Type...)
+ */
+public class TypeUtilsBoundTest extends AbstractTypeTest
+{
+	// types ------------------------------------------------------------------
+	
+	private interface Shape extends Comparable<Shape>
+	{
+		// simple interface
+	}
+	
+	private interface Named
+	{
+		// simple interface
+	}
+	
+	private interface Box<T>
+	{
+		// simple interface
+	}
+	
+	private interface SelfBox<T extends SelfBox<T>> extends Box<T>
+	{
+		// simple interface
+	}
+	
+	private abstract static class AbstractShape implements Shape
+	{
+		// simple class
+	}
+	
+	private abstract static class Circle extends AbstractShape implements Named
+	{
+		// simple class
+	}
+	
+	private abstract static class Square extends AbstractShape implements Named
+	{
+		// simple class
+	}
+	
+	private abstract static class Triangle extends AbstractShape
+	{
+		// simple class
+	}
+	
+	private abstract static class NamedBox implements Box<Named>, Named
+	{
+		// simple class
+	}
+	
+	private abstract static class ShapeBox implements Box<Shape>, Named
+	{
+		// simple class
+	}
+	
+	private abstract static class CircleBox implements SelfBox<CircleBox>
+	{
+		// simple class
+	}
+	
+	private abstract static class SquareBox implements SelfBox<SquareBox>
+	{
+		// simple class
+	}
+	
+	// AbstractTypeTest methods -----------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void addImports(Set<Class<?>> imports)
+	{
+		imports.add(Number.class);
+		imports.add(Integer.class);
+		imports.add(Collection.class);
+		imports.add(List.class);
+		imports.add(AbstractList.class);
+		imports.add(ArrayList.class);
+		imports.add(Shape.class);
+		imports.add(Box.class);
+		imports.add(SelfBox.class);
+		imports.add(CircleBox.class);
+		imports.add(SquareBox.class);
+	}
+	
+	// leastUpperBound tests --------------------------------------------------
+	
+	@Test
+	public void leastUpperBoundWithType()
+	{
+		assertBound(TypeUtils.leastUpperBound(Circle.class), Circle.class);
+	}
+	
+	@Test
+	public void leastUpperBoundWithSameTypes()
+	{
+		assertBound(TypeUtils.leastUpperBound(Circle.class, Circle.class), Circle.class);
+	}
+	
+	@Test
+	public void leastUpperBoundWithSubtype()
+	{
+		assertBound(TypeUtils.leastUpperBound(AbstractShape.class, Circle.class), AbstractShape.class);
+	}
+	
+	@Test
+	public void leastUpperBoundWithSupertype()
+	{
+		assertBound(TypeUtils.leastUpperBound(Circle.class, Shape.class), Shape.class);
+	}
+	
+	@Test
+	public void leastUpperBoundWithSiblingClasses()
+	{
+		assertBound(TypeUtils.leastUpperBound(Circle.class, Triangle.class), AbstractShape.class);
+	}
+	
+	@Test
+	public void leastUpperBoundWithIntersectionType()
+	{
+		assertBound(TypeUtils.leastUpperBound(Circle.class, Square.class), AbstractShape.class, Named.class);
+	}
+	
+	@Test
+	public void leastUpperBoundWithManyTypes()
+	{
+		assertBound(TypeUtils.leastUpperBound(Circle.class, Square.class, Triangle.class), AbstractShape.class);
+	}
+	
+	@Test
+	public void leastUpperBoundWithUnrelatedTypes()
+	{
+		assertBound(TypeUtils.leastUpperBound(Named.class, Shape.class), Object.class);
+	}
+	
+	@Test
+	public void leastUpperBoundWithParameterizedTypes()
+	{
+		assertBound(TypeUtils.leastUpperBound(type("ArrayList<Integer>"), type("AbstractList<Integer>")),
+			type("AbstractList<Integer>"));
+	}
+	
+	@Test
+	public void leastUpperBoundWithDifferentlyParameterizedTypes()
+	{
+		assertBound(TypeUtils.leastUpperBound(NamedBox.class, ShapeBox.class), type("Box<?>"), Named.class);
+	}
+	
+	@Test
+	public void leastUpperBoundWithRelatedTypeArguments()
+	{
+		assertBound(TypeUtils.leastUpperBound(type("List<Integer>"), type("List<Number>")),
+			type("List<? extends Number>"));
+	}
+	
+	@Test
+	public void leastUpperBoundWithUpperBoundedWildcardTypeArguments()
+	{
+		assertBound(TypeUtils.leastUpperBound(type("List<? extends Integer>"), type("List<Number>")),
+			type("List<? extends Number>"));
+	}
+	
+	@Test
+	public void leastUpperBoundWithLowerBoundedWildcardTypeArguments()
+	{
+		assertBound(TypeUtils.leastUpperBound(type("List<? super Integer>"), type("List<? super Number>")),
+			type("List<? super Integer>"));
+	}
+	
+	@Test
+	public void leastUpperBoundWithUpperAndLowerBoundedWildcardTypeArguments()
+	{
+		assertBound(TypeUtils.leastUpperBound(type("List<? extends Integer>"), type("List<? super Integer>")),
+			type("List<?>"));
+	}
+	
+	@Test
+	public void leastUpperBoundWithInfiniteType()
+	{
+		assertBound(TypeUtils.leastUpperBound(CircleBox.class, SquareBox.class), type("SelfBox<?>"));
+	}
+	
+	@Test
+	public void leastUpperBoundWithRawType()
+	{
+		assertBound(TypeUtils.leastUpperBound(ArrayList.class, type("List<Integer>")), List.class);
+	}
+	
+	@Test
+	public void leastUpperBoundWithArrayTypes()
+	{
+		assertBound(TypeUtils.leastUpperBound(Circle[].class, Triangle[].class), AbstractShape[].class);
+	}
+	
+	@Test
+	public void leastUpperBoundWithArrayAndNonArrayTypes()
+	{
+		assertBound(TypeUtils.leastUpperBound(Circle[].class, Circle.class), Object.class);
+	}
+	
+	@Test
+	public void leastUpperBoundWithPrimitiveArrayTypes()
+	{
+		assertBound(TypeUtils.leastUpperBound(int[].class, long[].class), Cloneable.class, Serializable.class);
+	}
+	
+	@Test
+	public void leastUpperBoundIsCopied()
+	{
+		Type[] bound = TypeUtils.leastUpperBound(Circle.class, Square.class);
+		
+		assertNotSame(bound, TypeUtils.leastUpperBound(Circle.class, Square.class));
+	}
+	
+	@Test
+	public void leastUpperBoundWithExecutor() throws InterruptedException
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		
+		try
+		{
+			assertBound(TypeUtils.leastUpperBound(repeat(Circle.class, Square.class, 10000), executor),
+				AbstractShape.class, Named.class);
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void leastUpperBoundWithExecutorAndObject() throws InterruptedException
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		
+		try
+		{
+			assertBound(TypeUtils.leastUpperBound(repeat(Named.class, Shape.class, 10000), executor), Object.class);
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void leastUpperBoundWithNullTypes()
+	{
+		TypeUtils.leastUpperBound((Type[]) null);
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void leastUpperBoundWithNullType()
+	{
+		TypeUtils.leastUpperBound(Circle.class, null);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void leastUpperBoundWithNoTypes()
+	{
+		TypeUtils.leastUpperBound();
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void leastUpperBoundWithPrimitiveType()
+	{
+		TypeUtils.leastUpperBound(int.class, Integer.class);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void leastUpperBoundWithWildcardType()
+	{
+		TypeUtils.leastUpperBound(type("?"), Integer.class);
+	}
+	
+	// greatestLowerBound tests -----------------------------------------------
+	
+	@Test
+	public void greatestLowerBoundWithType()
+	{
+		assertBound(TypeUtils.greatestLowerBound(Circle.class), Circle.class);
+	}
+	
+	@Test
+	public void greatestLowerBoundWithSubtype()
+	{
+		assertBound(TypeUtils.greatestLowerBound(AbstractShape.class, Circle.class), Circle.class);
+	}
+	
+	@Test
+	public void greatestLowerBoundWithObject()
+	{
+		assertBound(TypeUtils.greatestLowerBound(Object.class, Shape.class), Shape.class);
+	}
+	
+	@Test
+	public void greatestLowerBoundWithInterfaces()
+	{
+		assertBound(TypeUtils.greatestLowerBound(Named.class, Shape.class), Named.class, Shape.class);
+	}
+	
+	@Test
+	public void greatestLowerBoundWithClassAndInterface()
+	{
+		assertBound(TypeUtils.greatestLowerBound(Named.class, Triangle.class), Triangle.class, Named.class);
+	}
+	
+	@Test
+	public void greatestLowerBoundWithManyTypes()
+	{
+		assertBound(TypeUtils.greatestLowerBound(Named.class, Shape.class, AbstractShape.class, Object.class),
+			AbstractShape.class, Named.class);
+	}
+	
+	@Test
+	public void greatestLowerBoundWithParameterizedTypes()
+	{
+		assertBound(TypeUtils.greatestLowerBound(type("Collection<Integer>"), type("List<Integer>")),
+			type("List<Integer>"));
+	}
+	
+	@Test
+	public void greatestLowerBoundWithExecutor() throws InterruptedException
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		
+		try
+		{
+			assertBound(TypeUtils.greatestLowerBound(repeat(Named.class, AbstractShape.class, 10000), executor),
+				AbstractShape.class, Named.class);
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void greatestLowerBoundWithUnrelatedClasses()
+	{
+		TypeUtils.greatestLowerBound(Circle.class, Triangle.class);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void greatestLowerBoundWithDifferentlyParameterizedTypes()
+	{
+		TypeUtils.greatestLowerBound(type("List<Integer>"), type("List<Number>"));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void greatestLowerBoundWithExecutorAndUnrelatedClasses() throws InterruptedException
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		
+		try
+		{
+			TypeUtils.greatestLowerBound(repeat(Circle.class, Triangle.class, 10000), executor);
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void greatestLowerBoundWithNullTypes()
+	{
+		TypeUtils.greatestLowerBound((Type[]) null);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void greatestLowerBoundWithNoTypes()
+	{
+		TypeUtils.greatestLowerBound();
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private static Type[] repeat(Type type1, Type type2, int count)
+	{
+		Type[] types = new Type[count];
+		
+		for (int i = 0; i < count; i++)
+		{
+			types[i] = (i % 2 == 0) ? type1 : type2;
+		}
+		
+		return types;
+	}
+	
+	private static void assertBound(Type[] actualBound, Type... expectedBound)
+	{
+		assertArrayEquals(expectedBound, actualBound);
+	}
+}
@@ -0,0 +1,256 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.googlecode.jtype.test.AbstractTypeTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@code TypeUtils.equals} and {@code TypeUtils.hashCode}.
+ * 
+ * @author Mark Hobson
+ * @see TypeUtils#equals(Type, Type)
+ * @see TypeUtils#hashCode(Type)
+ */
+public class TypeUtilsEqualsTest extends AbstractTypeTest
+{
+	// types ------------------------------------------------------------------
+	
+	private static class Fields<T extends Comparable<T>>
+	{
+		// fields whose generic types are provided by the JDK
+		
+		public List<String> list;
+		
+		public Map<String, ? extends Number> map;
+		
+		public List<? super Integer> lowerBounded;
+		
+		public T[] array;
+		
+		public List<T> typeVariableList;
+	}
+	
+	// AbstractTypeTest methods -----------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void addImports(Set<Class<?>> imports)
+	{
+		imports.add(String.class);
+		imports.add(Integer.class);
+		imports.add(Number.class);
+		imports.add(List.class);
+		imports.add(Map.class);
+	}
+	
+	// tests ------------------------------------------------------------------
+	
+	@Test
+	public void equalsWithSameType()
+	{
+		Type type = type("List<String>");
+		
+		assertTrue(TypeUtils.equals(type, type));
+	}
+	
+	@Test
+	public void equalsWithNull()
+	{
+		assertTrue(TypeUtils.equals(null, null));
+		assertFalse(TypeUtils.equals(String.class, null));
+		assertFalse(TypeUtils.equals(null, String.class));
+	}
+	
+	@Test
+	public void equalsWithClasses()
+	{
+		assertFalse(TypeUtils.equals(String.class, Integer.class));
+	}
+	
+	@Test
+	public void equalsWithJdkParameterizedType()
+	{
+		assertEqualTypes(fieldType("list"), type("List<String>"));
+	}
+	
+	@Test
+	public void equalsWithJdkParameterizedTypeAndUpperBoundedWildcardType()
+	{
+		assertEqualTypes(fieldType("map"), type("Map<String, ? extends Number>"));
+	}
+	
+	@Test
+	public void equalsWithJdkWildcardType()
+	{
+		Type wildcardType = ((ParameterizedType) fieldType("lowerBounded")).getActualTypeArguments()[0];
+		
+		assertEqualTypes(wildcardType, Types.lowerBoundedWildcardType(Integer.class));
+	}
+	
+	@Test
+	public void equalsWithJdkGenericArrayType()
+	{
+		assertEqualTypes(fieldType("array"), Types.genericArrayType(typeVariable()));
+	}
+	
+	@Test
+	public void equalsWithJdkTypeVariable()
+	{
+		TypeVariable<?> typeVariable = typeVariable();
+		Type defaultTypeVariable = Types.typeVariable(Fields.class, "T", Types.parameterizedType(Comparable.class,
+			typeVariable));
+		
+		assertEqualTypes(defaultTypeVariable, typeVariable);
+	}
+	
+	@Test
+	public void equalsWithNestedTypeVariable()
+	{
+		assertEqualTypes(fieldType("typeVariableList"), Types.parameterizedType(List.class, typeVariable()));
+	}
+	
+	@Test
+	public void equalsWithDifferentTypeArguments()
+	{
+		assertFalse(TypeUtils.equals(fieldType("list"), type("List<Integer>")));
+	}
+	
+	@Test
+	public void equalsWithDifferentRawTypes()
+	{
+		assertFalse(TypeUtils.equals(type("Map<String, Integer>"), type("List<String>")));
+	}
+	
+	@Test
+	public void equalsWithDifferentWildcardBounds()
+	{
+		WildcardType wildcardType = Types.upperBoundedWildcardType(Integer.class);
+		
+		assertFalse(TypeUtils.equals(wildcardType, Types.lowerBoundedWildcardType(Integer.class)));
+	}
+	
+	@Test
+	public void equalsWithDifferentKinds()
+	{
+		assertFalse(TypeUtils.equals(String[].class, Types.genericArrayType(String.class)));
+		assertFalse(TypeUtils.equals(type("List<String>"), Types.unboundedWildcardType()));
+	}
+	
+	@Test
+	public void equalsWithCapturedTypeVariables()
+	{
+		WildcardType wildcardType = Types.unboundedWildcardType();
+		TypeVariable<?> typeParameter = List.class.getTypeParameters()[0];
+		
+		assertFalse(TypeUtils.equals(new CapturedTypeVariable(wildcardType, typeParameter),
+			new CapturedTypeVariable(wildcardType, typeParameter)));
+	}
+	
+	@Test
+	public void hashCodeIsJdkHashCode()
+	{
+		Type type = fieldType("map");
+		
+		assertEquals(type.hashCode(), TypeUtils.hashCode(type));
+	}
+	
+	@Test
+	public void hashCodeWithNull()
+	{
+		assertEquals(0, TypeUtils.hashCode(null));
+	}
+	
+	@Test
+	public void equalsIsUsedByDefaultParameterizedType()
+	{
+		Type type = type("List<String>");
+		
+		assertEquals(type, fieldType("list"));
+		assertEquals(fieldType("list").hashCode(), type.hashCode());
+	}
+	
+	@Test
+	public void equalsIsUsedByDefaultTypeVariable()
+	{
+		Type defaultTypeVariable = Types.typeVariable(Fields.class, "T");
+		
+		assertEquals(defaultTypeVariable, typeVariable());
+		assertEquals(typeVariable().hashCode(), defaultTypeVariable.hashCode());
+	}
+	
+	@Test
+	public void equalsIsUsedByClassFileTypeVariable() throws IOException
+	{
+		ClassFileTypeLoader loader = new ClassFileTypeLoader();
+		
+		try
+		{
+			ClassFileClass klass = (ClassFileClass) loader.getType(Fields.class.getName());
+			TypeVariable<ClassFileClass> classFileTypeVariable = klass.getTypeParameters()[0];
+			Type defaultTypeVariable = Types.typeVariable(klass, "T");
+			
+			assertEquals(classFileTypeVariable, defaultTypeVariable);
+			assertEquals(defaultTypeVariable, classFileTypeVariable);
+			assertEquals(defaultTypeVariable.hashCode(), classFileTypeVariable.hashCode());
+			assertEqualTypes(defaultTypeVariable, classFileTypeVariable);
+		}
+		finally
+		{
+			loader.close();
+		}
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private static void assertEqualTypes(Type type1, Type type2)
+	{
+		assertTrue(TypeUtils.equals(type1, type2));
+		assertTrue(TypeUtils.equals(type2, type1));
+		assertEquals(TypeUtils.hashCode(type1), TypeUtils.hashCode(type2));
+	}
+	
+	private static Type fieldType(String name)
+	{
+		try
+		{
+			return Fields.class.getField(name).getGenericType();
+		}
+		catch (NoSuchFieldException exception)
+		{
+			throw new AssertionError(exception);
+		}
+	}
+	
+	private static TypeVariable<?> typeVariable()
+	{
+		return Fields.class.getTypeParameters()[0];
+	}
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.googlecode.jtype.test.AbstractTypeTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests {@code TypeUtils.fingerprint}.
+ * 
+ * @author Mark Hobson
+ * @see TypeUtils#fingerprint(Type)
+ */
+public class TypeUtilsFingerprintTest extends AbstractTypeTest
+{
+	// types ------------------------------------------------------------------
+	
+	private static class Fields<T>
+	{
+		// fields whose generic types are provided by the JDK
+		
+		public Map<String, ? extends Number> map;
+		
+		public List<T>[] array;
+		
+		public <U> U get()
+		{
+			return null;
+		}
+		
+		public <U> U get(U defaultValue)
+		{
+			return defaultValue;
+		}
+	}
+	
+	// AbstractTypeTest methods -----------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void addImports(Set<Class<?>> imports)
+	{
+		imports.add(String.class);
+		imports.add(Integer.class);
+		imports.add(Number.class);
+		imports.add(List.class);
+		imports.add(Map.class);
+	}
+	
+	// tests ------------------------------------------------------------------
+	
+	@Test
+	public void fingerprintWithClassIsStable()
+	{
+		assertEquals(0xb7477c754f67ce6bL, TypeUtils.fingerprint(String.class));
+	}
+	
+	@Test
+	public void fingerprintWithParameterizedTypeIsStable()
+	{
+		assertEquals(3701973240875538749L, TypeUtils.fingerprint(type("List<String>")));
+	}
+	
+	@Test
+	public void fingerprintWithJdkParameterizedType()
+	{
+		assertFingerprintEquals(type("Map<String, ? extends Number>"), fieldType("map"));
+	}
+	
+	@Test
+	public void fingerprintWithJdkGenericArrayType()
+	{
+		Type typeVariable = Fields.class.getTypeParameters()[0];
+		
+		assertFingerprintEquals(Types.genericArrayType(Types.parameterizedType(List.class, typeVariable)),
+			fieldType("array"));
+	}
+	
+	@Test
+	public void fingerprintWithClassFileType() throws IOException
+	{
+		ClassFileTypeLoader loader = new ClassFileTypeLoader();
+		
+		try
+		{
+			assertFingerprintEquals(type("List<String>"), loader.fromSignature("Ljava/util/List<Ljava/lang/String;>;"));
+		}
+		finally
+		{
+			loader.close();
+		}
+	}
+	
+	@Test
+	public void fingerprintWithDifferentTypeArguments()
+	{
+		assertFingerprintNotEquals(type("List<String>"), type("List<Integer>"));
+	}
+	
+	@Test
+	public void fingerprintWithDifferentTypeArgumentOrder()
+	{
+		assertFingerprintNotEquals(type("Map<String, Integer>"), type("Map<Integer, String>"));
+	}
+	
+	@Test
+	public void fingerprintWithDifferentWildcardBounds()
+	{
+		assertFingerprintNotEquals(type("List<? extends Number>"), type("List<? super Number>"));
+	}
+	
+	@Test
+	public void fingerprintWithMethodTypeVariables() throws NoSuchMethodException
+	{
+		Method method1 = Fields.class.getMethod("get");
+		Method method2 = Fields.class.getMethod("get", Object.class);
+		
+		assertFingerprintNotEquals(method1.getTypeParameters()[0], method2.getTypeParameters()[0]);
+	}
+	
+	@Test
+	public void fingerprintIsCached()
+	{
+		DefaultParameterizedType type = (DefaultParameterizedType) type("List<String>");
+		
+		assertEquals(TypeUtils.fingerprint(type), type.getFingerprint());
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void fingerprintWithNull()
+	{
+		TypeUtils.fingerprint(null);
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private static void assertFingerprintEquals(Type type1, Type type2)
+	{
+		assertEquals(TypeUtils.fingerprint(type1), TypeUtils.fingerprint(type2));
+	}
+	
+	private static void assertFingerprintNotEquals(Type type1, Type type2)
+	{
+		assertFalse(TypeUtils.fingerprint(type1) == TypeUtils.fingerprint(type2));
+	}
+	
+	private static Type fieldType(String name)
+	{
+		try
+		{
+			return Fields.class.getField(name).getGenericType();
+		}
+		catch (NoSuchFieldException exception)
+		{
+			throw new AssertionError(exception);
+		}
+	}
+}
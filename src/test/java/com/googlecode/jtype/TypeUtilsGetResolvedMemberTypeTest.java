@@ -0,0 +1,297 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.googlecode.jtype.test.AbstractTypeTest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests {@code TypeUtils.getResolvedFieldType}, {@code TypeUtils.getResolvedReturnType} and
+ * {@code TypeUtils.getResolvedParameterTypes}.
+ * 
+ * @author Mark Hobson
+ * @see TypeUtils#getResolvedFieldType(Type, Field)
+ * @see TypeUtils#getResolvedReturnType(Type, Method)
+ * @see TypeUtils#getResolvedParameterTypes(Type, Method)
+ */
+public class TypeUtilsGetResolvedMemberTypeTest extends AbstractTypeTest
+{
+	// types ------------------------------------------------------------------
+	
+	private static class Page<T>
+	{
+		// simple generic fields
+		
+		public List<T> items;
+		
+		public T first;
+		
+		public T[] array;
+		
+		public int size;
+	}
+	
+	private static class StringPage extends Page<String>
+	{
+		// simple subtype
+	}
+	
+	private interface Repository<T, ID>
+	{
+		T get(ID id);
+		
+		<S extends T> S save(S entity);
+		
+		List<T> findAll(Map<String, ? extends ID> criteria);
+	}
+	
+	private interface StringRepository<ID> extends Repository<String, ID>
+	{
+		// simple subtype
+	}
+	
+	private static class Outer<T>
+	{
+		public class Inner<U>
+		{
+			public Map<T, U> map;
+		}
+	}
+	
+	// AbstractTypeTest methods -----------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void addImports(Set<Class<?>> imports)
+	{
+		imports.add(String.class);
+		imports.add(Integer.class);
+		imports.add(List.class);
+		imports.add(Map.class);
+		imports.add(Page.class);
+		imports.add(Repository.class);
+		imports.add(StringRepository.class);
+	}
+	
+	// getResolvedFieldType tests ---------------------------------------------
+	
+	@Test
+	public void getResolvedFieldTypeWithParameterizedType()
+	{
+		assertEquals(type("List<Integer>"), TypeUtils.getResolvedFieldType(type("Page<Integer>"), field("items")));
+	}
+	
+	@Test
+	public void getResolvedFieldTypeWithTypeVariable()
+	{
+		assertEquals(Integer.class, TypeUtils.getResolvedFieldType(type("Page<Integer>"), field("first")));
+	}
+	
+	@Test
+	public void getResolvedFieldTypeWithGenericArrayType()
+	{
+		assertEquals(Integer[].class, TypeUtils.getResolvedFieldType(type("Page<Integer>"), field("array")));
+	}
+	
+	@Test
+	public void getResolvedFieldTypeWithWildcardType()
+	{
+		assertEquals(type("List<? extends Integer>"),
+			TypeUtils.getResolvedFieldType(type("Page<? extends Integer>"), field("items")));
+	}
+	
+	@Test
+	public void getResolvedFieldTypeWithNonGenericField()
+	{
+		assertEquals(int.class, TypeUtils.getResolvedFieldType(type("Page<Integer>"), field("size")));
+	}
+	
+	@Test
+	public void getResolvedFieldTypeWithSubtype()
+	{
+		assertEquals(type("List<String>"), TypeUtils.getResolvedFieldType(StringPage.class, field("items")));
+	}
+	
+	@Test
+	public void getResolvedFieldTypeWithRawType()
+	{
+		assertEquals(List.class, TypeUtils.getResolvedFieldType(Page.class, field("items")));
+	}
+	
+	@Test
+	public void getResolvedFieldTypeWithInnerClass() throws NoSuchFieldException
+	{
+		Type type = new DefaultParameterizedType(Types.parameterizedType(Outer.class, String.class), Outer.Inner.class,
+			new Type[] {Integer.class});
+		
+		assertEquals(type("Map<String, Integer>"),
+			TypeUtils.getResolvedFieldType(type, Outer.Inner.class.getField("map")));
+	}
+	
+	@Test
+	public void getResolvedFieldTypeIsCached()
+	{
+		Type fieldType = TypeUtils.getResolvedFieldType(type("Page<Integer>"), field("items"));
+		
+		assertSame(fieldType, TypeUtils.getResolvedFieldType(type("Page<Integer>"), field("items")));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void getResolvedFieldTypeWithUnrelatedType()
+	{
+		TypeUtils.getResolvedFieldType(type("List<Integer>"), field("items"));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void getResolvedFieldTypeWithTypeVariableType()
+	{
+		TypeUtils.getResolvedFieldType(Page.class.getTypeParameters()[0], field("items"));
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void getResolvedFieldTypeWithNullType()
+	{
+		TypeUtils.getResolvedFieldType(null, field("items"));
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void getResolvedFieldTypeWithNullField()
+	{
+		TypeUtils.getResolvedFieldType(type("Page<Integer>"), null);
+	}
+	
+	// getResolvedReturnType tests --------------------------------------------
+	
+	@Test
+	public void getResolvedReturnTypeWithTypeVariable()
+	{
+		assertEquals(String.class, TypeUtils.getResolvedReturnType(type("Repository<String, Integer>"),
+			method("get", Object.class)));
+	}
+	
+	@Test
+	public void getResolvedReturnTypeWithParameterizedType()
+	{
+		assertEquals(type("List<String>"), TypeUtils.getResolvedReturnType(type("Repository<String, Integer>"),
+			method("findAll", Map.class)));
+	}
+	
+	@Test
+	public void getResolvedReturnTypeWithMethodTypeVariable()
+	{
+		Method method = method("save", Object.class);
+		
+		assertEquals(method.getTypeParameters()[0],
+			TypeUtils.getResolvedReturnType(type("Repository<String, Integer>"), method));
+	}
+	
+	@Test
+	public void getResolvedReturnTypeWithSubtype()
+	{
+		assertEquals(String.class, TypeUtils.getResolvedReturnType(type("StringRepository<Integer>"),
+			method("get", Object.class)));
+	}
+	
+	@Test
+	public void getResolvedReturnTypeWithRawType()
+	{
+		assertEquals(Object.class, TypeUtils.getResolvedReturnType(Repository.class, method("get", Object.class)));
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void getResolvedReturnTypeWithNullMethod()
+	{
+		TypeUtils.getResolvedReturnType(type("Repository<String, Integer>"), null);
+	}
+	
+	// getResolvedParameterTypes tests ----------------------------------------
+	
+	@Test
+	public void getResolvedParameterTypesWithTypeVariable()
+	{
+		assertArrayEquals(new Type[] {Integer.class}, TypeUtils.getResolvedParameterTypes(
+			type("Repository<String, Integer>"), method("get", Object.class)));
+	}
+	
+	@Test
+	public void getResolvedParameterTypesWithWildcardType()
+	{
+		assertArrayEquals(new Type[] {type("Map<String, ? extends Integer>")}, TypeUtils.getResolvedParameterTypes(
+			type("Repository<String, Integer>"), method("findAll", Map.class)));
+	}
+	
+	@Test
+	public void getResolvedParameterTypesWithSubtype()
+	{
+		assertArrayEquals(new Type[] {Integer.class}, TypeUtils.getResolvedParameterTypes(
+			type("StringRepository<Integer>"), method("get", Object.class)));
+	}
+	
+	@Test
+	public void getResolvedParameterTypesIsCopied()
+	{
+		Method method = method("get", Object.class);
+		
+		TypeUtils.getResolvedParameterTypes(type("Repository<String, Integer>"), method)[0] = null;
+		
+		assertArrayEquals(new Type[] {Integer.class}, TypeUtils.getResolvedParameterTypes(
+			type("Repository<String, Integer>"), method));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void getResolvedParameterTypesWithUnrelatedType()
+	{
+		TypeUtils.getResolvedParameterTypes(type("Page<Integer>"), method("get", Object.class));
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private static Field field(String name)
+	{
+		try
+		{
+			return Page.class.getField(name);
+		}
+		catch (NoSuchFieldException exception)
+		{
+			throw new AssertionError(exception);
+		}
+	}
+	
+	private static Method method(String name, Class<?>... parameterTypes)
+	{
+		try
+		{
+			return Repository.class.getMethod(name, parameterTypes);
+		}
+		catch (NoSuchMethodException exception)
+		{
+			throw new AssertionError(exception);
+		}
+	}
+}
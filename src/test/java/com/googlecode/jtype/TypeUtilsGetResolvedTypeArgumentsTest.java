@@ -0,0 +1,241 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.googlecode.jtype.test.AbstractTypeTest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests {@code TypeUtils.getResolvedTypeArguments}.
+ * 
+ * @author Mark Hobson
+ * @see TypeUtils#getResolvedTypeArguments(Class, Class)
+ */
+public class TypeUtilsGetResolvedTypeArgumentsTest extends AbstractTypeTest
+{
+	// types ------------------------------------------------------------------
+	
+	private interface Function<A, B>
+	{
+		B apply(A argument);
+	}
+	
+	private interface Handler<T>
+	{
+		void handle(T event);
+	}
+	
+	private static class StringHandler implements Handler<String>
+	{
+		public void handle(String event)
+		{
+			// no-op
+		}
+	}
+	
+	private abstract static class AbstractFunction<A> implements Function<A, Integer>
+	{
+		// partially bound
+	}
+	
+	private static class ListSizeFunction extends AbstractFunction<List<String>>
+	{
+		public Integer apply(List<String> argument)
+		{
+			return argument.size();
+		}
+	}
+	
+	private abstract static class AbstractHandler<T> implements Handler<T>
+	{
+		// unbound
+	}
+	
+	private abstract static class IntermediateHandler<T> extends AbstractHandler<T>
+	{
+		// unbound
+	}
+	
+	private static class IntegerHandler extends IntermediateHandler<Integer>
+	{
+		public void handle(Integer event)
+		{
+			// no-op
+		}
+	}
+	
+	private static class GenericHandler<T> extends AbstractHandler<List<T>>
+	{
+		public void handle(List<T> event)
+		{
+			// no-op
+		}
+	}
+	
+	@SuppressWarnings("rawtypes")
+	private static class RawHandler implements Handler
+	{
+		public void handle(Object event)
+		{
+			// no-op
+		}
+	}
+	
+	@SuppressWarnings("rawtypes")
+	private static class RawSubclassHandler extends AbstractHandler
+	{
+		public void handle(Object event)
+		{
+			// no-op
+		}
+	}
+	
+	private static class Outer<T>
+	{
+		public class InnerHandler implements Handler<T>
+		{
+			public void handle(T event)
+			{
+				// no-op
+			}
+		}
+	}
+	
+	// AbstractTypeTest methods -----------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void addImports(Set<Class<?>> imports)
+	{
+		imports.add(String.class);
+		imports.add(List.class);
+	}
+	
+	// tests ------------------------------------------------------------------
+	
+	@Test
+	public void getResolvedTypeArgumentsWithDirectImplementation()
+	{
+		assertTypeArguments(StringHandler.class, Handler.class, String.class);
+	}
+	
+	@Test
+	public void getResolvedTypeArgumentsWithPartiallyBoundSuperclass()
+	{
+		assertTypeArguments(ListSizeFunction.class, Function.class, type("List<String>"), Integer.class);
+	}
+	
+	@Test
+	public void getResolvedTypeArgumentsWithMultipleLevels()
+	{
+		assertTypeArguments(IntegerHandler.class, Handler.class, Integer.class);
+	}
+	
+	@Test
+	public void getResolvedTypeArgumentsWithTypeVariable()
+	{
+		Type typeVariable = GenericHandler.class.getTypeParameters()[0];
+		
+		assertTypeArguments(GenericHandler.class, Handler.class, Types.parameterizedType(List.class, typeVariable));
+	}
+	
+	@Test
+	public void getResolvedTypeArgumentsWithAbstractClass()
+	{
+		assertTypeArguments(AbstractHandler.class, Handler.class, AbstractHandler.class.getTypeParameters()[0]);
+	}
+	
+	@Test
+	public void getResolvedTypeArgumentsWithEnclosingClassTypeVariable()
+	{
+		assertTypeArguments(Outer.InnerHandler.class, Handler.class, Outer.class.getTypeParameters()[0]);
+	}
+	
+	@Test
+	public void getResolvedTypeArgumentsWithRawImplementation()
+	{
+		assertNull(TypeUtils.getResolvedTypeArguments(RawHandler.class, Handler.class));
+	}
+	
+	@Test
+	public void getResolvedTypeArgumentsWithRawSuperclass()
+	{
+		assertNull(TypeUtils.getResolvedTypeArguments(RawSubclassHandler.class, Handler.class));
+	}
+	
+	@Test
+	public void getResolvedTypeArgumentsWithGeneratedClass()
+	{
+		Class<?> proxyClass = Proxy.getProxyClass(getClass().getClassLoader(), Handler.class);
+		
+		assertNull(TypeUtils.getResolvedTypeArguments(proxyClass, Handler.class));
+	}
+	
+	@Test
+	public void getResolvedTypeArgumentsWithSameClass()
+	{
+		assertTypeArguments(Handler.class, Handler.class, Handler.class.getTypeParameters()[0]);
+	}
+	
+	@Test
+	public void getResolvedTypeArgumentsIsCopied()
+	{
+		Type[] typeArgs = TypeUtils.getResolvedTypeArguments(StringHandler.class, Handler.class);
+		
+		assertNotSame(typeArgs, TypeUtils.getResolvedTypeArguments(StringHandler.class, Handler.class));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void getResolvedTypeArgumentsWithUnrelatedClass()
+	{
+		TypeUtils.getResolvedTypeArguments(StringHandler.class, Function.class);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void getResolvedTypeArgumentsWithNonGenericSupertype()
+	{
+		TypeUtils.getResolvedTypeArguments(String.class, CharSequence.class);
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void getResolvedTypeArgumentsWithNullType()
+	{
+		TypeUtils.getResolvedTypeArguments(null, Handler.class);
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void getResolvedTypeArgumentsWithNullSupertype()
+	{
+		TypeUtils.getResolvedTypeArguments(StringHandler.class, null);
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private static void assertTypeArguments(Class<?> type, Class<?> rawSupertype, Type... expectedTypeArgs)
+	{
+		assertArrayEquals(expectedTypeArgs, TypeUtils.getResolvedTypeArguments(type, rawSupertype));
+	}
+}
@@ -0,0 +1,329 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.googlecode.jtype.test.AbstractTypeTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests {@code TypeUtils.inferTypeArguments}.
+ * 
+ * @author Mark Hobson
+ * @see TypeUtils#inferTypeArguments(Method, Type...)
+ */
+public class TypeUtilsInferTypeArgumentsTest extends AbstractTypeTest
+{
+	// types ------------------------------------------------------------------
+	
+	private static final class Methods
+	{
+		// simple generic methods
+		
+		public static <T> T identity(T value)
+		{
+			return value;
+		}
+		
+		public static <T extends Number> T number(T value)
+		{
+			return value;
+		}
+		
+		public static <T> T first(List<T> list)
+		{
+			return list.get(0);
+		}
+		
+		@SuppressWarnings("unchecked")
+		public static <T> List<T> asList(T... values)
+		{
+			return Arrays.asList(values);
+		}
+		
+		public static <T> T[] array(T[] values)
+		{
+			return values;
+		}
+		
+		@SuppressWarnings("unchecked")
+		public static <T> void addAll(Collection<? super T> collection, T... values)
+		{
+			collection.addAll(Arrays.asList(values));
+		}
+		
+		public static <T> void copy(List<? super T> target, List<? extends T> source)
+		{
+			target.addAll(source);
+		}
+		
+		public static <K, V> Map<K, V> copy(Map<? extends K, ? extends V> map)
+		{
+			return new HashMap<K, V>(map);
+		}
+		
+		public static <T extends Comparable<? super T>> T max(Collection<? extends T> collection)
+		{
+			return collection.iterator().next();
+		}
+		
+		public static <T> boolean same(List<T> list1, List<T> list2)
+		{
+			return list1 == list2;
+		}
+		
+		public static <T> T none()
+		{
+			return null;
+		}
+	}
+	
+	// AbstractTypeTest methods -----------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void addImports(Set<Class<?>> imports)
+	{
+		imports.add(String.class);
+		imports.add(Number.class);
+		imports.add(Integer.class);
+		imports.add(Comparable.class);
+		imports.add(Collection.class);
+		imports.add(List.class);
+		imports.add(ArrayList.class);
+		imports.add(Map.class);
+		imports.add(HashMap.class);
+	}
+	
+	// tests ------------------------------------------------------------------
+	
+	@Test
+	public void inferTypeArgumentsWithClass() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("identity", Object.class);
+		
+		assertTypeArguments(method, new Type[] {String.class}, String.class);
+	}
+	
+	@Test
+	public void inferTypeArgumentsWithPrimitive() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("identity", Object.class);
+		
+		assertTypeArguments(method, new Type[] {int.class}, Integer.class);
+	}
+	
+	@Test
+	public void inferTypeArgumentsWithNull() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("identity", Object.class);
+		
+		assertTypeArguments(method, new Type[] {null}, Object.class);
+	}
+	
+	@Test
+	public void inferTypeArgumentsWithBoundedTypeParameter() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("number", Number.class);
+		
+		assertTypeArguments(method, new Type[] {Integer.class}, Integer.class);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void inferTypeArgumentsWithBoundedTypeParameterAndOutOfBoundsArgument() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("number", Number.class);
+		
+		TypeUtils.inferTypeArguments(method, String.class);
+	}
+	
+	@Test
+	public void inferTypeArgumentsWithParameterizedType() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("first", List.class);
+		
+		assertTypeArguments(method, new Type[] {type("List<String>")}, String.class);
+	}
+	
+	@Test
+	public void inferTypeArgumentsWithParameterizedSubtype() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("first", List.class);
+		
+		assertTypeArguments(method, new Type[] {type("ArrayList<String>")}, String.class);
+	}
+	
+	@Test
+	public void inferTypeArgumentsWithRawType() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("first", List.class);
+		
+		assertTypeArguments(method, new Type[] {ArrayList.class}, Object.class);
+	}
+	
+	@Test
+	public void inferTypeArgumentsWithVarArgs() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("asList", Object[].class);
+		
+		assertTypeArguments(method, new Type[] {String.class, String.class}, String.class);
+	}
+	
+	@Test
+	public void inferTypeArgumentsWithVarArgsAndDifferentTypes() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("asList", Object[].class);
+		
+		assertTypeArguments(method, new Type[] {Integer.class, Long.class}, Number.class);
+	}
+	
+	@Test
+	public void inferTypeArgumentsWithVarArgsAndArray() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("asList", Object[].class);
+		
+		assertTypeArguments(method, new Type[] {String[].class}, String.class);
+	}
+	
+	@Test
+	public void inferTypeArgumentsWithVarArgsAndNoArguments() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("asList", Object[].class);
+		
+		assertTypeArguments(method, new Type[0], Object.class);
+	}
+	
+	@Test
+	public void inferTypeArgumentsWithGenericArray() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("array", Object[].class);
+		
+		assertTypeArguments(method, new Type[] {Integer[].class}, Integer.class);
+	}
+	
+	@Test
+	public void inferTypeArgumentsWithLowerBoundedWildcardType() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("addAll", Collection.class, Object[].class);
+		
+		assertTypeArguments(method, new Type[] {type("List<Number>"), Integer.class}, Integer.class);
+	}
+	
+	@Test
+	public void inferTypeArgumentsWithLowerBoundedWildcardTypeOnly() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("addAll", Collection.class, Object[].class);
+		
+		assertTypeArguments(method, new Type[] {type("List<Number>")}, Number.class);
+	}
+	
+	@Test
+	public void inferTypeArgumentsWithUpperAndLowerBoundedWildcardTypes() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("copy", List.class, List.class);
+		
+		assertTypeArguments(method, new Type[] {type("List<Number>"), type("ArrayList<Integer>")}, Integer.class);
+	}
+	
+	@Test
+	public void inferTypeArgumentsWithMultipleTypeParameters() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("copy", Map.class);
+		
+		assertTypeArguments(method, new Type[] {type("HashMap<String, Integer>")}, String.class, Integer.class);
+	}
+	
+	@Test
+	public void inferTypeArgumentsWithRecursiveBound() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("max", Collection.class);
+		
+		assertTypeArguments(method, new Type[] {type("List<Integer>")}, Integer.class);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void inferTypeArgumentsWithRecursiveBoundAndOutOfBoundsArgument() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("max", Collection.class);
+		
+		TypeUtils.inferTypeArguments(method, type("List<Number>"));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void inferTypeArgumentsWithInconsistentTypeArguments() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("same", List.class, List.class);
+		
+		TypeUtils.inferTypeArguments(method, type("List<String>"), type("List<Integer>"));
+	}
+	
+	@Test
+	public void inferTypeArgumentsWithNoParameters() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("none");
+		
+		assertTypeArguments(method, new Type[0], Object.class);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void inferTypeArgumentsWithWrongArgumentCount() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("identity", Object.class);
+		
+		TypeUtils.inferTypeArguments(method, String.class, String.class);
+	}
+	
+	@Test
+	public void inferTypeArgumentsIsCached() throws NoSuchMethodException
+	{
+		Method method = Methods.class.getMethod("first", List.class);
+		
+		Map<TypeVariable<Method>, Type> typeArguments = TypeUtils.inferTypeArguments(method, type("List<String>"));
+		
+		assertSame(typeArguments, TypeUtils.inferTypeArguments(method, type("List<String>")));
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void inferTypeArgumentsWithNullMethod()
+	{
+		TypeUtils.inferTypeArguments(null, String.class);
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private static void assertTypeArguments(Method method, Type[] argumentTypes, Type... expectedTypeArguments)
+	{
+		Map<TypeVariable<Method>, Type> typeArguments = TypeUtils.inferTypeArguments(method, argumentTypes);
+		
+		assertEquals(Arrays.asList(method.getTypeParameters()), new ArrayList<TypeVariable<Method>>(
+			typeArguments.keySet()));
+		assertEquals(Arrays.asList(expectedTypeArguments), new ArrayList<Type>(typeArguments.values()));
+	}
+}
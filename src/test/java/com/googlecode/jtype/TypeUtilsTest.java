@@ -31,6 +31,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.RandomAccess;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Before;
 import org.junit.Ignore;
@@ -70,6 +72,28 @@ public class TypeUtilsTest
 		// simple subclass to fix generics
 	}
 	
+	private abstract static class ListComparable<T> implements Comparable<List<T>>
+	{
+		// simple type with a nested type argument
+	}
+	
+	private static class Node extends ArrayList<Node>
+	{
+		// simple recursive type
+		
+		private static final long serialVersionUID = 1L;
+	}
+	
+	private static class Outer<T>
+	{
+		// simple generic owner type
+		
+		private class Inner<U>
+		{
+			// simple generic inner type
+		}
+	}
+	
 	// fields -----------------------------------------------------------------
 	
 	private Set<String> valueOfImports;
@@ -151,6 +175,60 @@ public class TypeUtilsTest
 		assertAsymmetricallyAssignable(Short.TYPE, Byte.TYPE);
 	}
 	
+	@Test
+	public void isAssignableWithUnrelatedPrimitives()
+	{
+		assertUnassignable(Integer.TYPE, Boolean.TYPE);
+		assertUnassignable(Boolean.TYPE, Integer.TYPE);
+		assertUnassignable(Short.TYPE, Character.TYPE);
+		assertUnassignable(Character.TYPE, Byte.TYPE);
+		assertUnassignable(Void.TYPE, Integer.TYPE);
+	}
+	
+	@Test
+	public void isAssignableWithPrimitiveAndWrapperClass()
+	{
+		assertUnassignable(Integer.TYPE, Integer.class);
+		assertUnassignable(Integer.class, Integer.TYPE);
+	}
+	
+	// JLS 5.3 Method Invocation Conversion
+	
+	@Test
+	public void isAssignableWithBoxing()
+	{
+		assertTrue(TypeUtils.isAssignable(Integer.class, Integer.TYPE, true));
+		assertTrue(TypeUtils.isAssignable(Number.class, Integer.TYPE, true));
+		assertTrue(TypeUtils.isAssignable(Object.class, Boolean.TYPE, true));
+		assertFalse(TypeUtils.isAssignable(Long.class, Integer.TYPE, true));
+	}
+	
+	@Test
+	public void isAssignableWithUnboxing()
+	{
+		assertTrue(TypeUtils.isAssignable(Integer.TYPE, Integer.class, true));
+		assertTrue(TypeUtils.isAssignable(Long.TYPE, Integer.class, true));
+		assertTrue(TypeUtils.isAssignable(Double.TYPE, Character.class, true));
+		assertFalse(TypeUtils.isAssignable(Integer.TYPE, Long.class, true));
+		assertFalse(TypeUtils.isAssignable(Integer.TYPE, Number.class, true));
+		assertFalse(TypeUtils.isAssignable(Boolean.TYPE, Integer.class, true));
+	}
+	
+	@Test
+	public void isAssignableWithVoidAndBoxing()
+	{
+		assertFalse(TypeUtils.isAssignable(Void.TYPE, Void.class, true));
+		assertFalse(TypeUtils.isAssignable(Void.class, Void.TYPE, true));
+	}
+	
+	@Test
+	public void isAssignableWithoutBoxing()
+	{
+		assertFalse(TypeUtils.isAssignable(Integer.class, Integer.TYPE, false));
+		assertFalse(TypeUtils.isAssignable(Integer.TYPE, Integer.class, false));
+		assertTrue(TypeUtils.isAssignable(Long.TYPE, Integer.TYPE, false));
+	}
+	
 	// JLS 4.10.2 Subtyping among Class and Interface Types
 	
 	/**
@@ -482,8 +560,6 @@ public class TypeUtilsTest
 	 * 
 	 * {@literal List<?> <: List<? super Number>}
 	 */
-	// TODO: fix
-	@Ignore
 	@Test
 	public void isAssignableWithWildcardParameterizedTypeFromLowerBoundedWildcardParameterizedType()
 	{
@@ -570,14 +646,71 @@ public class TypeUtilsTest
 	/**
 	 * {@literal List<? super Integer> <: List<? super Number>}
 	 */
-	// TODO: fix
-	@Ignore
 	@Test
 	public void isAssignableWithLowerBoundedWildcardParameterizedTypeFromInBoundsLowerBoundedWildcardParameterizedType()
 	{
 		assertAsymmetricallyAssignable(valueOf("List<? super Integer>"), valueOf("List<? super Number>"));
 	}
 	
+	/**
+	 * {@literal List<? extends Number> !<: List<? super Integer>}
+	 */
+	@Test
+	public void isAssignableWithUpperBoundedWildcardParameterizedTypeFromLowerBoundedWildcardParameterizedType()
+	{
+		assertUnassignable(valueOf("List<? extends Number>"), valueOf("List<? super Integer>"));
+		assertUnassignable(valueOf("List<? super Integer>"), valueOf("List<? extends Number>"));
+	}
+	
+	/**
+	 * {@literal List<? extends Number> <: List<?>}
+	 */
+	@Test
+	public void isAssignableWithUpperBoundedWildcardParameterizedTypeFromUnboundedWildcardParameterizedType()
+	{
+		assertUnassignable(valueOf("List<? extends Number>"), valueOf("List<?>"));
+		assertAssignable(valueOf("List<? extends Object>"), valueOf("List<?>"));
+	}
+	
+	/**
+	 * Tests that wildcard type arguments are captured before resolving supertypes.
+	 * 
+	 * {@literal Collection<? extends Number> <: ArrayList<? extends Integer>}
+	 */
+	@Test
+	public void isAssignableWithUpperBoundedWildcardParameterizedTypeFromUpperBoundedWildcardParameterizedSubtype()
+	{
+		assertAsymmetricallyAssignable(valueOf("Collection<? extends Number>"),
+			valueOf("ArrayList<? extends Integer>"));
+		assertUnassignable(valueOf("Collection<Integer>"), valueOf("ArrayList<? extends Integer>"));
+	}
+	
+	/**
+	 * {@literal Collection<? super Integer> <: ArrayList<? super Number>}
+	 */
+	@Test
+	public void isAssignableWithLowerBoundedWildcardParameterizedTypeFromLowerBoundedWildcardParameterizedSubtype()
+	{
+		assertAsymmetricallyAssignable(valueOf("Collection<? super Integer>"), valueOf("ArrayList<? super Number>"));
+		assertUnassignable(valueOf("Collection<Number>"), valueOf("ArrayList<? super Number>"));
+	}
+	
+	/**
+	 * Tests that captured wildcard type arguments within supertypes are not treated as wildcards.
+	 * 
+	 * {@literal Comparable<List<? extends Integer>> !<: ListComparable<? extends Integer>}
+	 */
+	@Test
+	public void isAssignableWithParameterizedTypeFromWildcardParameterizedSubtypeWithNestedTypeArgument()
+	{
+		Type type = Types.parameterizedType(ListComparable.class, Types.upperBoundedWildcardType(Integer.class));
+		Type nestedType = valueOf("List<? extends Integer>");
+		
+		assertUnassignable(Types.parameterizedType(Comparable.class, nestedType), type);
+		assertAssignable(Types.parameterizedType(Comparable.class, Types.upperBoundedWildcardType(
+			valueOf("List<? extends Number>"))), type);
+	}
+	
 	/**
 	 * Tests that classes are assignable to parameterized supertypes.
 	 * 
@@ -892,6 +1025,251 @@ public class TypeUtilsTest
 		assertTrue(TypeUtils.isInstance(valueOf("ArrayList<Integer>"), new ArrayList<Long>()));
 	}
 	
+	// isDeepInstance tests ---------------------------------------------------
+	
+	@Test
+	public void isDeepInstanceWithClass()
+	{
+		assertTrue(TypeUtils.isDeepInstance(Integer.class, 1));
+	}
+	
+	@Test
+	public void isDeepInstanceWithNull()
+	{
+		assertFalse(TypeUtils.isDeepInstance(Integer.class, null));
+	}
+	
+	@Test
+	public void isDeepInstanceWithParameterizedTypeWithElements()
+	{
+		assertTrue(TypeUtils.isDeepInstance(valueOf("List<Integer>"), Arrays.asList(1, 2)));
+	}
+	
+	@Test
+	public void isDeepInstanceWithParameterizedTypeWithDisjointElement()
+	{
+		assertFalse(TypeUtils.isDeepInstance(valueOf("List<Integer>"), Arrays.<Object>asList(1, 2L)));
+	}
+	
+	@Test
+	public void isDeepInstanceWithParameterizedTypeWithNullElement()
+	{
+		assertTrue(TypeUtils.isDeepInstance(valueOf("List<Integer>"), Arrays.asList(1, null)));
+	}
+	
+	@Test
+	public void isDeepInstanceWithParameterizedTypeWithDisjointRawType()
+	{
+		assertFalse(TypeUtils.isDeepInstance(valueOf("Set<Integer>"), Arrays.asList(1)));
+	}
+	
+	@Test
+	public void isDeepInstanceWithNonRandomAccessCollection()
+	{
+		assertFalse(TypeUtils.isDeepInstance(valueOf("Collection<Integer>"), new HashSet<Object>(Arrays.asList(1L))));
+	}
+	
+	@Test
+	public void isDeepInstanceWithNestedParameterizedType()
+	{
+		Map<Integer, List<Object>> map = new HashMap<Integer, List<Object>>();
+		map.put(1, Arrays.<Object>asList(1, 2));
+		
+		assertTrue(TypeUtils.isDeepInstance(valueOf("Map<Integer, List<Integer>>"), map));
+		
+		map.put(2, Arrays.<Object>asList(1L));
+		
+		assertFalse(TypeUtils.isDeepInstance(valueOf("Map<Integer, List<Integer>>"), map));
+	}
+	
+	@Test
+	public void isDeepInstanceWithMapWithDisjointKey()
+	{
+		Map<Object, Integer> map = Collections.<Object, Integer>singletonMap(1L, 1);
+		
+		assertFalse(TypeUtils.isDeepInstance(valueOf("Map<Integer, Integer>"), map));
+	}
+	
+	@Test
+	public void isDeepInstanceWithSubclassOfParameterizedType()
+	{
+		IntegerArrayList list = new IntegerArrayList();
+		list.add(1);
+		
+		assertTrue(TypeUtils.isDeepInstance(IntegerArrayList.class, list));
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void isDeepInstanceWithSubclassOfParameterizedTypeWithHeapPollution()
+	{
+		IntegerArrayList list = new IntegerArrayList();
+		((List<Object>) (List<?>) list).add(1L);
+		
+		assertFalse(TypeUtils.isDeepInstance(IntegerArrayList.class, list));
+	}
+	
+	@Test
+	public void isDeepInstanceWithRecursiveType()
+	{
+		Node node = new Node();
+		node.add(new Node());
+		node.get(0).add(new Node());
+		
+		assertTrue(TypeUtils.isDeepInstance(Node.class, node));
+	}
+	
+	@Test
+	public void isDeepInstanceWithRawType()
+	{
+		assertTrue(TypeUtils.isDeepInstance(List.class, Arrays.<Object>asList(1, "a")));
+	}
+	
+	@Test
+	public void isDeepInstanceWithUpperBoundedWildcardType()
+	{
+		assertTrue(TypeUtils.isDeepInstance(valueOf("List<? extends Number>"), Arrays.<Object>asList(1, 2L)));
+		assertFalse(TypeUtils.isDeepInstance(valueOf("List<? extends Number>"), Arrays.<Object>asList(1, "a")));
+	}
+	
+	@Test
+	public void isDeepInstanceWithUnboundedWildcardType()
+	{
+		assertTrue(TypeUtils.isDeepInstance(valueOf("List<?>"), Arrays.<Object>asList(1, "a")));
+	}
+	
+	@Test
+	public void isDeepInstanceWithArray()
+	{
+		assertTrue(TypeUtils.isDeepInstance(Number[].class, new Number[] {1, 2L}));
+		assertFalse(TypeUtils.isDeepInstance(Integer[].class, new Number[] {1, 2L}));
+	}
+	
+	@Test
+	public void isDeepInstanceWithPrimitiveArray()
+	{
+		assertTrue(TypeUtils.isDeepInstance(int[].class, new int[] {1, 2}));
+	}
+	
+	@Test
+	public void isDeepInstanceWithGenericArray()
+	{
+		List<?>[] lists = new List<?>[] {Arrays.asList(1), Arrays.asList(2L)};
+		
+		assertTrue(TypeUtils.isDeepInstance(valueOf("List<Number>[]"), lists));
+		assertFalse(TypeUtils.isDeepInstance(valueOf("List<Integer>[]"), lists));
+	}
+	
+	@Test
+	public void isDeepInstanceWithSampleSize()
+	{
+		List<Object> list = new ArrayList<Object>(Arrays.<Object>asList(1, 2, 3, 4));
+		list.set(3, 4L);
+		
+		// samples elements 0 and 2
+		assertTrue(TypeUtils.isDeepInstance(valueOf("List<Integer>"), list, 2));
+		assertFalse(TypeUtils.isDeepInstance(valueOf("List<Integer>"), list, 4));
+	}
+	
+	@Test
+	public void isDeepInstanceWithSampleSizeNotDividingSize()
+	{
+		List<Object> list = new ArrayList<Object>(Collections.nCopies(10, 1));
+		list.set(9, 10L);
+		
+		// samples elements 0, 4 and 8
+		assertTrue(TypeUtils.isDeepInstance(valueOf("List<Integer>"), list, 3));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void isDeepInstanceWithZeroSampleSize()
+	{
+		TypeUtils.isDeepInstance(Integer.class, 1, 0);
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void isDeepInstanceWithNullType()
+	{
+		TypeUtils.isDeepInstance(null, 1);
+	}
+	
+	@Test
+	public void isDeepInstanceWithExecutorAndLargeList() throws InterruptedException
+	{
+		List<Integer> list = Collections.nCopies(100000, 1);
+		
+		assertTrue(isDeepInstanceInParallel(valueOf("List<Integer>"), new ArrayList<Integer>(list)));
+	}
+	
+	@Test
+	public void isDeepInstanceWithExecutorAndLargeListWithDisjointElement() throws InterruptedException
+	{
+		List<Object> list = new ArrayList<Object>(Collections.nCopies(100000, 1));
+		list.set(99999, 1L);
+		
+		assertFalse(isDeepInstanceInParallel(valueOf("List<Integer>"), list));
+		
+		list.set(99999, 1);
+		list.set(0, 1L);
+		
+		assertFalse(isDeepInstanceInParallel(valueOf("List<Integer>"), list));
+	}
+	
+	@Test
+	public void isDeepInstanceWithExecutorAndLargeArrayWithDisjointElement() throws InterruptedException
+	{
+		Number[] array = new Number[100000];
+		Arrays.fill(array, 1);
+		array[50000] = 1L;
+		
+		assertFalse(isDeepInstanceInParallel(Integer[].class, array));
+		assertTrue(isDeepInstanceInParallel(Number[].class, array));
+	}
+	
+	@Test
+	public void isDeepInstanceWithExecutorAndLargeMapWithDisjointValue() throws InterruptedException
+	{
+		Map<Integer, Object> map = new HashMap<Integer, Object>();
+		
+		for (int i = 0; i < 100000; i++)
+		{
+			map.put(i, i);
+		}
+		
+		assertTrue(isDeepInstanceInParallel(valueOf("Map<Integer, Integer>"), map));
+		
+		map.put(12345, 1L);
+		
+		assertFalse(isDeepInstanceInParallel(valueOf("Map<Integer, Integer>"), map));
+	}
+	
+	@Test
+	public void isDeepInstanceWithExecutorAndSmallList() throws InterruptedException
+	{
+		assertFalse(isDeepInstanceInParallel(valueOf("List<Integer>"), Arrays.<Object>asList(1, 2L)));
+	}
+	
+	@Test
+	public void isDeepInstanceWithExecutorAndSmallMap() throws InterruptedException
+	{
+		Map<Integer, Object> map = Collections.<Integer, Object>singletonMap(1, 1L);
+		
+		assertFalse(isDeepInstanceInParallel(valueOf("Map<Integer, Integer>"), map));
+		assertTrue(isDeepInstanceInParallel(valueOf("Map<Integer, Number>"), map));
+	}
+	
+	@Test
+	public void isDeepInstanceWithExecutorAndNonCollection() throws InterruptedException
+	{
+		assertTrue(isDeepInstanceInParallel(Integer.class, 1));
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void isDeepInstanceWithNullExecutor() throws InterruptedException
+	{
+		TypeUtils.isDeepInstance(Integer.class, 1, (ExecutorService) null);
+	}
+	
 	// getErasedType tests ----------------------------------------------------
 	
 	@Test
@@ -925,6 +1303,12 @@ public class TypeUtilsTest
 		assertEquals(List[].class, TypeUtils.getErasedType(valueOf("List<Integer>[]")));
 	}
 	
+	@Test
+	public void getErasedTypeWithMultidimensionalGenericArrayType()
+	{
+		assertEquals(List[][].class, TypeUtils.getErasedType(valueOf("List<Integer>[][]")));
+	}
+	
 	@Test
 	public void getErasedTypeWithParameterizedType()
 	{
@@ -1208,6 +1592,31 @@ public class TypeUtilsTest
 			TypeUtils.getArrayType(Types.unboundedWildcardType()));
 	}
 	
+	@Test
+	public void getArrayTypeWithClassAndDimensions()
+	{
+		assertEquals(Integer[][].class, TypeUtils.getArrayType(Integer.class, 2));
+	}
+	
+	@Test
+	public void getArrayTypeWithParameterizedTypeAndDimensions()
+	{
+		assertEquals(Types.genericArrayType(Types.genericArrayType(Types.parameterizedType(List.class, String.class))),
+			TypeUtils.getArrayType(Types.parameterizedType(List.class, String.class), 2));
+	}
+	
+	@Test
+	public void getArrayTypeWithZeroDimensions()
+	{
+		assertEquals(Integer.class, TypeUtils.getArrayType(Integer.class, 0));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void getArrayTypeWithNegativeDimensions()
+	{
+		TypeUtils.getArrayType(Integer.class, -1);
+	}
+	
 	// isParameterizedType tests ----------------------------------------------
 	
 	@Test(expected = NullPointerException.class)
@@ -1595,6 +2004,18 @@ public class TypeUtilsTest
 		assertEquals("null", TypeUtils.toString(null));
 	}
 	
+	@Test
+	public void toStringWithDescriptorSerializerAndParameterizedType()
+	{
+		assertEquals("Ljava/util/List;", TypeUtils.toString(valueOf("List<Integer>"), ClassSerializers.DESCRIPTOR));
+	}
+	
+	@Test
+	public void toStringWithDescriptorSerializerAndGenericArrayType()
+	{
+		assertEquals("[Ljava/util/List;", TypeUtils.toString(valueOf("List<Integer>[]"), ClassSerializers.DESCRIPTOR));
+	}
+	
 	// toUnqualifiedString tests ----------------------------------------------
 	
 	@Test
@@ -1665,6 +2086,153 @@ public class TypeUtilsTest
 		assertEquals("null", TypeUtils.toUnqualifiedString(null));
 	}
 	
+	// toDescriptor tests -----------------------------------------------------
+	
+	@Test
+	public void toDescriptorWithPrimitive()
+	{
+		assertEquals("I", TypeUtils.toDescriptor(Integer.TYPE));
+	}
+	
+	@Test
+	public void toDescriptorWithVoid()
+	{
+		assertEquals("V", TypeUtils.toDescriptor(Void.TYPE));
+	}
+	
+	@Test
+	public void toDescriptorWithClass()
+	{
+		assertEquals("Ljava/lang/Integer;", TypeUtils.toDescriptor(Integer.class));
+	}
+	
+	@Test
+	public void toDescriptorWithMemberClass()
+	{
+		assertEquals("Ljava/util/Map$Entry;", TypeUtils.toDescriptor(Map.Entry.class));
+	}
+	
+	@Test
+	public void toDescriptorWithMultidimensionalArrayClass()
+	{
+		assertEquals("[[J", TypeUtils.toDescriptor(long[][].class));
+	}
+	
+	@Test
+	public void toDescriptorWithParameterizedType()
+	{
+		assertEquals("Ljava/util/List;", TypeUtils.toDescriptor(valueOf("List<Integer>")));
+	}
+	
+	@Test
+	public void toDescriptorWithGenericArrayType()
+	{
+		assertEquals("[Ljava/util/List;", TypeUtils.toDescriptor(valueOf("List<Integer>[]")));
+	}
+	
+	@Test
+	public void toDescriptorWithTypeVariable()
+	{
+		assertEquals("Ljava/lang/Number;", TypeUtils.toDescriptor(Types.typeVariable(declaration, "T", Number.class)));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void toDescriptorWithWildcardType()
+	{
+		TypeUtils.toDescriptor(Types.unboundedWildcardType());
+	}
+	
+	@Test
+	public void appendDescriptorAppendsToBuilder()
+	{
+		StringBuilder builder = new StringBuilder("(");
+		
+		TypeUtils.appendDescriptor(Integer.TYPE, builder);
+		TypeUtils.appendDescriptor(String.class, builder);
+		
+		assertEquals("(ILjava/lang/String;", builder.toString());
+	}
+	
+	// toSignature tests ------------------------------------------------------
+	
+	@Test
+	public void toSignatureWithPrimitive()
+	{
+		assertEquals("Z", TypeUtils.toSignature(Boolean.TYPE));
+	}
+	
+	@Test
+	public void toSignatureWithClass()
+	{
+		assertEquals("Ljava/lang/Integer;", TypeUtils.toSignature(Integer.class));
+	}
+	
+	@Test
+	public void toSignatureWithArrayClass()
+	{
+		assertEquals("[Ljava/lang/Integer;", TypeUtils.toSignature(Integer[].class));
+	}
+	
+	@Test
+	public void toSignatureWithTypeVariable()
+	{
+		assertEquals("TT;", TypeUtils.toSignature(Types.typeVariable(declaration, "T", Number.class)));
+	}
+	
+	@Test
+	public void toSignatureWithGenericArrayType()
+	{
+		assertEquals("[Ljava/util/List<Ljava/lang/Integer;>;", TypeUtils.toSignature(valueOf("List<Integer>[]")));
+	}
+	
+	@Test
+	public void toSignatureWithParameterizedType()
+	{
+		assertEquals("Ljava/util/Map<Ljava/lang/Integer;Ljava/util/List<Ljava/lang/Number;>;>;",
+			TypeUtils.toSignature(valueOf("Map<Integer, List<Number>>")));
+	}
+	
+	@Test
+	public void toSignatureWithParameterizedTypeByTypeVariable()
+	{
+		assertEquals("Ljava/util/List<TT;>;",
+			TypeUtils.toSignature(Types.parameterizedType(List.class, Types.typeVariable(declaration, "T"))));
+	}
+	
+	@Test
+	public void toSignatureWithParameterizedTypeByWildcardTypes()
+	{
+		assertEquals("Ljava/util/Map<*+Ljava/lang/Number;>;",
+			TypeUtils.toSignature(valueOf("Map<?, ? extends Number>")));
+		assertEquals("Ljava/util/List<-Ljava/lang/Integer;>;", TypeUtils.toSignature(valueOf("List<? super Integer>")));
+	}
+	
+	@Test
+	public void toSignatureWithInnerParameterizedType()
+	{
+		Type ownerType = Types.parameterizedType(Outer.class, String.class);
+		Type type = new DefaultParameterizedType(ownerType, Outer.Inner.class, new Type[] {Integer.class});
+		
+		assertEquals("Lcom/googlecode/jtype/TypeUtilsTest$Outer<Ljava/lang/String;>.Inner<Ljava/lang/Integer;>;",
+			TypeUtils.toSignature(type));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void toSignatureWithWildcardType()
+	{
+		TypeUtils.toSignature(Types.unboundedWildcardType());
+	}
+	
+	@Test
+	public void appendSignatureAppendsToBuilder()
+	{
+		StringBuilder builder = new StringBuilder("<T:");
+		
+		TypeUtils.appendSignature(Object.class, builder);
+		
+		assertEquals("<T:Ljava/lang/Object;", builder.toString());
+	}
+	
 	// private methods --------------------------------------------------------
 	
 	private static void assertAsymmetricallyAssignable(Type supertype, Type type)
@@ -1687,4 +2255,18 @@ public class TypeUtilsTest
 	{
 		return Types.valueOf(typeName, valueOfImports);
 	}
+	
+	private static boolean isDeepInstanceInParallel(Type type, Object object) throws InterruptedException
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		
+		try
+		{
+			return TypeUtils.isDeepInstance(type, object, executor);
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
 }
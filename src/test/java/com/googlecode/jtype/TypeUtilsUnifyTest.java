@@ -0,0 +1,280 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype;
+
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.googlecode.jtype.test.AbstractTypeTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@code TypeUtils.unify}.
+ * 
+ * @author Mark Hobson
+ * @see TypeUtils#unify(Type, Type)
+ */
+public class TypeUtilsUnifyTest extends AbstractTypeTest
+{
+	// types ------------------------------------------------------------------
+	
+	private static class Patterns<K, V>
+	{
+		// simple pattern types
+		
+		public Map<K, List<V>> mapOfLists;
+		
+		public Map<K, K> mapToSelf;
+		
+		public List<? extends V> extendsList;
+		
+		public Comparator<? super K> superComparator;
+		
+		public List<Number> numbers;
+		
+		public K[] array;
+	}
+	
+	// AbstractTypeTest methods -----------------------------------------------
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void addImports(Set<Class<?>> imports)
+	{
+		imports.add(String.class);
+		imports.add(Number.class);
+		imports.add(Integer.class);
+		imports.add(Comparator.class);
+		imports.add(List.class);
+		imports.add(ArrayList.class);
+		imports.add(Map.class);
+		imports.add(HashMap.class);
+	}
+	
+	// tests ------------------------------------------------------------------
+	
+	@Test
+	public void unifyWithTypeVariable()
+	{
+		assertBindings(bindings("K", String.class), TypeUtils.unify(variable("K"), String.class));
+	}
+	
+	@Test
+	public void unifyWithTypeVariableAndPrimitive()
+	{
+		assertNull(TypeUtils.unify(variable("K"), int.class));
+	}
+	
+	@Test
+	public void unifyWithClass()
+	{
+		assertTrue(TypeUtils.unify(Number.class, Integer.class).isEmpty());
+	}
+	
+	@Test
+	public void unifyWithUnassignableClass()
+	{
+		assertNull(TypeUtils.unify(Integer.class, Number.class));
+	}
+	
+	@Test
+	public void unifyWithParameterizedType()
+	{
+		Map<TypeVariable<?>, Type> bindings = TypeUtils.unify(pattern("mapOfLists"),
+			type("Map<String, List<Integer>>"));
+		
+		assertBindings(bindings("K", String.class, "V", Integer.class), bindings);
+	}
+	
+	@Test
+	public void unifyWithParameterizedSubtype()
+	{
+		Map<TypeVariable<?>, Type> bindings = TypeUtils.unify(pattern("mapOfLists"),
+			type("HashMap<String, ArrayList<Integer>>"));
+		
+		assertBindings(bindings("K", String.class, "V", Integer.class), bindings);
+	}
+	
+	@Test
+	public void unifyWithUnrelatedParameterizedType()
+	{
+		assertNull(TypeUtils.unify(pattern("mapOfLists"), type("List<String>")));
+	}
+	
+	@Test
+	public void unifyWithRawType()
+	{
+		assertNull(TypeUtils.unify(pattern("mapOfLists"), HashMap.class));
+	}
+	
+	@Test
+	public void unifyWithRawSubtype()
+	{
+		assertNull(TypeUtils.unify(pattern("extendsList"), ArrayList.class));
+	}
+	
+	@Test
+	public void unifyWithRawTypeArgument()
+	{
+		assertNull(TypeUtils.unify(pattern("mapOfLists"), type("Map<String, ArrayList>")));
+	}
+	
+	@Test
+	public void unifyWithNonUnifiableNestedType()
+	{
+		assertNull(TypeUtils.unify(pattern("mapOfLists"), type("Map<String, Integer>")));
+	}
+	
+	@Test
+	public void unifyWithRepeatedTypeVariable()
+	{
+		Map<TypeVariable<?>, Type> bindings = TypeUtils.unify(pattern("mapToSelf"), type("Map<String, String>"));
+		
+		assertBindings(bindings("K", String.class), bindings);
+	}
+	
+	@Test
+	public void unifyWithRepeatedTypeVariableAndDifferentTypes()
+	{
+		assertNull(TypeUtils.unify(pattern("mapToSelf"), type("Map<String, Integer>")));
+	}
+	
+	@Test
+	public void unifyWithUpperBoundedWildcardType()
+	{
+		Map<TypeVariable<?>, Type> bindings = TypeUtils.unify(pattern("extendsList"), type("List<Integer>"));
+		
+		assertBindings(bindings("V", Integer.class), bindings);
+	}
+	
+	@Test
+	public void unifyWithUpperBoundedWildcardTypeAndWildcardType()
+	{
+		Map<TypeVariable<?>, Type> bindings = TypeUtils.unify(pattern("extendsList"),
+			type("List<? extends Integer>"));
+		
+		assertBindings(bindings("V", Integer.class), bindings);
+	}
+	
+	@Test
+	public void unifyWithLowerBoundedWildcardType()
+	{
+		Map<TypeVariable<?>, Type> bindings = TypeUtils.unify(pattern("superComparator"),
+			type("Comparator<? super String>"));
+		
+		assertBindings(bindings("K", String.class), bindings);
+	}
+	
+	@Test
+	public void unifyWithLowerBoundedWildcardTypeAndUpperBoundedWildcardType()
+	{
+		assertNull(TypeUtils.unify(pattern("superComparator"), type("Comparator<? extends String>")));
+	}
+	
+	@Test
+	public void unifyWithClassTypeArgument()
+	{
+		assertTrue(TypeUtils.unify(pattern("numbers"), type("ArrayList<Number>")).isEmpty());
+	}
+	
+	@Test
+	public void unifyWithDifferentClassTypeArgument()
+	{
+		assertNull(TypeUtils.unify(pattern("numbers"), type("List<Integer>")));
+	}
+	
+	@Test
+	public void unifyWithGenericArrayType()
+	{
+		assertBindings(bindings("K", String.class), TypeUtils.unify(pattern("array"), String[].class));
+	}
+	
+	@Test
+	public void unifyWithGenericArrayTypeAndNonArray()
+	{
+		assertNull(TypeUtils.unify(pattern("array"), String.class));
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void unifyWithNullPattern()
+	{
+		TypeUtils.unify(null, String.class);
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void unifyWithNullConcrete()
+	{
+		TypeUtils.unify(String.class, null);
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private static Type pattern(String fieldName)
+	{
+		try
+		{
+			return Patterns.class.getField(fieldName).getGenericType();
+		}
+		catch (NoSuchFieldException exception)
+		{
+			throw new AssertionError(exception);
+		}
+	}
+	
+	private static TypeVariable<?> variable(String name)
+	{
+		for (TypeVariable<?> typeParameter : Patterns.class.getTypeParameters())
+		{
+			if (typeParameter.getName().equals(name))
+			{
+				return typeParameter;
+			}
+		}
+		
+		throw new AssertionError("Unknown type variable: " + name);
+	}
+	
+	private static Map<TypeVariable<?>, Type> bindings(Object... namesAndTypes)
+	{
+		Map<TypeVariable<?>, Type> bindings = new LinkedHashMap<TypeVariable<?>, Type>();
+		
+		for (int i = 0; i < namesAndTypes.length; i += 2)
+		{
+			bindings.put(variable((String) namesAndTypes[i]), (Type) namesAndTypes[i + 1]);
+		}
+		
+		return bindings;
+	}
+	
+	private static void assertBindings(Map<TypeVariable<?>, Type> expected, Map<TypeVariable<?>, Type> actual)
+	{
+		assertEquals(expected, actual);
+		assertEquals(new ArrayList<TypeVariable<?>>(expected.keySet()),
+			new ArrayList<TypeVariable<?>>(actual.keySet()));
+	}
+}
@@ -14,8 +14,10 @@
 package com.googlecode.jtype;
 
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.MalformedParameterizedTypeException;
+import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
@@ -38,7 +40,9 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import static com.googlecode.jtype.test.TypeAssert.assertGenericArrayType;
 import static com.googlecode.jtype.test.TypeAssert.assertParameterizedType;
@@ -54,8 +58,47 @@ import static com.googlecode.jtype.test.TypeAssert.assertWildcardType;
 @RunWith(JMock.class)
 public class TypesTest
 {
+	// classes ----------------------------------------------------------------
+	
+	private static class GenericFake<E>
+	{
+		private class InnerFake
+		{
+			// used by fromSignature tests
+		}
+		
+		public InnerFake inner;
+		
+		public Map.Entry<E, E> entry;
+		
+		public <T extends Number> void genericMethod(List<T> list)
+		{
+			// used by fromSignature tests
+		}
+	}
+	
+	private static class UninitializedFake
+	{
+		static
+		{
+			uninitializedFakeInitialized = true;
+		}
+	}
+	
+	private static class InitializedFake
+	{
+		static
+		{
+			initializedFakeInitialized = true;
+		}
+	}
+	
 	// fields -----------------------------------------------------------------
 	
+	private static boolean uninitializedFakeInitialized;
+	
+	private static boolean initializedFakeInitialized;
+	
 	private Mockery context;
 	
 	@SuppressWarnings("unused")
@@ -78,6 +121,9 @@ public class TypesTest
 	
 	private Type integerLowerBoundedWildcardType;
 	
+	@SuppressWarnings("unused")
+	private List<Map<String, ? extends Number>[]> nestedList;
+	
 	// public methods ---------------------------------------------------------
 	
 	@Before
@@ -370,12 +416,32 @@ public class TypesTest
 		}
 	}
 	
+	@Test
+	public void valueOfWithClassDoesNotInitializeClass()
+	{
+		assertEquals(UninitializedFake.class, Types.valueOf(UninitializedFake.class.getName()));
+		assertFalse(uninitializedFakeInitialized);
+	}
+	
+	@Test
+	public void valueOfWithClassAndInitialize()
+	{
+		assertEquals(InitializedFake.class, Types.valueOf(InitializedFake.class.getName(), null, true));
+		assertTrue(initializedFakeInitialized);
+	}
+	
 	@Test
 	public void valueOfWithArray()
 	{
 		assertEquals(Integer[].class, Types.valueOf("java.lang.Integer[]"));
 	}
 	
+	@Test
+	public void valueOfWithMultidimensionalArray()
+	{
+		assertEquals(Integer[][].class, Types.valueOf("java.lang.Integer[][]"));
+	}
+	
 	@Test
 	public void valueOfWithArrayAndWhitespace()
 	{
@@ -587,6 +653,283 @@ public class TypesTest
 		assertEquals(Integer.class, Types.valueOf("java.lang.Integer", null));
 	}
 	
+	// fromSignature tests ----------------------------------------------------
+	
+	@Test
+	public void fromSignatureWithPrimitive()
+	{
+		assertEquals(Integer.TYPE, Types.fromSignature("I"));
+	}
+	
+	@Test
+	public void fromSignatureWithClass()
+	{
+		assertEquals(Integer.class, Types.fromSignature("Ljava/lang/Integer;"));
+	}
+	
+	@Test
+	public void fromSignatureWithArray()
+	{
+		assertEquals(Integer[][].class, Types.fromSignature("[[Ljava/lang/Integer;"));
+	}
+	
+	@Test
+	public void fromSignatureWithMemberClass()
+	{
+		assertEquals(Map.Entry.class, Types.fromSignature("Ljava/util/Map$Entry;"));
+	}
+	
+	@Test
+	public void fromSignatureWithParameterizedType()
+	{
+		assertEquals(stringIntegerMapType,
+			Types.fromSignature("Ljava/util/Map<Ljava/lang/String;Ljava/lang/Integer;>;"));
+	}
+	
+	@Test
+	public void fromSignatureWithMultiParameterizedType()
+	{
+		assertEquals(Types.parameterizedType(List.class, Types.parameterizedType(List.class, Integer.class)),
+			Types.fromSignature("Ljava/util/List<Ljava/util/List<Ljava/lang/Integer;>;>;"));
+	}
+	
+	@Test
+	public void fromSignatureWithGenericArrayType()
+	{
+		assertEquals(Types.genericArrayType(Types.parameterizedType(List.class, Integer.class)),
+			Types.fromSignature("[Ljava/util/List<Ljava/lang/Integer;>;"));
+	}
+	
+	@Test
+	public void fromSignatureWithWildcardTypes()
+	{
+		Type expected = Types.parameterizedType(Map.class, unboundedWildcardType, numberUpperBoundedWildcardType);
+		
+		assertEquals(expected, Types.fromSignature("Ljava/util/Map<*+Ljava/lang/Number;>;"));
+	}
+	
+	@Test
+	public void fromSignatureWithLowerBoundedWildcardType()
+	{
+		assertEquals(Types.parameterizedType(List.class, integerLowerBoundedWildcardType),
+			Types.fromSignature("Ljava/util/List<-Ljava/lang/Integer;>;"));
+	}
+	
+	@Test
+	public void fromSignatureIsCached()
+	{
+		String signature = "Ljava/util/List<Ljava/lang/Integer;>;";
+		
+		assertSame(Types.fromSignature(signature), Types.fromSignature(signature));
+	}
+	
+	@Test
+	public void fromSignatureWithTypeVariableAndDeclaration() throws NoSuchMethodException
+	{
+		Method method = GenericFake.class.getMethod("genericMethod", List.class);
+		
+		assertEquals(method.getGenericParameterTypes()[0], Types.fromSignature("Ljava/util/List<TT;>;", method));
+	}
+	
+	@Test
+	public void fromSignatureWithInnerClassOfParameterizedType() throws NoSuchFieldException
+	{
+		Field field = GenericFake.class.getField("inner");
+		String signature = "Lcom/googlecode/jtype/TypesTest$GenericFake<TE;>.InnerFake;";
+		
+		assertEquals(field.getGenericType(), Types.fromSignature(signature, GenericFake.class));
+	}
+	
+	@Test
+	public void fromSignatureWithParameterizedMemberClass() throws NoSuchFieldException
+	{
+		Field field = GenericFake.class.getField("entry");
+		Type type = Types.fromSignature("Ljava/util/Map$Entry<TE;TE;>;", GenericFake.class);
+		
+		assertEquals(field.getGenericType(), type);
+		assertEquals(Map.class, ((ParameterizedType) type).getOwnerType());
+	}
+	
+	@Test
+	public void fromSignatureWithTypeVariableAndEnclosingDeclaration() throws NoSuchMethodException
+	{
+		Method method = GenericFake.class.getMethod("genericMethod", List.class);
+		
+		assertEquals(GenericFake.class.getTypeParameters()[0], Types.fromSignature("TE;", method));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void fromSignatureWithUndeclaredTypeVariable()
+	{
+		try
+		{
+			Types.fromSignature("TT;");
+		}
+		catch (IllegalArgumentException exception)
+		{
+			assertEquals("Type variable not found: T", exception.getMessage());
+			
+			throw exception;
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void fromSignatureWithMissingClass()
+	{
+		try
+		{
+			Types.fromSignature("Lcom/example/Missing;");
+		}
+		catch (IllegalArgumentException exception)
+		{
+			assertEquals("Class not found: com.example.Missing", exception.getMessage());
+			
+			throw exception;
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void fromSignatureWithUnterminatedClass()
+	{
+		try
+		{
+			Types.fromSignature("Ljava/lang/Integer");
+		}
+		catch (IllegalArgumentException exception)
+		{
+			assertEquals("Invalid signature at index 18: Ljava/lang/Integer", exception.getMessage());
+			
+			throw exception;
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void fromSignatureWithTrailingCharacters()
+	{
+		Types.fromSignature("IJ");
+	}
+	
+	@Test(expected = MalformedParameterizedTypeException.class)
+	public void fromSignatureWithMismatchedArgumentParameterizedType()
+	{
+		Types.fromSignature("Ljava/util/Map<Ljava/lang/String;>;");
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void fromSignatureWithNull()
+	{
+		Types.fromSignature(null);
+	}
+	
+	// fromDescriptor tests ---------------------------------------------------
+	
+	@Test
+	public void fromDescriptorWithPrimitive()
+	{
+		assertEquals(Long.TYPE, Types.fromDescriptor("J"));
+	}
+	
+	@Test
+	public void fromDescriptorWithClass()
+	{
+		assertEquals(String.class, Types.fromDescriptor("Ljava/lang/String;"));
+	}
+	
+	@Test
+	public void fromDescriptorWithPrimitiveArray()
+	{
+		assertEquals(int[][].class, Types.fromDescriptor("[[I"));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void fromDescriptorWithSignature()
+	{
+		Types.fromDescriptor("Ljava/util/List<Ljava/lang/String;>;");
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void fromDescriptorWithTypeVariable()
+	{
+		Types.fromDescriptor("TT;");
+	}
+	
+	// canonicalize tests -----------------------------------------------------
+	
+	@Test
+	public void canonicalizeWithClass()
+	{
+		assertSame(String.class, Types.canonicalize(String.class));
+	}
+	
+	@Test
+	public void canonicalizeWithParameterizedType()
+	{
+		Type type = Types.canonicalize(stringIntegerMapType);
+		
+		assertTrue(type instanceof DefaultParameterizedType);
+		assertEquals(stringIntegerMapType, type);
+	}
+	
+	@Test
+	public void canonicalizeWithNestedTypes() throws NoSuchFieldException
+	{
+		Type nestedListType = getFieldType("nestedList");
+		ParameterizedType type = (ParameterizedType) Types.canonicalize(nestedListType);
+		GenericArrayType arrayType = (GenericArrayType) type.getActualTypeArguments()[0];
+		ParameterizedType mapType = (ParameterizedType) arrayType.getGenericComponentType();
+		
+		assertTrue(arrayType instanceof DefaultGenericArrayType);
+		assertTrue(mapType instanceof DefaultParameterizedType);
+		assertTrue(mapType.getActualTypeArguments()[1] instanceof DefaultWildcardType);
+		assertEquals(nestedListType, type);
+	}
+	
+	@Test
+	public void canonicalizeWithWildcardType()
+	{
+		Type type = Types.canonicalize(integerLowerBoundedWildcardType);
+		
+		assertTrue(type instanceof DefaultWildcardType);
+		assertEquals(integerLowerBoundedWildcardType, type);
+	}
+	
+	@Test
+	public void canonicalizeWithUnboundedWildcardType()
+	{
+		assertSame(Types.unboundedWildcardType(), Types.canonicalize(unboundedWildcardType));
+	}
+	
+	@Test
+	public void canonicalizeWithTypeVariable()
+	{
+		Type type = GenericFake.class.getTypeParameters()[0];
+		
+		assertSame(type, Types.canonicalize(type));
+	}
+	
+	@Test
+	public void canonicalizeWithCanonicalType()
+	{
+		Type type = Types.parameterizedType(List.class, Types.upperBoundedWildcardType(Number.class));
+		
+		assertSame(type, Types.canonicalize(type));
+	}
+	
+	@Test
+	public void canonicalizeWithIntern() throws NoSuchFieldException
+	{
+		Type type = Types.canonicalize(getFieldType("nestedList"), true);
+		
+		assertSame(type, Types.canonicalize(getFieldType("nestedList"), true));
+		assertSame(type, Types.canonicalize(Types.canonicalize(getFieldType("nestedList")), true));
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void canonicalizeWithNull()
+	{
+		Types.canonicalize(null);
+	}
+	
 	// private methods --------------------------------------------------------
 	
 	private Type getFieldType(String name) throws NoSuchFieldException
@@ -0,0 +1,101 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Provides utility methods for running benchmarks.
+ * 
+ * @author Mark Hobson
+ */
+final class BenchmarkUtils
+{
+	// classes ----------------------------------------------------------------
+	
+	/**
+	 * A unit of work to be timed by a benchmark.
+	 */
+	interface Task
+	{
+		/**
+		 * Runs this task once.
+		 * 
+		 * @return the time taken in nanoseconds
+		 */
+		long run();
+	}
+	
+	// constructors -----------------------------------------------------------
+	
+	private BenchmarkUtils()
+	{
+		throw new AssertionError();
+	}
+	
+	// public methods ---------------------------------------------------------
+	
+	/**
+	 * Times the specified tasks over a number of rounds, running each task once per round so that warm-up effects are
+	 * evened out between them.
+	 * 
+	 * @param warmUpRounds
+	 *            the number of rounds to run before timing
+	 * @param rounds
+	 *            the number of rounds to time
+	 * @param tasks
+	 *            the tasks to time
+	 * @return the median time in nanoseconds of each task
+	 */
+	public static long[] time(int warmUpRounds, int rounds, Task... tasks)
+	{
+		for (int round = 0; round < warmUpRounds; round++)
+		{
+			for (Task task : tasks)
+			{
+				task.run();
+			}
+		}
+		
+		long[][] times = new long[tasks.length][rounds];
+		
+		for (int round = 0; round < rounds; round++)
+		{
+			for (int i = 0; i < tasks.length; i++)
+			{
+				times[i][round] = tasks[i].run();
+			}
+		}
+		
+		long[] medianTimes = new long[tasks.length];
+		
+		for (int i = 0; i < tasks.length; i++)
+		{
+			medianTimes[i] = median(times[i]);
+		}
+		
+		return medianTimes;
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private static long median(long[] times)
+	{
+		long[] sortedTimes = times.clone();
+		
+		Arrays.sort(sortedTimes);
+		
+		return sortedTimes[sortedTimes.length / 2];
+	}
+}
@@ -0,0 +1,211 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import com.googlecode.jtype.Types;
+import com.googlecode.jtype.benchmark.BenchmarkUtils.Task;
+
+/**
+ * Measures the cost of parsing every class name on the class path with {@code Types.valueOf}, with and without class
+ * initialization.
+ * <p>
+ * Each round uses a new class loader over the class path so that classes are loaded, and optionally initialized, from
+ * scratch. Run with {@code java -cp <test class path> com.googlecode.jtype.benchmark.ClassLookupBenchmark [rounds]}.
+ * 
+ * @author Mark Hobson
+ */
+public final class ClassLookupBenchmark
+{
+	// constants --------------------------------------------------------------
+	
+	private static final String CLASS_FILE_EXTENSION = ".class";
+	
+	private static final int DEFAULT_ROUNDS = 5;
+	
+	// constructors -----------------------------------------------------------
+	
+	private ClassLookupBenchmark()
+	{
+		throw new AssertionError();
+	}
+	
+	// public methods ---------------------------------------------------------
+	
+	public static void main(String[] args) throws IOException
+	{
+		int rounds = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_ROUNDS;
+		
+		List<File> classPath = getClassPath();
+		final List<String> classNames = getClassNames(classPath);
+		final URL[] urls = toURLs(classPath);
+		
+		System.out.println("Classes: " + classNames.size());
+		
+		// each round loads classes from scratch so no warm-up rounds are needed
+		long[] times = BenchmarkUtils.time(0, rounds, new Task()
+		{
+			public long run()
+			{
+				return ClassLookupBenchmark.run(urls, classNames, false);
+			}
+		}, new Task()
+		{
+			public long run()
+			{
+				return ClassLookupBenchmark.run(urls, classNames, true);
+			}
+		});
+		
+		System.out.println("Without initialization: " + (times[0] / 1000000) + " ms");
+		System.out.println("With initialization:    " + (times[1] / 1000000) + " ms");
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private static long run(URL[] urls, List<String> classNames, boolean initialize)
+	{
+		// parent-less so that class path classes are defined anew by each loader
+		ClassLoader classLoader = new URLClassLoader(urls, null);
+		ClassLoader oldClassLoader = Thread.currentThread().getContextClassLoader();
+		
+		Thread.currentThread().setContextClassLoader(classLoader);
+		
+		try
+		{
+			long start = System.nanoTime();
+			
+			for (String className : classNames)
+			{
+				try
+				{
+					Types.valueOf(className, null, initialize);
+				}
+				catch (IllegalArgumentException exception)
+				{
+					// class not found
+				}
+				catch (LinkageError error)
+				{
+					// missing optional dependency or failed initializer
+				}
+			}
+			
+			return System.nanoTime() - start;
+		}
+		finally
+		{
+			Thread.currentThread().setContextClassLoader(oldClassLoader);
+		}
+	}
+	
+	private static List<File> getClassPath()
+	{
+		List<File> classPath = new ArrayList<File>();
+		
+		for (String path : System.getProperty("java.class.path").split(File.pathSeparator))
+		{
+			classPath.add(new File(path));
+		}
+		
+		return classPath;
+	}
+	
+	private static List<String> getClassNames(List<File> classPath) throws IOException
+	{
+		List<String> classNames = new ArrayList<String>();
+		
+		for (File file : classPath)
+		{
+			if (file.isDirectory())
+			{
+				addClassNames(classNames, file, "");
+			}
+			else if (file.isFile())
+			{
+				addClassNames(classNames, new ZipFile(file));
+			}
+		}
+		
+		return classNames;
+	}
+	
+	private static void addClassNames(List<String> classNames, File directory, String packagePrefix)
+	{
+		for (File file : directory.listFiles())
+		{
+			String name = file.getName();
+			
+			if (file.isDirectory())
+			{
+				addClassNames(classNames, file, packagePrefix + name + ".");
+			}
+			else if (isClassFileName(name))
+			{
+				classNames.add(packagePrefix + name.substring(0, name.length() - CLASS_FILE_EXTENSION.length()));
+			}
+		}
+	}
+	
+	private static void addClassNames(List<String> classNames, ZipFile zipFile) throws IOException
+	{
+		try
+		{
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			
+			while (entries.hasMoreElements())
+			{
+				String name = entries.nextElement().getName();
+				
+				if (isClassFileName(name))
+				{
+					String path = name.substring(0, name.length() - CLASS_FILE_EXTENSION.length());
+					
+					classNames.add(path.replace('/', '.'));
+				}
+			}
+		}
+		finally
+		{
+			zipFile.close();
+		}
+	}
+	
+	private static boolean isClassFileName(String name)
+	{
+		// excludes package-info and module-info
+		return name.endsWith(CLASS_FILE_EXTENSION) && !name.contains("-");
+	}
+	
+	private static URL[] toURLs(List<File> files) throws IOException
+	{
+		URL[] urls = new URL[files.size()];
+		
+		for (int i = 0; i < urls.length; i++)
+		{
+			urls[i] = files.get(i).toURI().toURL();
+		}
+		
+		return urls;
+	}
+}
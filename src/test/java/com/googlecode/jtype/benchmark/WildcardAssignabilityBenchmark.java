@@ -0,0 +1,122 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype.benchmark;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.googlecode.jtype.TypeUtils;
+import com.googlecode.jtype.Types;
+import com.googlecode.jtype.benchmark.BenchmarkUtils.Task;
+
+/**
+ * Measures the cost of {@code TypeUtils.isAssignable} for wildcard-heavy parameterized types, covering wildcard
+ * containment between equal raw types and capture conversion when resolving supertypes.
+ * <p>
+ * Run with {@code java -cp <test class path> com.googlecode.jtype.benchmark.WildcardAssignabilityBenchmark
+ * [iterations [rounds]]}.
+ * 
+ * @author Mark Hobson
+ */
+public final class WildcardAssignabilityBenchmark
+{
+	// constants --------------------------------------------------------------
+	
+	private static final int DEFAULT_ITERATIONS = 200000;
+	
+	private static final int DEFAULT_ROUNDS = 5;
+	
+	private static final String[][] CASES = {
+		// wildcard containment
+		{"List<? extends Number>", "List<? extends Integer>"},
+		{"List<? super Integer>", "List<? super Number>"},
+		{"List<?>", "List<? super Number>"},
+		{"Map<? extends Number, ? super Integer>", "Map<Integer, Number>"},
+		// capture conversion
+		{"Collection<? extends Number>", "ArrayList<? extends Integer>"},
+		{"Collection<? super Integer>", "ArrayList<? super Number>"},
+		{"Map<? extends Number, ?>", "HashMap<? extends Integer, ? super Integer>"},
+		// unassignable
+		{"Collection<Integer>", "ArrayList<? extends Integer>"},
+	};
+	
+	// constructors -----------------------------------------------------------
+	
+	private WildcardAssignabilityBenchmark()
+	{
+		throw new AssertionError();
+	}
+	
+	// public methods ---------------------------------------------------------
+	
+	public static void main(String[] args)
+	{
+		final int iterations = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_ITERATIONS;
+		int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+		
+		Set<String> imports = new HashSet<String>(Arrays.asList(Number.class.getName(), Integer.class.getName(),
+			Collection.class.getName(), List.class.getName(), ArrayList.class.getName(), Map.class.getName(),
+			HashMap.class.getName()));
+		
+		for (String[] typeNames : CASES)
+		{
+			final Type supertype = Types.valueOf(typeNames[0], imports);
+			final Type type = Types.valueOf(typeNames[1], imports);
+			
+			long time = BenchmarkUtils.time(1, rounds, new Task()
+			{
+				public long run()
+				{
+					return WildcardAssignabilityBenchmark.run(supertype, type, iterations);
+				}
+			})[0];
+			
+			System.out.println(typeNames[0] + " <- " + typeNames[1] + " (" + TypeUtils.isAssignable(supertype, type)
+				+ "): " + (time / iterations) + " ns/op");
+		}
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private static long run(Type supertype, Type type, int iterations)
+	{
+		long start = System.nanoTime();
+		int assignableCount = 0;
+		
+		for (int i = 0; i < iterations; i++)
+		{
+			if (TypeUtils.isAssignable(supertype, type))
+			{
+				assignableCount++;
+			}
+		}
+		
+		long time = System.nanoTime() - start;
+		
+		// prevent the loop from being eliminated
+		if (assignableCount == -1)
+		{
+			System.out.println();
+		}
+		
+		return time;
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.jtype.test;
+
+import java.lang.ref.Reference;
+
+import static org.junit.Assert.assertNull;
+
+/**
+ * Provides custom assertions for testing that objects can be garbage collected.
+ * 
+ * @author Mark Hobson
+ */
+public final class MemoryAssert
+{
+	// constants --------------------------------------------------------------
+	
+	private static final int MAX_COLLECTIONS = 10;
+	
+	// constructors -----------------------------------------------------------
+	
+	private MemoryAssert()
+	{
+		throw new AssertionError();
+	}
+	
+	// public methods ---------------------------------------------------------
+	
+	/**
+	 * Asserts that the referent of the specified reference is garbage collected once memory runs out, which clears all
+	 * soft references.
+	 * 
+	 * @param reference
+	 *            the weak or phantom reference to the object that should be collected
+	 */
+	public static void assertCollected(Reference<?> reference)
+	{
+		for (int i = 0; i < MAX_COLLECTIONS && reference.get() != null; i++)
+		{
+			exhaustMemory();
+			System.gc();
+		}
+		
+		assertNull("Reference was not collected", reference.get());
+	}
+	
+	// private methods --------------------------------------------------------
+	
+	private static void exhaustMemory()
+	{
+		try
+		{
+			// the virtual machine clears all soft references before failing to allocate
+			long[] array = new long[Integer.MAX_VALUE - 8];
+			
+			array[0] = 1;
+		}
+		catch (OutOfMemoryError error)
+		{
+			// expected
+		}
+	}
+}